@@ -5,6 +5,7 @@ import com.google.genai.errors.ClientException;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.google.genai.GoogleGenAiChatModel;
 import org.springframework.ai.google.genai.GoogleGenAiChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
@@ -33,7 +34,7 @@ public class GeminiConfig {
     @Bean
     @Primary
     @ConditionalOnMissingBean(ChatModel.class)
-    public ChatModel googleGenAiChatModel() {
+    public ChatModel googleGenAiChatModel(ToolCallingManager toolCallingManager) {
         // Google GenAI SDK Client 생성
         Client client = Client.builder()
                 .apiKey(apiKey)
@@ -48,10 +49,11 @@ public class GeminiConfig {
         RetryTemplate retryTemplate = createRetryTemplate();
         
         // Spring AI 1.1.2 빌더 사용
-        // 빌더에서는 toolCallingManager가 null이면 DEFAULT_TOOL_CALLING_MANAGER를 사용
+        // 한 응답의 여러 도구 호출을 동시에 실행하도록 McpToolCallingManager 사용
         return GoogleGenAiChatModel.builder()
                 .genAiClient(client)
                 .defaultOptions(options)
+                .toolCallingManager(toolCallingManager)
                 .retryTemplate(retryTemplate)
                 .observationRegistry(ObservationRegistry.NOOP)
                 .build();
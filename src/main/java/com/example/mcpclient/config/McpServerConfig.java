@@ -5,8 +5,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import jakarta.annotation.PostConstruct;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * MCP 서버 설정
@@ -19,6 +21,16 @@ public class McpServerConfig {
     private static final Logger logger = LoggerFactory.getLogger(McpServerConfig.class);
     
     private Map<String, McpServerInfo> servers = new HashMap<>();
+    private long startupBudgetMs = 15000; // 시작 시 서버 연결을 기다리는 최대 시간 (넘으면 백그라운드에서 계속 연결)
+    private long toolsRefreshIntervalMs = 5 * 60 * 1000; // 도구 목록 주기적 갱신 간격 (서버별 ±20% jitter)
+    private String toolsSnapshotFile = "mcp-tools-snapshot.json"; // 재시작 시 바로 사용할 도구 목록 스냅샷 파일 (비우면 사용 안 함)
+    // 설정 hot reload
+    private String configFile; // 변경을 감시할 설정 파일 (yml/properties, 비우면 사용 안 함)
+    private long drainTimeoutMs = 30000; // 변경/삭제된 서버의 처리 중 요청을 기다리는 최대 시간
+    // 채팅 처리 방식
+    private boolean reactiveChat = false; // true면 채팅 요청을 논블로킹(Mono)으로 처리 (Gemini/도구 호출 대기 중 스레드 점유 없음)
+    private int maxToolIterations = 10; // 채팅 하나에서 도구 호출 → Gemini 재요청 최대 반복 횟수
+    private long maxRequestTimeoutMs = 300000; // 요청에 지정할 수 있는 deadline 상한 (더 길면 이 값으로 제한)
     
     @PostConstruct
     public void logConfiguration() {
@@ -44,14 +56,101 @@ public class McpServerConfig {
         this.servers = servers;
     }
 
+    public long getStartupBudgetMs() {
+        return startupBudgetMs;
+    }
+
+    public void setStartupBudgetMs(long startupBudgetMs) {
+        this.startupBudgetMs = startupBudgetMs;
+    }
+
+    public long getToolsRefreshIntervalMs() {
+        return toolsRefreshIntervalMs;
+    }
+
+    public void setToolsRefreshIntervalMs(long toolsRefreshIntervalMs) {
+        this.toolsRefreshIntervalMs = toolsRefreshIntervalMs;
+    }
+
+    public String getToolsSnapshotFile() {
+        return toolsSnapshotFile;
+    }
+
+    public void setToolsSnapshotFile(String toolsSnapshotFile) {
+        this.toolsSnapshotFile = toolsSnapshotFile;
+    }
+
+    public String getConfigFile() {
+        return configFile;
+    }
+
+    public void setConfigFile(String configFile) {
+        this.configFile = configFile;
+    }
+
+    public long getDrainTimeoutMs() {
+        return drainTimeoutMs;
+    }
+
+    public void setDrainTimeoutMs(long drainTimeoutMs) {
+        this.drainTimeoutMs = drainTimeoutMs;
+    }
+
+    public boolean isReactiveChat() {
+        return reactiveChat;
+    }
+
+    public void setReactiveChat(boolean reactiveChat) {
+        this.reactiveChat = reactiveChat;
+    }
+
+    public int getMaxToolIterations() {
+        return maxToolIterations;
+    }
+
+    public void setMaxToolIterations(int maxToolIterations) {
+        this.maxToolIterations = maxToolIterations;
+    }
+
+    public long getMaxRequestTimeoutMs() {
+        return maxRequestTimeoutMs;
+    }
+
+    public void setMaxRequestTimeoutMs(long maxRequestTimeoutMs) {
+        this.maxRequestTimeoutMs = maxRequestTimeoutMs;
+    }
+
     public static class McpServerInfo {
-        private String type = "stdio"; // "stdio" or "sse"
+        public static final long DEFAULT_REQUEST_TIMEOUT_MS = 25000;
+
+        private String type = "stdio"; // "stdio", "sse" or "streamable-http"
         private String command;
         private String[] args;
         private String cwd;
-        private String url; // SSE 방식일 때 필수
+        private String url; // SSE/Streamable HTTP 방식일 때 필수
         private Map<String, String> env = new HashMap<>();
         private Map<String, String> headers = new HashMap<>();
+        // 타임아웃 설정
+        private long requestTimeoutMs = DEFAULT_REQUEST_TIMEOUT_MS; // MCP 요청 하나의 최대 대기 시간
+        private long deadlineMs = 60000; // 채팅 요청 전체 기본 deadline (요청에 지정이 없을 때)
+        // stdio 방식 프로세스 풀 설정
+        private int minProcesses = 1;
+        private int maxProcesses = 1;
+        private int scaleUpThreshold = 2; // 프로세스당 처리 중인 요청이 이 값 이상이면 풀 확장
+        private boolean warmStandby = false; // 장애 대비 미리 띄워둔 예비 프로세스 유지 여부
+        private int stderrBufferLines = 500; // 서버별로 보관할 stderr 최근 줄 수
+        // SSE 방식 연결 유지 설정
+        private long heartbeatTimeoutMs = 60000; // 이 시간 동안 이벤트(heartbeat 포함)가 없으면 재연결
+        private long replayGraceMs = 5000; // 재연결 후 이 시간 안에 응답이 재전송되지 않은 요청은 실패 처리
+        // tools/list 페이지 처리
+        private boolean toolsListPrefetch = true; // 현재 페이지 처리 중에 다음 페이지를 미리 요청
+        // 헬스 체크 / 서킷 브레이커 설정
+        private long pingIntervalMs = 15000; // ping 간격
+        private long pingTimeoutMs = 5000; // ping 응답 최대 대기 시간 (넘으면 실패로 기록)
+        private long circuitOpenMs = 30000; // 회로가 열린 후 다시 확인하기까지의 기본 시간
+        // 도구 호출 병렬 실행 설정
+        private int maxParallelToolCalls = 4; // 모델 응답 하나의 도구 호출 중 이 서버로 동시에 보내는 최대 개수
+        private boolean batchToolCalls = true; // 모델 응답 하나의 이 서버 도구 호출 여러 개를 JSON-RPC 배치 하나로 전송 (배치를 지원하지 않는 서버는 false)
 
         public String getCommand() {
             return command;
@@ -108,5 +207,165 @@ public class McpServerConfig {
         public void setType(String type) {
             this.type = type;
         }
+
+        public int getMinProcesses() {
+            return minProcesses;
+        }
+
+        public void setMinProcesses(int minProcesses) {
+            this.minProcesses = minProcesses;
+        }
+
+        public int getMaxProcesses() {
+            return maxProcesses;
+        }
+
+        public void setMaxProcesses(int maxProcesses) {
+            this.maxProcesses = maxProcesses;
+        }
+
+        public int getScaleUpThreshold() {
+            return scaleUpThreshold;
+        }
+
+        public void setScaleUpThreshold(int scaleUpThreshold) {
+            this.scaleUpThreshold = scaleUpThreshold;
+        }
+
+        public boolean isWarmStandby() {
+            return warmStandby;
+        }
+
+        public void setWarmStandby(boolean warmStandby) {
+            this.warmStandby = warmStandby;
+        }
+
+        public int getStderrBufferLines() {
+            return stderrBufferLines;
+        }
+
+        public void setStderrBufferLines(int stderrBufferLines) {
+            this.stderrBufferLines = stderrBufferLines;
+        }
+
+        public long getRequestTimeoutMs() {
+            return requestTimeoutMs;
+        }
+
+        public void setRequestTimeoutMs(long requestTimeoutMs) {
+            this.requestTimeoutMs = requestTimeoutMs;
+        }
+
+        public long getDeadlineMs() {
+            return deadlineMs;
+        }
+
+        public void setDeadlineMs(long deadlineMs) {
+            this.deadlineMs = deadlineMs;
+        }
+
+        public long getHeartbeatTimeoutMs() {
+            return heartbeatTimeoutMs;
+        }
+
+        public void setHeartbeatTimeoutMs(long heartbeatTimeoutMs) {
+            this.heartbeatTimeoutMs = heartbeatTimeoutMs;
+        }
+
+        public long getReplayGraceMs() {
+            return replayGraceMs;
+        }
+
+        public void setReplayGraceMs(long replayGraceMs) {
+            this.replayGraceMs = replayGraceMs;
+        }
+
+        public boolean isToolsListPrefetch() {
+            return toolsListPrefetch;
+        }
+
+        public void setToolsListPrefetch(boolean toolsListPrefetch) {
+            this.toolsListPrefetch = toolsListPrefetch;
+        }
+
+        public long getPingIntervalMs() {
+            return pingIntervalMs;
+        }
+
+        public void setPingIntervalMs(long pingIntervalMs) {
+            this.pingIntervalMs = pingIntervalMs;
+        }
+
+        public long getPingTimeoutMs() {
+            return pingTimeoutMs;
+        }
+
+        public void setPingTimeoutMs(long pingTimeoutMs) {
+            this.pingTimeoutMs = pingTimeoutMs;
+        }
+
+        public long getCircuitOpenMs() {
+            return circuitOpenMs;
+        }
+
+        public void setCircuitOpenMs(long circuitOpenMs) {
+            this.circuitOpenMs = circuitOpenMs;
+        }
+
+        public int getMaxParallelToolCalls() {
+            return maxParallelToolCalls;
+        }
+
+        public void setMaxParallelToolCalls(int maxParallelToolCalls) {
+            this.maxParallelToolCalls = maxParallelToolCalls;
+        }
+
+        public boolean isBatchToolCalls() {
+            return batchToolCalls;
+        }
+
+        public void setBatchToolCalls(boolean batchToolCalls) {
+            this.batchToolCalls = batchToolCalls;
+        }
+
+        /**
+         * 설정 hot reload 시 변경 여부 판단 (값이 모두 같으면 기존 연결 유지)
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof McpServerInfo other)) {
+                return false;
+            }
+            return requestTimeoutMs == other.requestTimeoutMs
+                && deadlineMs == other.deadlineMs
+                && minProcesses == other.minProcesses
+                && maxProcesses == other.maxProcesses
+                && scaleUpThreshold == other.scaleUpThreshold
+                && warmStandby == other.warmStandby
+                && stderrBufferLines == other.stderrBufferLines
+                && heartbeatTimeoutMs == other.heartbeatTimeoutMs
+                && replayGraceMs == other.replayGraceMs
+                && toolsListPrefetch == other.toolsListPrefetch
+                && pingIntervalMs == other.pingIntervalMs
+                && pingTimeoutMs == other.pingTimeoutMs
+                && circuitOpenMs == other.circuitOpenMs
+                && maxParallelToolCalls == other.maxParallelToolCalls
+                && batchToolCalls == other.batchToolCalls
+                && Objects.equals(type, other.type)
+                && Objects.equals(command, other.command)
+                && Arrays.equals(args, other.args)
+                && Objects.equals(cwd, other.cwd)
+                && Objects.equals(url, other.url)
+                && Objects.equals(env, other.env)
+                && Objects.equals(headers, other.headers);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, command, Arrays.hashCode(args), cwd, url, env, headers);
+        }
     }
 }
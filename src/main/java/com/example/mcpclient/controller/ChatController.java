@@ -1,15 +1,23 @@
 package com.example.mcpclient.controller;
 
+import com.example.mcpclient.config.McpServerConfig;
+import com.example.mcpclient.exception.McpDeadlineExceededException;
 import com.example.mcpclient.service.McpChatService;
+import com.example.mcpclient.service.McpDeadline;
 import com.example.mcpclient.service.McpServerRegistry;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -24,27 +32,102 @@ public class ChatController {
     private static final Logger logger = LoggerFactory.getLogger(ChatController.class);
     private final McpChatService mcpChatService;
     private final McpServerRegistry serverRegistry;
+    private final McpServerConfig serverConfig;
     
-    public ChatController(McpChatService mcpChatService, McpServerRegistry serverRegistry) {
+    public ChatController(McpChatService mcpChatService, McpServerRegistry serverRegistry, McpServerConfig serverConfig) {
         this.mcpChatService = mcpChatService;
         this.serverRegistry = serverRegistry;
+        this.serverConfig = serverConfig;
+    }
+    
+    /**
+     * 채팅 호출 (서버 하나 또는 여러 서버)
+     */
+    @FunctionalInterface
+    private interface ChatInvoker {
+        McpChatService.ChatResponse chat(List<Map<String, Object>> messages, String sessionId, String access_token, McpDeadline deadline);
+    }
+    
+    /**
+     * 요청에 지정한 timeout이 잘못된 경우 (400 응답)
+     */
+    private static final class InvalidTimeoutException extends RuntimeException {
+        InvalidTimeoutException(String message) {
+            super(message);
+        }
     }
     
     /**
      * MCP 서버를 통한 채팅 요청
      * Gemini가 MCP 서버의 도구를 자동으로 선택하고 호출
+     * mcp.reactive-chat=true면 논블로킹으로 처리 (Gemini 스트림과 도구 호출 응답을 비동기로 기다리므로 대기 중 스레드를 점유하지 않음)
+     * false면 기존처럼 요청 스레드에서 처리한 결과를 그대로 반환
      */
     @PostMapping("/{serverName}")
-    public ResponseEntity<Map<String, Object>> chatWithServer(
+    public Mono<ResponseEntity<Map<String, Object>>> chatWithServer(
             @PathVariable String serverName,
             @RequestBody Map<String, Object> chatRequest,
             HttpServletRequest request,
             HttpServletResponse response) {
-        try {
-            if (!serverRegistry.isServerRegistered(serverName)) {
-                return ResponseEntity.notFound().build();
+        if (!serverRegistry.isServerRegistered(serverName)) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        if (serverConfig.isReactiveChat()) {
+            return handleChatReactive(serverName, chatRequest, request, response);
+        }
+        return Mono.just(handleChat(serverName, chatRequest, request, response,
+            (messages, sessionId, access_token, deadline) ->
+                mcpChatService.chatWithServer(serverName, messages, sessionId, access_token, deadline)));
+    }
+    
+    /**
+     * 여러 MCP 서버의 도구를 한 번에 사용하는 채팅 요청
+     * body의 servers로 서버를 지정 (없거나 비어 있으면 등록된 전체 서버)
+     * 도구 이름은 "서버__도구" 형식으로 노출
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> chatWithServers(
+            @RequestBody Map<String, Object> chatRequest,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        List<String> serverNames = new ArrayList<>();
+        Object servers = chatRequest.get("servers");
+        if (servers instanceof List<?> list) {
+            for (Object server : list) {
+                if (server != null) {
+                    serverNames.add(server.toString());
+                }
             }
-            
+        } else if (servers != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "servers must be an array"));
+        }
+        
+        List<String> unknownServers = serverNames.stream()
+            .filter(serverName -> !serverRegistry.isServerRegistered(serverName))
+            .toList();
+        if (!unknownServers.isEmpty()) {
+            return ResponseEntity.status(404).body(Map.of(
+                "error", "Unknown servers",
+                "servers", unknownServers
+            ));
+        }
+        
+        String label = serverNames.isEmpty() ? "*" : String.join(",", serverNames);
+        return handleChat(label, chatRequest, request, response,
+            (messages, sessionId, access_token, deadline) ->
+                mcpChatService.chatWithServers(serverNames, messages, sessionId, access_token, deadline));
+    }
+    
+    /**
+     * 채팅 요청 공통 처리 (메시지 검증, 세션/토큰/deadline 추출, 세션 쿠키 설정, 에러 응답)
+     */
+    private ResponseEntity<Map<String, Object>> handleChat(
+            String serverName,
+            Map<String, Object> chatRequest,
+            HttpServletRequest request,
+            HttpServletResponse response,
+            ChatInvoker chatInvoker) {
+        try {
             @SuppressWarnings("unchecked")
             List<Map<String, Object>> messages = (List<Map<String, Object>>) chatRequest.get("messages");
             if (messages == null || messages.isEmpty()) {
@@ -81,18 +164,14 @@ public class ChatController {
             // 전체 대화 히스토리를 Gemini에 전달 (이전 대화 내용 기억)
             // 세션별 히스토리 자동 관리 (TTL: 30분)
             // Gemini가 MCP 서버의 도구를 자동으로 선택하고 호출
-            McpChatService.ChatResponse chatResponse = mcpChatService.chatWithServer(serverName, messages, sessionId, access_token);
+            // 요청 deadline 추출 (없으면 서버 설정의 기본값)
+            McpDeadline deadline = extractDeadline(request, chatRequest);
+            
+            McpChatService.ChatResponse chatResponse = chatInvoker.chat(messages, sessionId, access_token, deadline);
             
             // 응답 쿠키에 세션 ID 설정 (클라이언트가 다음 요청에 쿠키로 전달)
             String responseSessionId = chatResponse.getSessionId();
-            if (responseSessionId != null && !responseSessionId.trim().isEmpty()) {
-                Cookie sessionCookie = new Cookie("SESSIONID", responseSessionId);
-                sessionCookie.setPath("/");
-                sessionCookie.setMaxAge(30 * 60); // 30분 (초 단위)
-                sessionCookie.setHttpOnly(true); // XSS 방지
-                response.addCookie(sessionCookie);
-                logger.debug("Set SESSIONID cookie: {}", responseSessionId);
-            }
+            setSessionCookie(response, responseSessionId);
             
             // 응답에 세션 ID 포함 (클라이언트 참고용, 실제로는 쿠키 사용)
             return ResponseEntity.ok(Map.of(
@@ -100,6 +179,13 @@ public class ChatController {
                 "content", chatResponse.getContent(),
                 "sessionId", responseSessionId
             ));
+        } catch (InvalidTimeoutException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (McpDeadlineExceededException e) {
+            logger.warn("Chat request deadline exceeded for server {}: {}", serverName, e.getMessage());
+            return ResponseEntity.status(504).body(Map.of(
+                "error", "Request deadline exceeded: " + e.getMessage()
+            ));
         } catch (Exception e) {
             logger.error("Error in chatWithServer for server: {}", serverName, e);
             return ResponseEntity.status(500).body(Map.of(
@@ -108,6 +194,102 @@ public class ChatController {
         }
     }
     
+    /**
+     * 채팅 요청 논블로킹 처리 (응답 형식과 에러 상태 코드는 handleChat과 동일)
+     */
+    private Mono<ResponseEntity<Map<String, Object>>> handleChatReactive(
+            String serverName,
+            Map<String, Object> chatRequest,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> messages = (List<Map<String, Object>>) chatRequest.get("messages");
+        if (messages == null || messages.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "messages required")));
+        }
+        
+        // 요청 정보는 요청 스레드에서 미리 추출 (이후 처리는 다른 스레드에서 진행)
+        String sessionId = extractSessionId(request, chatRequest);
+        String access_token = extractAccessToken(request, chatRequest);
+        McpDeadline deadline;
+        try {
+            deadline = extractDeadline(request, chatRequest);
+        } catch (InvalidTimeoutException e) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+        }
+        
+        return mcpChatService.chatWithServerReactive(serverName, messages, sessionId, access_token, deadline)
+            .map(chatResponse -> {
+                setSessionCookie(response, chatResponse.getSessionId());
+                return ResponseEntity.ok(Map.<String, Object>of(
+                    "role", "assistant",
+                    "content", chatResponse.getContent(),
+                    "sessionId", chatResponse.getSessionId()
+                ));
+            })
+            .onErrorResume(McpDeadlineExceededException.class, e -> {
+                logger.warn("Chat request deadline exceeded for server {}: {}", serverName, e.getMessage());
+                return Mono.just(ResponseEntity.status(504).body(Map.of(
+                    "error", "Request deadline exceeded: " + e.getMessage()
+                )));
+            })
+            .onErrorResume(e -> {
+                logger.error("Error in reactive chat for server: {}", serverName, e);
+                return Mono.just(ResponseEntity.status(500).body(Map.of(
+                    "error", "Error processing chat request: " + e.getMessage()
+                )));
+            });
+    }
+    
+    /**
+     * MCP 서버를 통한 스트리밍 채팅 요청 (text/event-stream)
+     * 첫 이벤트(session)로 세션 ID를 보낸 후, 응답 텍스트 조각(delta)과 도구 호출 진행 상황(tool_call, tool_result)을 생성되는 즉시 전송
+     * 스트림이 끝나면 done 이벤트에 전체 응답을 담아 전송하고 세션 히스토리에 추가
+     */
+    @PostMapping(value = "/{serverName}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<Map<String, Object>>>> streamChatWithServer(
+            @PathVariable String serverName,
+            @RequestBody Map<String, Object> chatRequest,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        if (!serverRegistry.isServerRegistered(serverName)) {
+            return ResponseEntity.status(404).body(errorStream("Server not found: " + serverName));
+        }
+        
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> messages = (List<Map<String, Object>>) chatRequest.get("messages");
+        if (messages == null || messages.isEmpty()) {
+            return ResponseEntity.badRequest().body(errorStream("messages required"));
+        }
+        
+        try {
+            String sessionId = extractSessionId(request, chatRequest);
+            String access_token = extractAccessToken(request, chatRequest);
+            McpDeadline deadline = extractDeadline(request, chatRequest);
+            
+            McpChatService.ChatStream chatStream = mcpChatService.streamChatWithServer(serverName, messages, sessionId, access_token, deadline);
+            // 스트림 시작 전에 쿠키 설정 (응답 헤더는 첫 이벤트와 함께 전송됨)
+            setSessionCookie(response, chatStream.getSessionId());
+            
+            Flux<ServerSentEvent<Map<String, Object>>> events = Flux.concat(
+                    Flux.just(Map.<String, Object>of("type", "session", "sessionId", chatStream.getSessionId())),
+                    chatStream.getEvents())
+                .map(this::toServerSentEvent);
+            return ResponseEntity.ok()
+                // 프록시가 이벤트를 모아서 보내지 않도록 버퍼링 비활성화
+                .header("X-Accel-Buffering", "no")
+                .body(events);
+        } catch (InvalidTimeoutException e) {
+            return ResponseEntity.badRequest().body(errorStream(e.getMessage()));
+        } catch (McpDeadlineExceededException e) {
+            logger.warn("Streaming chat request deadline exceeded for server {}: {}", serverName, e.getMessage());
+            return ResponseEntity.status(504).body(errorStream("Request deadline exceeded: " + e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error in streamChatWithServer for server: {}", serverName, e);
+            return ResponseEntity.status(500).body(errorStream("Error processing chat request: " + e.getMessage()));
+        }
+    }
+    
     /**
      * 세션별 대화 히스토리 조회
      */
@@ -211,6 +393,82 @@ public class ChatController {
         return null;
     }
     
+    /**
+     * 요청 deadline 추출 (밀리초)
+     * X-Request-Timeout-Ms 헤더 우선, body의 timeoutMs 다음, 없으면 null (서버 기본값 사용)
+     * 숫자가 아니거나 0 이하면 InvalidTimeoutException (400), mcp.max-request-timeout-ms보다 길면 상한으로 제한
+     */
+    private McpDeadline extractDeadline(HttpServletRequest request, Map<String, Object> chatRequest) {
+        // 1. 헤더에서 추출
+        String headerTimeout = request.getHeader("X-Request-Timeout-Ms");
+        if (headerTimeout != null && !headerTimeout.trim().isEmpty()) {
+            try {
+                return toDeadline(Long.parseLong(headerTimeout.trim()));
+            } catch (NumberFormatException e) {
+                throw new InvalidTimeoutException("X-Request-Timeout-Ms must be a number of milliseconds: " + headerTimeout);
+            }
+        }
+        
+        // 2. 요청 body에서 추출
+        Object bodyTimeout = chatRequest.get("timeoutMs");
+        if (bodyTimeout instanceof Number) {
+            return toDeadline(((Number) bodyTimeout).longValue());
+        }
+        if (bodyTimeout != null) {
+            throw new InvalidTimeoutException("timeoutMs must be a number of milliseconds: " + bodyTimeout);
+        }
+        
+        // 3. 없으면 null 반환 (McpChatService에서 서버 기본값 사용)
+        return null;
+    }
+    
+    /**
+     * 요청 timeout 검증 후 deadline 생성 (상한을 넘으면 상한으로 제한)
+     */
+    private McpDeadline toDeadline(long timeoutMs) {
+        if (timeoutMs <= 0) {
+            throw new InvalidTimeoutException("Request timeout must be positive: " + timeoutMs);
+        }
+        long maxTimeoutMs = serverConfig.getMaxRequestTimeoutMs();
+        if (timeoutMs > maxTimeoutMs) {
+            logger.debug("Clamping request timeout {}ms to {}ms", timeoutMs, maxTimeoutMs);
+            return McpDeadline.after(maxTimeoutMs);
+        }
+        return McpDeadline.after(timeoutMs);
+    }
+
+    
+    /**
+     * 응답 쿠키에 세션 ID 설정 (클라이언트가 다음 요청에 쿠키로 전달)
+     */
+    private void setSessionCookie(HttpServletResponse response, String sessionId) {
+        if (sessionId == null || sessionId.trim().isEmpty()) {
+            return;
+        }
+        Cookie sessionCookie = new Cookie("SESSIONID", sessionId);
+        sessionCookie.setPath("/");
+        sessionCookie.setMaxAge(30 * 60); // 30분 (초 단위)
+        sessionCookie.setHttpOnly(true); // XSS 방지
+        response.addCookie(sessionCookie);
+        logger.debug("Set SESSIONID cookie: {}", sessionId);
+    }
+    
+    /**
+     * 스트리밍 이벤트 → SSE 이벤트 (이벤트 이름은 type)
+     */
+    private ServerSentEvent<Map<String, Object>> toServerSentEvent(Map<String, Object> event) {
+        return ServerSentEvent.<Map<String, Object>>builder(event)
+            .event(String.valueOf(event.get("type")))
+            .build();
+    }
+    
+    /**
+     * 스트리밍 시작 전 에러 응답 (error 이벤트 하나)
+     */
+    private Flux<ServerSentEvent<Map<String, Object>>> errorStream(String message) {
+        return Flux.just(toServerSentEvent(Map.of("type", "error", "error", message)));
+    }
+    
     /**
      * 쿠키에서 값 추출
      */
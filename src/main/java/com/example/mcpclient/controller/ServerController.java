@@ -2,11 +2,14 @@ package com.example.mcpclient.controller;
 
 import com.example.mcpclient.config.McpServerConfig;
 import com.example.mcpclient.service.McpServerRegistry;
+import com.example.mcpclient.service.McpServerStdioConnection;
+import com.example.mcpclient.service.McpSseClientManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -21,9 +24,16 @@ public class ServerController {
     
     private static final Logger logger = LoggerFactory.getLogger(ServerController.class);
     private final McpServerRegistry serverRegistry;
+    private final McpServerStdioConnection stdioConnection;
+    private final McpSseClientManager sseClientManager;
     
-    public ServerController(McpServerRegistry serverRegistry) {
+    public ServerController(
+            McpServerRegistry serverRegistry,
+            McpServerStdioConnection stdioConnection,
+            McpSseClientManager sseClientManager) {
         this.serverRegistry = serverRegistry;
+        this.stdioConnection = stdioConnection;
+        this.sseClientManager = sseClientManager;
     }
     
     /**
@@ -34,6 +44,27 @@ public class ServerController {
         return ResponseEntity.ok(serverRegistry.getRegisteredServerNames());
     }
     
+    /**
+     * 서버별 상태 조회 (ready / warming / failed)
+     */
+    @GetMapping("/states")
+    public ResponseEntity<Map<String, String>> getServerStates() {
+        Map<String, String> states = new HashMap<>();
+        for (String serverName : serverRegistry.getRegisteredServerNames()) {
+            states.put(serverName, serverRegistry.getServerState(serverName));
+        }
+        return ResponseEntity.ok(states);
+    }
+    
+    /**
+     * 서버별 헬스 체크 / 서킷 브레이커 상태 조회
+     * (회로 상태, 최근 실패율, 연속 실패 수, ping 지연 시간, 마지막 에러)
+     */
+    @GetMapping("/health")
+    public ResponseEntity<Map<String, Map<String, Object>>> getServerHealth() {
+        return ResponseEntity.ok(serverRegistry.getServerHealth());
+    }
+    
     /**
      * MCP 서버 등록
      */
@@ -83,6 +114,38 @@ public class ServerController {
         return ResponseEntity.ok(tools);
     }
     
+    /**
+     * stdio 서버 진단 정보 조회 (stderr 최근 N줄, 프로세스 풀 상태)
+     * 재시작 없이 서버 멈춤 원인 확인용
+     */
+    @GetMapping("/{serverName}/diagnostics")
+    public ResponseEntity<Map<String, Object>> getServerDiagnostics(
+            @PathVariable String serverName,
+            @RequestParam(required = false, defaultValue = "100") int lines) {
+        if (!serverRegistry.isServerRegistered(serverName)) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> diagnostics = stdioConnection.getDiagnostics(serverName, lines);
+        if (diagnostics == null) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "status", "error",
+                "message", "Diagnostics are only available for connected stdio servers: " + serverName
+            ));
+        }
+        return ResponseEntity.ok(diagnostics);
+    }
+    
+    /**
+     * 응답 대기 중인 요청 gauge 조회 (서버별 처리 중 요청 수, 가장 오래된 요청 대기 시간, 누적 만료 수)
+     */
+    @GetMapping("/pending-requests")
+    public ResponseEntity<Map<String, Object>> getPendingRequests() {
+        return ResponseEntity.ok(Map.of(
+            "stdio", stdioConnection.getPendingStats(),
+            "sse", sseClientManager.getPendingStats()
+        ));
+    }
+    
     /**
      * 모든 서버의 도구 목록 조회
      */
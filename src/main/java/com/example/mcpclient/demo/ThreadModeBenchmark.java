@@ -0,0 +1,79 @@
+package com.example.mcpclient.demo;
+
+import com.example.mcpclient.service.McpExecutors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * platform thread 풀과 virtual thread의 동시 처리량 비교 벤치마크.
+ *
+ * - 채팅 요청 하나를 "MCP/Gemini 응답을 기다리며 블로킹"하는 작업으로 흉내냄
+ *   (sendRequest처럼 다른 스레드가 완료시키는 CompletableFuture를 get()으로 대기)
+ * - platform: Tomcat 기본 최대 스레드 수(200)와 같은 고정 풀
+ * - virtual: 작업마다 virtual thread
+ *
+ * 실행: java ThreadModeBenchmark [요청 수=5000] [응답 지연 ms=1000] [platform 풀 크기=200]
+ * 결과: 전체 소요 시간, 초당 처리 요청 수, 동시에 대기한 최대 요청 수
+ */
+public class ThreadModeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        long latencyMs = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        int poolSize = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        System.out.printf("requests=%d, latency=%dms, platform pool=%d%n", requests, latencyMs, poolSize);
+
+        // 응답을 완료시키는 쪽 (MCP 서버 응답 reader 스레드 역할)
+        ScheduledExecutorService responder = Executors.newScheduledThreadPool(4);
+        try {
+            // JIT 예열
+            run("warmup", Executors.newFixedThreadPool(poolSize), Math.min(requests, 1000), 10, responder);
+
+            run("platform", Executors.newFixedThreadPool(poolSize), requests, latencyMs, responder);
+            run("virtual", McpExecutors.newVirtualThreadPerTaskExecutor("bench"), requests, latencyMs, responder);
+        } finally {
+            responder.shutdownNow();
+        }
+    }
+
+    private static void run(String mode, ExecutorService executor, int requests, long latencyMs,
+                            ScheduledExecutorService responder) throws Exception {
+        AtomicInteger waiting = new AtomicInteger();
+        AtomicInteger maxWaiting = new AtomicInteger();
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                futures.add(executor.submit(() -> {
+                    CompletableFuture<String> response = new CompletableFuture<>();
+                    responder.schedule(() -> response.complete("ok"), latencyMs, TimeUnit.MILLISECONDS);
+                    maxWaiting.accumulateAndGet(waiting.incrementAndGet(), Math::max);
+                    try {
+                        return response.get();
+                    } finally {
+                        waiting.decrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (!"warmup".equals(mode)) {
+            System.out.printf("%-8s elapsed=%6dms, throughput=%8.1f req/s, max concurrent waits=%d%n",
+                mode, elapsedMs, requests * 1000.0 / Math.max(elapsedMs, 1), maxWaiting.get());
+        }
+    }
+}
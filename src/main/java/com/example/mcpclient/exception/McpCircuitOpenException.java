@@ -0,0 +1,24 @@
+package com.example.mcpclient.exception;
+
+/**
+ * 서버의 서킷 브레이커가 열려 있어 요청을 보내지 않고 바로 실패할 때 발생
+ */
+public class McpCircuitOpenException extends RuntimeException {
+
+    private final String serverName;
+    private final long retryAfterMs;
+
+    public McpCircuitOpenException(String serverName, long retryAfterMs) {
+        super("Server " + serverName + " is unavailable (circuit open, retry after " + retryAfterMs + "ms)");
+        this.serverName = serverName;
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public String getServerName() {
+        return serverName;
+    }
+
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.mcpclient.exception;
+
+/**
+ * 채팅 요청의 deadline이 지나 더 이상 작업을 진행하지 않을 때 발생
+ */
+public class McpDeadlineExceededException extends RuntimeException {
+
+    public McpDeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -11,6 +11,7 @@ public class McpResponse {
     private Object result;
     private McpError error;
     private String id;
+    private String method; // 서버 알림(notification)일 때 메서드 이름
 
     public McpResponse() {
     }
@@ -56,4 +57,12 @@ public class McpResponse {
     public void setId(String id) {
         this.id = id;
     }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
 }
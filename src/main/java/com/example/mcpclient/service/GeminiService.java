@@ -1,16 +1,22 @@
 package com.example.mcpclient.service;
 
+import com.example.mcpclient.exception.McpDeadlineExceededException;
 import com.example.mcpclient.model.ChatMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.ChatResponse;
-import org.springframework.ai.chat.messages.AssistantMessage.ToolCall;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Gemini AI 모델 직접 호출 서비스
@@ -21,9 +27,14 @@ import java.util.List;
 public class GeminiService {
     
     private static final Logger logger = LoggerFactory.getLogger(GeminiService.class);
+    // 도구 호출 후에도 남은 질문에 이어서 답변하도록 하는 시스템 프롬프트
+    private static final String TOOL_FOLLOW_UP_SYSTEM_PROMPT =
+            "사용자가 여러 질문을 한 번에 할 수 있습니다. 도구 호출 후 반드시 남은 사용자 질문에 대해 텍스트로 이어서 답변할 것. 도구 호출만 하고 대화를 중단하지 말 것.";
     private final ChatClient chatClient;
+    private final McpToolCallingEngine toolCallingEngine;
 
-    public GeminiService(ChatModel chatModel) {
+    public GeminiService(ChatModel chatModel, McpToolCallingEngine toolCallingEngine) {
+        this.toolCallingEngine = toolCallingEngine;
         try {
             if (chatModel != null) {
                 this.chatClient = ChatClient.builder(chatModel).build();
@@ -99,10 +110,31 @@ public class GeminiService {
     }
     
     /**
-     * ChatClient를 사용하여 메시지 리스트로 응답 생성 (도구 등록 가능)
-     * McpChatService에서 도구가 등록된 ChatClient를 사용할 때 호출
+     * ChatClient를 사용하여 메시지 리스트로 응답 생성 (도구 없이 한 번 호출)
      */
     public String generateResponseWithChatClient(ChatClient chatClient, List<Message> messages) {
+        return generateResponseWithChatClient(chatClient, messages, null);
+    }
+    
+    /**
+     * deadline 안에서 응답 생성 (도구 없이 한 번 호출)
+     * deadline이 지났으면 Gemini 호출(재시도 포함)을 시작하지 않음
+     */
+    public String generateResponseWithChatClient(ChatClient chatClient, List<Message> messages, McpDeadline deadline) {
+        return generateResponseWithChatClient(chatClient, messages, List.of(), Map.of(), deadline);
+    }
+    
+    /**
+     * 도구가 등록된 ChatClient로 deadline 안에서 응답 생성
+     * 도구 호출 반복은 McpToolCallingEngine이 직접 수행 (반복마다 Gemini 호출 한 번, 반복 횟수 제한)
+     * toolContext는 도구 호출 시 ToolCallback에 전달됨 (도구가 요청 스레드가 아닌 스레드에서 실행될 수 있음)
+     */
+    public String generateResponseWithChatClient(
+            ChatClient chatClient,
+            List<Message> messages,
+            List<ToolCallback> toolCallbacks,
+            Map<String, Object> toolContext,
+            McpDeadline deadline) {
         if (chatClient == null) {
             throw new IllegalArgumentException("ChatClient cannot be null");
         }
@@ -113,78 +145,101 @@ public class GeminiService {
         long startTime = System.currentTimeMillis();
         try {
             logger.info("=== Starting Gemini API call ===");
+            String content = toolCallingEngine.run(
+                    chatClient, TOOL_FOLLOW_UP_SYSTEM_PROMPT, messages, toolCallbacks, toolContext, deadline);
             
-            // 시스템 프롬프트 추가: 모든 질문에 답변하도록 지시
-            // TODO: AI 모델 변경 테스트,
-            // call() 후 체이닝으로 content() 호출 (Spring AI는 체이닝 방식 사용)
-            String content = null;
-            content = chatClient.prompt()
-                    .system("사용자가 여러 질문을 한 번에 할 수 있습니다. 도구 호출 후 반드시 남은 사용자 질문에 대해 텍스트로 이어서 답변할 것. 도구 호출만 하고 대화를 중단하지 말 것.")
-                    .messages(messages)
-                    .call()
-                    .content();
-
-            // content가 비어있거나 null인 경우 처리
-            if (content == null || content.isBlank()) {
-                logger.warn("Content is empty, trying to get chatResponse");
-                // chatResponse에서 전체 응답 구조 가져오기
-                ChatResponse raw = chatClient.prompt()
-                        .system("""
-                                사용자는 한 메시지에 여러 질문을 할 수 있습니다.
-                                모든 질문에 대해 빠짐없이, 순서대로, 텍스트로 답변해야 합니다.
-                                도구가 필요할 경우 도구를 호출하고, 도구가 필요 없는 질문에는 즉시 답변하십시오.
-                                도구 호출 후에도 남은 질문이 있으면 반드시 이어서 답변하십시오.
-                                절대로 질문을 누락하거나 대화를 수정하거나 우회하지 마십시오.
-                                """)
-                        .messages(messages)
-                        .call()
-                        .chatResponse();
-                logger.info("TEST@ RAW RESPONSE = {}", raw);
-                // ChatResponse에서 텍스트 추출 시도
-                if (raw != null && raw.getResult() != null && raw.getResult().getOutput() != null) {
-                    content = raw.getResult().getOutput().getText();
-                    logger.info("TEST@ CONTENT = {}", content);
-                    List<ToolCall> toolCalls = raw.getResult().getOutput().getToolCalls();
-                    logger.info("TEST@ TOOL CALLS = {}", toolCalls);
-                }
-                
-                if (content == null || content.isBlank()) {
-                    return raw != null ? raw.toString() : "Empty response";
-                }
-            }
-            
-            /*
-            ChatResponse resp = chatClient.prompt().messages(messages).call().chatResponse();
-
-            for (Generation gen : resp.getResults()) {
-                AssistantMessage output = (AssistantMessage) gen.getOutput();
-                if (output.getToolCalls() != null) {
-                    // 1) tool 호출
-                    ToolCall tc = output.getToolCalls().get(0);
-                    Object toolResult = callTool(tc);
-                    
-                    // 2) tool 결과를 모델에게 다시 보냄
-                    resp = chatClient.prompt()
-                            .messages(messages)
-                            .messages(new ToolResponseMessage(tc.getId(), toolResult))
-                            .call().chatResponse();
-                }
-            }
-
-            return resp.getContent();
-
-            */
-            long afterCall = System.currentTimeMillis();
-            long elapsed = afterCall - startTime;
+            long elapsed = System.currentTimeMillis() - startTime;
             logger.info("=== Gemini API call completed in {}ms ===", elapsed);
-            // logger.debug("Generated response length: {} chars", response != null ? response.length() : 0);
-
+            if (deadline != null && deadline.isExpired()) {
+                logger.warn("Gemini API call finished after the request deadline");
+            }
             return content;
+        } catch (McpDeadlineExceededException e) {
+            throw e;
         } catch (Exception e) {
             return handleGeminiException(e, "Failed to generate response with custom ChatClient");
         }
     }
     
+    /**
+     * ChatClient로 응답을 스트리밍 생성 (텍스트 조각 단위)
+     * 도구 호출은 스트림 중간에 자동으로 실행되고, toolContext는 도구 호출 시 ToolCallback에 전달됨
+     * 도구 호출 반복은 mcp.max-tool-iterations로 제한 (한도에 도달하면 중단 안내가 마지막 조각으로 전달됨)
+     * deadline이 지나면 McpDeadlineExceededException으로 스트림 종료
+     */
+    public Flux<String> streamResponseWithChatClient(
+            ChatClient chatClient,
+            List<Message> messages,
+            Map<String, Object> toolContext,
+            McpDeadline deadline) {
+        if (chatClient == null) {
+            throw new IllegalArgumentException("ChatClient cannot be null");
+        }
+        if (messages == null || messages.isEmpty()) {
+            throw new IllegalArgumentException("Messages cannot be null or empty");
+        }
+        
+        return Flux.defer(() -> {
+            deadline.check("Gemini stream");
+            long startTime = System.currentTimeMillis();
+            logger.info("=== Starting Gemini streaming API call ===");
+            return chatClient.prompt()
+                    .system(TOOL_FOLLOW_UP_SYSTEM_PROMPT)
+                    .messages(messages)
+                    .toolContext(toolCallingEngine.withRoundLimit(toolContext))
+                    .stream()
+                    .content()
+                    .transform(chunks -> withDeadline(chunks, deadline))
+                    .doOnComplete(() -> logger.info("=== Gemini streaming API call completed in {}ms ===",
+                            System.currentTimeMillis() - startTime));
+        });
+    }
+    
+    /**
+     * ChatClient로 응답을 스트리밍 생성하되 도구는 실행하지 않음 (논블로킹 채팅의 도구 호출 반복용)
+     * 도구 호출이 필요하면 응답에 tool call만 담겨 오고, 호출과 결과 전달은 호출하는 쪽에서 처리
+     * deadline이 지나면 Gemini 스트림을 취소하고 McpDeadlineExceededException으로 종료
+     */
+    public Flux<ChatResponse> streamResponseWithoutToolExecution(
+            ChatClient chatClient,
+            List<Message> messages,
+            McpDeadline deadline) {
+        if (chatClient == null) {
+            throw new IllegalArgumentException("ChatClient cannot be null");
+        }
+        if (messages == null || messages.isEmpty()) {
+            throw new IllegalArgumentException("Messages cannot be null or empty");
+        }
+        
+        return Flux.defer(() -> {
+            if (deadline != null) {
+                deadline.check("Gemini call");
+            }
+            return chatClient.prompt()
+                    .system(TOOL_FOLLOW_UP_SYSTEM_PROMPT)
+                    .messages(messages)
+                    .options(ToolCallingChatOptions.builder().internalToolExecutionEnabled(false).build())
+                    .stream()
+                    .chatResponse()
+                    .transform(responses -> withDeadline(responses, deadline));
+        });
+    }
+    
+    /**
+     * 조각 사이 간격이 아닌 스트림 전체에 deadline 적용
+     * 조각마다 다음 조각의 대기 시간을 deadline까지 남은 시간으로 다시 잡으므로, 조각이 계속 오고 있어도 deadline이 지나면
+     * Gemini 스트림을 취소하고 McpDeadlineExceededException으로 종료
+     */
+    private static <T> Flux<T> withDeadline(Flux<T> stream, McpDeadline deadline) {
+        if (deadline == null) {
+            return stream;
+        }
+        return stream.timeout(
+                Mono.delay(Duration.ofMillis(deadline.remainingMs())),
+                chunk -> Mono.delay(Duration.ofMillis(deadline.remainingMs())),
+                Flux.error(() -> new McpDeadlineExceededException("Deadline exceeded while streaming Gemini response")));
+    }
+    
     /**
      * Gemini API 예외 처리 공통 메서드
      */
@@ -1,7 +1,11 @@
 package com.example.mcpclient.service;
 
+import com.example.mcpclient.config.McpServerConfig;
+import com.example.mcpclient.exception.McpCircuitOpenException;
+import com.example.mcpclient.exception.McpDeadlineExceededException;
 import com.example.mcpclient.model.McpRequest;
 import com.example.mcpclient.model.McpResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,14 +13,23 @@ import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
 import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.definition.ToolDefinition;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -31,9 +44,11 @@ public class McpChatService {
     private final ChatModel chatModel;
     private final ObjectMapper objectMapper;
     private final GeminiService geminiService;
+    private final McpToolExecutor toolExecutor;
+    private final McpServerConfig serverConfig;
     
-    // 서버별 ChatClient 캐시
-    private final Map<String, ChatClient> chatClientCache = new HashMap<>();
+    // 서버별 ChatClient 캐시 (도구 카탈로그의 서버 버전이 바뀌면 다시 생성)
+    private final Map<String, CachedChatClient> chatClientCache = new ConcurrentHashMap<>();
     
     // 세션별 대화 히스토리 저장 (세션ID -> 히스토리)
     private final Map<String, ConversationSession> conversationSessions = new ConcurrentHashMap<>();
@@ -45,6 +60,42 @@ public class McpChatService {
     
     // 현재 요청의 accessToken을 ThreadLocal로 저장 (도구 호출 시 서버 인증용)
     private static final ThreadLocal<String> currentAccessToken = new ThreadLocal<>();
+    // 현재 요청의 deadline을 ThreadLocal로 저장 (도구 호출 시 남은 시간만 사용)
+    private static final ThreadLocal<McpDeadline> currentDeadline = new ThreadLocal<>();
+    // 스트리밍 요청의 ToolRequestContext를 담는 ToolContext 키
+    private static final String TOOL_REQUEST_CONTEXT = "mcpToolRequestContext";
+    
+    /**
+     * 생성 시점의 도구 카탈로그 서버 버전과 함께 보관하는 ChatClient
+     * 도구 호출을 직접 실행할 수 있도록 ChatClient에 등록한 ToolCallback도 함께 보관
+     */
+    private static class CachedChatClient {
+        private final ChatClient chatClient;
+        private final List<ToolCallback> toolCallbacks;
+        private final long toolsVersion;
+        
+        CachedChatClient(ChatClient chatClient, List<ToolCallback> toolCallbacks, long toolsVersion) {
+            this.chatClient = chatClient;
+            this.toolCallbacks = toolCallbacks;
+            this.toolsVersion = toolsVersion;
+        }
+    }
+    
+    /**
+     * 스트리밍 요청에서 도구 호출에 넘겨주는 요청 정보 (ToolContext로 전달)
+     */
+    private static class ToolRequestContext {
+        private final String accessToken;
+        private final McpDeadline deadline;
+        // 도구 호출 진행 이벤트를 받을 스트림
+        private final Consumer<Map<String, Object>> eventListener;
+        
+        ToolRequestContext(String accessToken, McpDeadline deadline, Consumer<Map<String, Object>> eventListener) {
+            this.accessToken = accessToken;
+            this.deadline = deadline;
+            this.eventListener = eventListener;
+        }
+    }
     
     /**
      * 대화 세션 정보
@@ -92,11 +143,15 @@ public class McpChatService {
             McpServerRegistry serverRegistry,
             ChatModel chatModel,
             ObjectMapper objectMapper,
-            GeminiService geminiService) {
+            GeminiService geminiService,
+            McpToolExecutor toolExecutor,
+            McpServerConfig serverConfig) {
         this.serverRegistry = serverRegistry;
         this.chatModel = chatModel;
         this.objectMapper = objectMapper;
         this.geminiService = geminiService;
+        this.toolExecutor = toolExecutor;
+        this.serverConfig = serverConfig;
     }
     
     /**
@@ -107,10 +162,61 @@ public class McpChatService {
      * @param messages 대화 히스토리 (role: user/assistant)
      * @param sessionId 세션 ID (선택사항, 없으면 자동 생성) - chat history 관리용
      * @param access_token access_token (선택사항) - 서버 인증용
+     * @param deadline 요청 전체 deadline (null이면 서버 설정의 기본값)
      * @return ChatResponse (응답과 세션 ID 포함)
      */
-    public ChatResponse chatWithServer(String serverName, List<Map<String, Object>> messages, String sessionId, String access_token) {
+    public ChatResponse chatWithServer(
+            String serverName,
+            List<Map<String, Object>> messages,
+            String sessionId,
+            String access_token,
+            McpDeadline deadline) {
         logger.info("=== McpChatService.chatWithServer called for server: {} ===", serverName);
+        return chat(serverName, List.of(serverName), () -> getOrCreateCachedChatClient(serverName),
+            messages, sessionId, access_token, deadline);
+    }
+    
+    /**
+     * 여러 MCP 서버의 도구를 한 번에 사용하는 채팅 요청 처리
+     * 도구 이름은 "서버__도구" 형식으로 노출되고, 모델이 고른 이름으로 해당 서버의 도구를 호출
+     * 
+     * @param serverNames 사용할 서버 목록 (null 또는 비어 있으면 등록된 전체 서버)
+     * @param messages 대화 히스토리 (role: user/assistant)
+     * @param sessionId 세션 ID (선택사항, 없으면 자동 생성) - chat history 관리용
+     * @param access_token access_token (선택사항) - 서버 인증용
+     * @param deadline 요청 전체 deadline (null이면 서버 설정 중 가장 긴 기본값)
+     * @return ChatResponse (응답과 세션 ID 포함)
+     */
+    public ChatResponse chatWithServers(
+            List<String> serverNames,
+            List<Map<String, Object>> messages,
+            String sessionId,
+            String access_token,
+            McpDeadline deadline) {
+        List<String> servers = serverNames == null || serverNames.isEmpty()
+            ? new ArrayList<>(new TreeSet<>(serverRegistry.getRegisteredServerNames()))
+            : new ArrayList<>(new TreeSet<>(serverNames));
+        String label = String.join(",", servers);
+        logger.info("=== McpChatService.chatWithServers called for servers: {} ===", label);
+        return chat(label, servers, () -> getOrCreateAggregateChatClient(servers),
+            messages, sessionId, access_token, deadline);
+    }
+    
+    /**
+     * 채팅 요청 공통 처리 (세션 히스토리, ThreadLocal 설정, warming 대기, Gemini 호출)
+     * 
+     * @param label 로그/에러 메시지용 서버 이름 (여러 서버면 ','로 연결)
+     * @param serverNames 도구를 사용할 서버 목록
+     * @param chatClientSupplier 도구가 등록된 ChatClient와 그 도구 (서버 준비 후 호출)
+     */
+    private ChatResponse chat(
+            String label,
+            List<String> serverNames,
+            Supplier<CachedChatClient> chatClientSupplier,
+            List<Map<String, Object>> messages,
+            String sessionId,
+            String access_token,
+            McpDeadline deadline) {
         try {
             if (messages == null || messages.isEmpty()) {
                 throw new IllegalArgumentException("Messages cannot be null or empty");
@@ -128,134 +234,59 @@ public class McpChatService {
                 logger.debug("AccessToken set for tool calls");
             }
             
+            // 현재 요청의 deadline을 ThreadLocal에 저장 (도구 호출 시 남은 시간 계산용)
+            deadline = resolveDeadline(serverNames, deadline);
+            currentDeadline.set(deadline);
+            
+            // 아직 시작 중(warming)인 서버면 남은 시간 안에서 준비될 때까지 대기
+            awaitServers(serverNames, deadline);
+            
             try {
                 // 세션별 히스토리 관리
                 ConversationSession session = conversationSessions.computeIfAbsent(sessionId, ConversationSession::new);
+                List<Message> springAiMessages = toPromptMessages(session, messages, label, sessionId);
                 
-                // 마지막 사용자 메시지 찾기
-            Map<String, Object> lastUserMessage = null;
-            for (int i = messages.size() - 1; i >= 0; i--) {
-                Map<String, Object> msg = messages.get(i);
-                if ("user".equalsIgnoreCase((String) msg.get("role"))) {
-                    lastUserMessage = msg;
-                    break;
-                }
-            }
-            
-            // 세션 히스토리에 새 메시지 추가 (중복 체크)
-            if (lastUserMessage != null) {
-                // 중복 체크: 같은 content를 가진 user 메시지가 이미 있는지 확인
-                List<Map<String, Object>> existingHistory = session.getHistory();
-                boolean isDuplicate = false;
-                String newContent = (String) lastUserMessage.get("content");
-                if (newContent != null) {
-                    for (Map<String, Object> existingMsg : existingHistory) {
-                        if ("user".equalsIgnoreCase((String) existingMsg.get("role"))) {
-                            String existingContent = (String) existingMsg.get("content");
-                            if (newContent.equals(existingContent)) {
-                                isDuplicate = true;
-                                logger.debug("Duplicate user message detected, skipping: {}", newContent.substring(0, Math.min(50, newContent.length())));
-                                break;
-                            }
-                        }
-                    }
-                }
-                
-                if (!isDuplicate) {
-                    session.addMessage(lastUserMessage);
-                    logger.debug("Added new user message to session history");
-                }
-            }
-            
-            // 세션 히스토리 가져오기 (이미 새 메시지가 추가되었거나 중복이므로 그대로 사용)
-            List<Map<String, Object>> fullHistory = new ArrayList<>(session.getHistory());
-            
-            logger.info("=== Starting chat request for server: {}, session: {} ===", serverName, sessionId);
-            logger.info("Session history size: {}, New messages count: {}, Full history size: {}", 
-                session.getHistory().size(), messages.size(), fullHistory.size());
-            
-            // 디버깅: 현재 전송할 히스토리 내용 로그 (user와 assistant 모두 포함 확인)
-            logger.info("=== Full conversation history being sent to Gemini ===");
-            logger.info("Total history messages: {} (should include both user and assistant messages)", fullHistory.size());
-            int userCount = 0;
-            int assistantCount = 0;
-            for (int i = 0; i < fullHistory.size(); i++) {
-                Map<String, Object> msg = fullHistory.get(i);
-                String role = (String) msg.get("role");
-                String content = (String) msg.get("content");
-                if ("user".equalsIgnoreCase(role)) {
-                    userCount++;
-                } else if ("assistant".equalsIgnoreCase(role)) {
-                    assistantCount++;
-                }
-
-                if (content == null) continue;
-
-                logger.info("[{}] {}: {}", i, role, content);
-            }
-            logger.info("History summary: {} user messages, {} assistant messages", userCount, assistantCount);
-            logger.info("=== End of conversation history ===");
-            
-            // 서버별 ChatClient 가져오기 또는 생성 (MCP 서버의 도구가 Function으로 등록됨)
-            logger.debug("Getting or creating ChatClient for server: {}", serverName);
-            ChatClient chatClient = getOrCreateChatClient(serverName);
-            
-            if (chatClient == null) {
-                throw new IllegalStateException("Failed to create ChatClient for server: " + serverName);
-            }
-            
-            // 대화 히스토리를 Spring AI Message 타입으로 변환 (세션 히스토리 사용)
-            List<Message> springAiMessages = new ArrayList<>();
-            for (Map<String, Object> msg : fullHistory) {
-                String role = (String) msg.get("role");
-                String content = (String) msg.get("content");
+                // 서버별 ChatClient 가져오기 또는 생성 (MCP 서버의 도구가 Function으로 등록됨)
+                logger.debug("Getting or creating ChatClient for server: {}", label);
+                CachedChatClient chatClient = chatClientSupplier.get();
                 
-                if (content == null) {
-                    continue;
+                if (chatClient == null) {
+                    throw new IllegalStateException("Failed to create ChatClient for server: " + label);
                 }
                 
-                if ("user".equalsIgnoreCase(role)) {
-                    springAiMessages.add(new UserMessage(content));
-                } else if ("assistant".equalsIgnoreCase(role)) {
-                    springAiMessages.add(new AssistantMessage(content));
-                } else {
-                    logger.warn("Unknown message role: {}, skipping", role);
-                }
-            }
-            
-            logger.info("Converted {} messages to Spring AI Message format", springAiMessages.size());
-            
-            // Gemini에게 대화 히스토리와 함께 요청 전달
-            // Gemini가 도구를 선택하면 자동으로 호출됨
-            String response;
-            if (springAiMessages.isEmpty()) {
-                // 메시지가 없으면 에러
-                throw new IllegalArgumentException("No valid messages found");
-            } else {
-                response = geminiService.generateResponseWithChatClient(chatClient, springAiMessages);
+                // Gemini에게 대화 히스토리와 함께 요청 전달
+                // Gemini가 도구를 선택하면 McpToolCallingEngine이 호출하고 결과를 다시 전달
+                // (여러 도구는 다른 스레드에서 동시에 실행되므로 요청 정보는 toolContext로 전달)
+                ToolRequestContext requestContext = new ToolRequestContext(access_token, deadline, null);
+                String response = geminiService.generateResponseWithChatClient(chatClient.chatClient, springAiMessages,
+                    chatClient.toolCallbacks, Map.of(TOOL_REQUEST_CONTEXT, requestContext), deadline);
                 
                 // 할당량 초과 메시지는 세션 히스토리에 추가하지 않고 바로 반환
                 if (response != null && response.startsWith("Quota exceeded")) {
                     return new ChatResponse(response, sessionId);
                 }
-            }
-            logger.debug("Gemini response: {}", response);
-            
-            // Gemini 응답을 세션 히스토리에 추가
-            Map<String, Object> assistantMessage = new HashMap<>();
-            assistantMessage.put("role", "assistant");
-            assistantMessage.put("content", response);
-            session.addMessage(assistantMessage);
-            
-            return new ChatResponse(response, sessionId);
+                logger.debug("Gemini response: {}", response);
+                
+                // Gemini 응답을 세션 히스토리에 추가
+                addAssistantMessage(session, response);
+                
+                return new ChatResponse(response, sessionId);
             } finally {
                 // ThreadLocal 정리 (메모리 누수 방지)
                 currentAccessToken.remove();
+                currentDeadline.remove();
             }
+        } catch (McpDeadlineExceededException e) {
+            // deadline 초과는 그대로 전달 (컨트롤러에서 504 응답)
+            currentAccessToken.remove();
+            currentDeadline.remove();
+            logger.warn("Deadline exceeded in chat for server {}: {}", label, e.getMessage());
+            throw e;
         } catch (Exception e) {
             // ThreadLocal 정리 (에러 발생 시에도)
             currentAccessToken.remove();
-            logger.error("=== Error in chatWithServer for server: {} ===", serverName, e);
+            currentDeadline.remove();
+            logger.error("=== Error in chat for server: {} ===", label, e);
             if (e.getCause() != null) {
                 logger.error("Root cause: {}", e.getCause().getMessage(), e.getCause());
             }
@@ -263,21 +294,439 @@ public class McpChatService {
         }
     }
     
+    /**
+     * MCP 서버를 통한 스트리밍 채팅 요청 처리
+     * 응답 텍스트 조각과 도구 호출 진행 상황을 생성되는 즉시 이벤트로 전달하고,
+     * 스트림이 정상 종료되면 전체 응답을 세션 히스토리에 추가
+     * 이벤트 type: delta(텍스트 조각), tool_call(도구 호출 시작), tool_result(도구 호출 완료), done, error
+     * 
+     * @return ChatStream (세션 ID와 이벤트 스트림, 구독 시 Gemini 호출 시작)
+     */
+    public ChatStream streamChatWithServer(
+            String serverName,
+            List<Map<String, Object>> messages,
+            String sessionId,
+            String access_token,
+            McpDeadline deadline) {
+        logger.info("=== McpChatService.streamChatWithServer called for server: {} ===", serverName);
+        if (messages == null || messages.isEmpty()) {
+            throw new IllegalArgumentException("Messages cannot be null or empty");
+        }
+        if (sessionId == null || sessionId.trim().isEmpty()) {
+            sessionId = UUID.randomUUID().toString();
+            logger.debug("Auto-generated session ID: {}", sessionId);
+        }
+        McpDeadline requestDeadline = resolveDeadline(List.of(serverName), deadline);
+        awaitServers(List.of(serverName), requestDeadline);
+        
+        ConversationSession session = conversationSessions.computeIfAbsent(sessionId, ConversationSession::new);
+        List<Message> springAiMessages = toPromptMessages(session, messages, serverName, sessionId);
+        ChatClient chatClient = getOrCreateChatClient(serverName);
+        
+        Flux<Map<String, Object>> events = Flux.create(sink -> {
+            // 스트리밍 중 도구 호출은 요청 스레드가 아닌 곳에서 실행되므로 ThreadLocal 대신 ToolContext로 전달
+            ToolRequestContext requestContext = new ToolRequestContext(access_token, requestDeadline, sink::next);
+            StringBuilder content = new StringBuilder();
+            Disposable subscription = geminiService
+                .streamResponseWithChatClient(chatClient, springAiMessages, Map.of(TOOL_REQUEST_CONTEXT, requestContext), requestDeadline)
+                .subscribe(
+                    delta -> {
+                        content.append(delta);
+                        sink.next(streamEvent("delta", "content", delta));
+                    },
+                    error -> {
+                        logger.warn("Streaming chat failed for server {}: {}", serverName, error.getMessage());
+                        sink.next(toStreamErrorEvent(error));
+                        sink.complete();
+                    },
+                    () -> {
+                        // 클라이언트가 중간에 끊으면 여기까지 오지 않으므로 불완전한 응답은 히스토리에 남지 않음
+                        if (!content.isEmpty()) {
+                            addAssistantMessage(session, content.toString());
+                        }
+                        sink.next(streamEvent("done", "content", content.toString()));
+                        sink.complete();
+                    });
+            sink.onDispose(subscription);
+        });
+        return new ChatStream(sessionId, events);
+    }
+    
+    /**
+     * MCP 서버를 통한 채팅 요청을 논블로킹으로 처리 (mcp.reactive-chat=true일 때 사용)
+     * 서버 준비 대기, Gemini 호출(스트림), 도구 호출(sendRequestAsync)을 모두 비동기로 연결하여
+     * 응답을 기다리는 동안 스레드를 점유하지 않음
+     * 도구 호출은 Spring AI 내부 실행 대신 직접 반복 (Gemini 응답 → 도구 호출 → 결과 전달)
+     * deadline이 지나면 진행 중인 Gemini 스트림과 도구 호출 대기를 취소하고 McpDeadlineExceededException으로 종료
+     */
+    public Mono<ChatResponse> chatWithServerReactive(
+            String serverName,
+            List<Map<String, Object>> messages,
+            String sessionId,
+            String access_token,
+            McpDeadline deadline) {
+        logger.info("=== McpChatService.chatWithServerReactive called for server: {} ===", serverName);
+        if (messages == null || messages.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Messages cannot be null or empty"));
+        }
+        String resolvedSessionId = sessionId == null || sessionId.trim().isEmpty()
+            ? UUID.randomUUID().toString()
+            : sessionId;
+        McpDeadline requestDeadline = resolveDeadline(List.of(serverName), deadline);
+        
+        // 스냅샷으로 도구 목록이 있으면 바로 진행하고, 실제 도구 호출 시에만 대기
+        Mono<Void> ready = serverRegistry.getToolCatalog().hasServer(serverName)
+            ? Mono.empty()
+            : Mono.fromFuture(() -> serverRegistry.whenReady(serverName));
+        
+        return ready
+            .then(Mono.defer(() -> {
+                ConversationSession session = conversationSessions.computeIfAbsent(resolvedSessionId, ConversationSession::new);
+                List<Message> conversation = new ArrayList<>(toPromptMessages(session, messages, serverName, resolvedSessionId));
+                CachedChatClient chatClient = getOrCreateCachedChatClient(serverName);
+                return runToolLoop(serverName, chatClient, conversation, access_token, requestDeadline, 0, "")
+                    .map(content -> {
+                        addAssistantMessage(session, content);
+                        return new ChatResponse(content, resolvedSessionId);
+                    });
+            }))
+            // 구독 취소로 진행 중인 Gemini 스트림과 도구 호출 대기도 함께 취소됨
+            .timeout(Duration.ofMillis(requestDeadline.remainingMs()))
+            .onErrorMap(TimeoutException.class,
+                e -> new McpDeadlineExceededException("Deadline exceeded in reactive chat for server " + serverName))
+            .onErrorResume(e -> !(e instanceof McpDeadlineExceededException)
+                    && e instanceof Exception ex && geminiService.isQuotaExceededError(ex), e -> {
+                // 할당량 초과 메시지는 세션 히스토리에 추가하지 않고 바로 반환
+                logger.warn("Gemini API quota exceeded - {}", e.getMessage());
+                return Mono.just(new ChatResponse("Quota exceeded", resolvedSessionId));
+            });
+    }
+    
+    /**
+     * Gemini 응답에 도구 호출이 있으면 도구를 호출하고 결과를 붙여 다시 요청 (도구 호출이 없을 때까지 반복)
+     * 같은 응답의 여러 도구 호출은 서버별 제한 수만큼 동시에 실행하고 결과는 호출 순서대로 전달
+     * 반복 한도(mcp.max-tool-iterations)에 도달하면 McpToolCallingEngine과 같이 마지막 텍스트에 중단 안내를 붙여 반환
+     */
+    private Mono<String> runToolLoop(
+            String serverName,
+            CachedChatClient chatClient,
+            List<Message> conversation,
+            String access_token,
+            McpDeadline deadline,
+            int iteration,
+            String lastText) {
+        return geminiService.streamResponseWithoutToolExecution(chatClient.chatClient, conversation, deadline)
+            .collectList()
+            .flatMap(responses -> {
+                // 스트림 조각의 텍스트는 이어 붙이고, 도구 호출이 담긴 메시지는 그대로 대화에 추가
+                StringBuilder content = new StringBuilder();
+                List<AssistantMessage> toolCallMessages = new ArrayList<>();
+                for (org.springframework.ai.chat.model.ChatResponse response : responses) {
+                    for (org.springframework.ai.chat.model.Generation generation : response.getResults()) {
+                        AssistantMessage output = generation.getOutput();
+                        if (output == null) {
+                            continue;
+                        }
+                        if (output.getText() != null) {
+                            content.append(output.getText());
+                        }
+                        if (output.hasToolCalls()) {
+                            toolCallMessages.add(output);
+                        }
+                    }
+                }
+                if (toolCallMessages.isEmpty()) {
+                    return Mono.just(content.toString());
+                }
+                String text = content.toString().isBlank() ? lastText : content.toString();
+                int maxIterations = serverConfig.getMaxToolIterations();
+                if (iteration >= maxIterations) {
+                    logger.warn("Tool call limit ({}) reached in reactive chat, returning partial answer", maxIterations);
+                    String note = McpToolRoundLimit.truncationNote(maxIterations);
+                    return Mono.just(text.isBlank() ? note : text + "\n\n" + note);
+                }
+                
+                conversation.addAll(toolCallMessages);
+                return Flux.fromIterable(toolCallMessages)
+                    .flatMapIterable(AssistantMessage::getToolCalls)
+                    .flatMapSequential(toolCall -> callToolReactive(chatClient.toolCallbacks, toolCall, access_token, deadline)
+                        .map(result -> new ToolResponseMessage.ToolResponse(toolCall.id(), toolCall.name(), result)),
+                        toolExecutor.getMaxParallelToolCalls(serverName))
+                    .collectList()
+                    .flatMap(toolResponses -> {
+                        conversation.add(ToolResponseMessage.builder().responses(toolResponses).build());
+                        return runToolLoop(serverName, chatClient, conversation, access_token, deadline, iteration + 1, text);
+                    });
+            });
+    }
+    
+    /**
+     * Gemini가 요청한 도구 호출 하나를 비동기로 실행 (ToolCallback.call과 같은 입력 처리)
+     */
+    private Mono<String> callToolReactive(
+            List<ToolCallback> toolCallbacks,
+            AssistantMessage.ToolCall toolCall,
+            String access_token,
+            McpDeadline deadline) {
+        McpToolCallback callback = null;
+        for (ToolCallback toolCallback : toolCallbacks) {
+            if (toolCallback instanceof McpToolCallback mcpToolCallback && mcpToolCallback.exposedName.equals(toolCall.name())) {
+                callback = mcpToolCallback;
+                break;
+            }
+        }
+        if (callback == null) {
+            logger.warn("Gemini requested unknown tool {}", toolCall.name());
+            return Mono.just(toErrorJson("Unknown tool: " + toolCall.name(), new IllegalArgumentException(toolCall.name())));
+        }
+        
+        Map<String, Object> arguments;
+        try {
+            arguments = parseToolArguments(
+                toolCall.arguments() == null || toolCall.arguments().isBlank() ? "{}" : toolCall.arguments(), access_token);
+        } catch (Exception e) {
+            logger.error("Error parsing tool input for tool {} on server {}", callback.toolName, callback.serverName, e);
+            return Mono.just(toErrorJson("Error parsing tool input: " + e.getMessage(), e));
+        }
+        
+        // deadline이 지났으면 호출하지 않음
+        if (deadline.isExpired()) {
+            logger.warn("Deadline exceeded, skipping tool {} on server {}", callback.toolName, callback.serverName);
+            return Mono.just(toErrorJson("Deadline exceeded, tool was not called",
+                new McpDeadlineExceededException(callback.toolName)));
+        }
+        return callMcpToolAsync(callback.serverName, callback.toolName, arguments, deadline);
+    }
+    
+    /**
+     * MCP 서버의 도구를 비동기로 호출 (응답을 기다리는 동안 스레드를 점유하지 않음)
+     * 에러는 callMcpTool과 같이 Gemini가 파싱할 수 있는 JSON 결과로 변환
+     */
+    private Mono<String> callMcpToolAsync(String serverName, String toolName, Map<String, Object> arguments, McpDeadline deadline) {
+        long startTime = System.currentTimeMillis();
+        return Mono.fromFuture(() -> serverRegistry.whenReady(serverName))
+            .timeout(Duration.ofMillis(getRequestTimeoutMs(serverName, deadline)),
+                Mono.error(() -> new IllegalStateException("Server " + serverName + " is still warming")))
+            .then(Mono.defer(() -> {
+                McpServerConnectionInterface connection = serverRegistry.getServerConnection(serverName);
+                if (connection == null) {
+                    return Mono.error(new IllegalStateException("No connection found for server: " + serverName));
+                }
+                McpRequest request = toolCallRequest(toolName, arguments);
+                request.setId(connection.nextRequestId(serverName, "tool-call"));
+                serverRegistry.checkCircuit(serverName);
+                
+                logger.info("Sending async tools/call request to MCP server: {}", request.getId());
+                return Mono.fromFuture(() -> connection.sendRequestAsync(serverName, request, getRequestTimeoutMs(serverName, deadline)))
+                    .doOnNext(response -> serverRegistry.recordCallResult(serverName, null))
+                    .doOnError(e -> recordCallFailure(serverName, e instanceof Exception ex ? ex : new RuntimeException(e), deadline));
+            }))
+            .flatMap(response -> {
+                logger.info("Received async response for tool {} from MCP server after {}ms",
+                    toolName, System.currentTimeMillis() - startTime);
+                return Mono.fromCallable(() -> toToolResult(toolName, response));
+            })
+            .onErrorResume(McpCircuitOpenException.class, e -> {
+                logger.warn("Skipping tool {}: {}", toolName, e.getMessage());
+                return Mono.just(toServerUnavailableJson(e));
+            })
+            .onErrorResume(e -> {
+                logger.error("=== Error calling tool {} on server {} ===", toolName, serverName, e);
+                return Mono.just(toErrorJson("Error calling tool: " + e.getMessage(),
+                    e instanceof Exception ex ? ex : new RuntimeException(e)));
+            });
+    }
+    
+    /**
+     * 요청 deadline 결정 (없으면 서버 설정 중 가장 긴 deadline)
+     */
+    private McpDeadline resolveDeadline(List<String> serverNames, McpDeadline deadline) {
+        if (deadline != null) {
+            return deadline;
+        }
+        long deadlineMs = 0;
+        for (String serverName : serverNames) {
+            McpServerConfig.McpServerInfo serverInfo = serverRegistry.getServer(serverName);
+            deadlineMs = Math.max(deadlineMs, serverInfo != null ? serverInfo.getDeadlineMs() : 60000);
+        }
+        return McpDeadline.after(deadlineMs > 0 ? deadlineMs : 60000);
+    }
+    
+    /**
+     * 아직 시작 중(warming)인 서버면 남은 시간 안에서 준비될 때까지 대기
+     * (스냅샷으로 도구 목록이 있으면 바로 진행하고, 실제 도구 호출 시에만 대기)
+     */
+    private void awaitServers(List<String> serverNames, McpDeadline deadline) {
+        McpToolCatalog catalog = serverRegistry.getToolCatalog();
+        for (String serverName : serverNames) {
+            if (!catalog.hasServer(serverName)
+                    && !serverRegistry.awaitReady(serverName, deadline.remainingMs())) {
+                throw new McpDeadlineExceededException("Deadline exceeded while server " + serverName + " is warming");
+            }
+        }
+    }
+    
+    /**
+     * 새 사용자 메시지를 세션 히스토리에 추가하고, 히스토리 전체를 Spring AI Message로 변환
+     */
+    private List<Message> toPromptMessages(
+            ConversationSession session,
+            List<Map<String, Object>> messages,
+            String label,
+            String sessionId) {
+        // 마지막 사용자 메시지 찾기
+        Map<String, Object> lastUserMessage = null;
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            Map<String, Object> msg = messages.get(i);
+            if ("user".equalsIgnoreCase((String) msg.get("role"))) {
+                lastUserMessage = msg;
+                break;
+            }
+        }
+        
+        // 세션 히스토리에 새 메시지 추가 (중복 체크)
+        if (lastUserMessage != null) {
+            // 중복 체크: 같은 content를 가진 user 메시지가 이미 있는지 확인
+            List<Map<String, Object>> existingHistory = session.getHistory();
+            boolean isDuplicate = false;
+            String newContent = (String) lastUserMessage.get("content");
+            if (newContent != null) {
+                for (Map<String, Object> existingMsg : existingHistory) {
+                    if ("user".equalsIgnoreCase((String) existingMsg.get("role"))) {
+                        String existingContent = (String) existingMsg.get("content");
+                        if (newContent.equals(existingContent)) {
+                            isDuplicate = true;
+                            logger.debug("Duplicate user message detected, skipping: {}", newContent.substring(0, Math.min(50, newContent.length())));
+                            break;
+                        }
+                    }
+                }
+            }
+            
+            if (!isDuplicate) {
+                session.addMessage(lastUserMessage);
+                logger.debug("Added new user message to session history");
+            }
+        }
+        
+        // 세션 히스토리 가져오기 (이미 새 메시지가 추가되었거나 중복이므로 그대로 사용)
+        List<Map<String, Object>> fullHistory = new ArrayList<>(session.getHistory());
+        
+        logger.info("=== Starting chat request for server: {}, session: {} ===", label, sessionId);
+        logger.info("Session history size: {}, New messages count: {}, Full history size: {}", 
+            session.getHistory().size(), messages.size(), fullHistory.size());
+        
+        // 디버깅: 현재 전송할 히스토리 내용 로그 (user와 assistant 모두 포함 확인)
+        logger.info("=== Full conversation history being sent to Gemini ===");
+        logger.info("Total history messages: {} (should include both user and assistant messages)", fullHistory.size());
+        int userCount = 0;
+        int assistantCount = 0;
+        for (int i = 0; i < fullHistory.size(); i++) {
+            Map<String, Object> msg = fullHistory.get(i);
+            String role = (String) msg.get("role");
+            String content = (String) msg.get("content");
+            if ("user".equalsIgnoreCase(role)) {
+                userCount++;
+            } else if ("assistant".equalsIgnoreCase(role)) {
+                assistantCount++;
+            }
+
+            if (content == null) continue;
+
+            logger.info("[{}] {}: {}", i, role, content);
+        }
+        logger.info("History summary: {} user messages, {} assistant messages", userCount, assistantCount);
+        logger.info("=== End of conversation history ===");
+        
+        // 대화 히스토리를 Spring AI Message 타입으로 변환 (세션 히스토리 사용)
+        List<Message> springAiMessages = new ArrayList<>();
+        for (Map<String, Object> msg : fullHistory) {
+            String role = (String) msg.get("role");
+            String content = (String) msg.get("content");
+            
+            if (content == null) {
+                continue;
+            }
+            
+            if ("user".equalsIgnoreCase(role)) {
+                springAiMessages.add(new UserMessage(content));
+            } else if ("assistant".equalsIgnoreCase(role)) {
+                springAiMessages.add(new AssistantMessage(content));
+            } else {
+                logger.warn("Unknown message role: {}, skipping", role);
+            }
+        }
+        
+        logger.info("Converted {} messages to Spring AI Message format", springAiMessages.size());
+        if (springAiMessages.isEmpty()) {
+            // 메시지가 없으면 에러
+            throw new IllegalArgumentException("No valid messages found");
+        }
+        return springAiMessages;
+    }
+    
+    /**
+     * Gemini 응답을 세션 히스토리에 추가
+     */
+    private void addAssistantMessage(ConversationSession session, String content) {
+        Map<String, Object> assistantMessage = new HashMap<>();
+        assistantMessage.put("role", "assistant");
+        assistantMessage.put("content", content);
+        session.addMessage(assistantMessage);
+    }
+    
+    /**
+     * 스트리밍 이벤트 (type과 값 하나)
+     */
+    private static Map<String, Object> streamEvent(String type, String key, Object value) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", type);
+        event.put(key, value);
+        return event;
+    }
+    
+    /**
+     * 스트리밍 중 에러를 error 이벤트로 변환 (응답이 이미 시작되어 HTTP 상태 코드로 알릴 수 없음)
+     */
+    private Map<String, Object> toStreamErrorEvent(Throwable error) {
+        Map<String, Object> event = streamEvent("error", "error", error.getMessage());
+        if (error instanceof McpDeadlineExceededException) {
+            event.put("errorType", "deadline_exceeded");
+        } else if (error instanceof Exception e && geminiService.isQuotaExceededError(e)) {
+            event.put("error", "Quota exceeded");
+            event.put("errorType", "quota_exceeded");
+        } else {
+            event.put("errorType", "internal");
+        }
+        return event;
+    }
+    
     /**
      * 서버별 ChatClient 가져오기 또는 생성
-     * MCP 서버의 도구를 Function으로 등록
      */
     private ChatClient getOrCreateChatClient(String serverName) {
-        if (chatClientCache.containsKey(serverName)) {
-            return chatClientCache.get(serverName);
+        return getOrCreateCachedChatClient(serverName).chatClient;
+    }
+    
+    /**
+     * 서버별 ChatClient(등록한 도구 포함) 가져오기 또는 생성
+     * MCP 서버의 도구를 Function으로 등록
+     * 캐시된 ChatClient는 도구 카탈로그의 서버 버전이 같을 때만 재사용
+     */
+    private CachedChatClient getOrCreateCachedChatClient(String serverName) {
+        McpToolCatalog catalog = serverRegistry.getToolCatalog();
+        long toolsVersion = catalog.getServerVersion(serverName);
+        CachedChatClient cached = chatClientCache.get(serverName);
+        if (cached != null && cached.toolsVersion == toolsVersion) {
+            return cached;
         }
         
-        // MCP 서버의 도구 목록 가져오기
-        List<Map<String, Object>> tools = serverRegistry.getServerTools(serverName);
-        if (tools == null || tools.isEmpty()) {
+        // MCP 서버의 도구 목록 가져오기 (버전을 읽은 스냅샷에서 가져옴)
+        List<Map<String, Object>> tools = catalog.getServerTools(serverName);
+        if (tools.isEmpty()) {
             logger.warn("No tools found for server: {}", serverName);
             // 도구가 없어도 기본 ChatClient 반환
-            ChatClient basicClient = ChatClient.builder(chatModel).build();
+            CachedChatClient basicClient = new CachedChatClient(ChatClient.builder(chatModel).build(), List.of(), toolsVersion);
             chatClientCache.put(serverName, basicClient);
             return basicClient;
         }
@@ -295,57 +744,111 @@ public class McpChatService {
                 .defaultSystem("사용자가 여러 질문을 한 번에 할 수 있습니다. 모든 질문에 대해 완전하고 정확하게 답변해주세요. 도구를 사용한 후에도 남은 질문이 있다면 반드시 답변해주세요.")
                 .build();
 
-        chatClientCache.put(serverName, chatClient);
-        logger.info("Created ChatClient for server {} with {} tool callbacks", serverName, toolCallbacks.size());
-        return chatClient;
+        CachedChatClient created = new CachedChatClient(chatClient, toolCallbacks, toolsVersion);
+        chatClientCache.put(serverName, created);
+        logger.info("Created ChatClient for server {} with {} tool callbacks (tools version {})", 
+            serverName, toolCallbacks.size(), toolsVersion);
+        return created;
+    }
+    
+    /**
+     * 여러 서버의 도구를 합친 ChatClient 가져오기 또는 생성
+     * 도구 이름은 도구 색인의 "서버__도구" 이름으로 노출 (서버 간 이름 충돌 방지)
+     * 캐시된 ChatClient는 색인을 만든 카탈로그 버전이 같을 때만 재사용
+     */
+    private CachedChatClient getOrCreateAggregateChatClient(List<String> serverNames) {
+        McpToolIndex index = serverRegistry.getToolIndex();
+        // 단일 서버 캐시와 키가 겹치지 않도록 구분자 추가
+        String cacheKey = "*" + String.join(",", serverNames);
+        CachedChatClient cached = chatClientCache.get(cacheKey);
+        if (cached != null && cached.toolsVersion == index.getCatalogVersion()) {
+            return cached;
+        }
+        
+        List<ToolCallback> toolCallbacks = index.getEntries(serverNames).stream()
+                .map(entry -> createToolCallback(entry.getServerName(), entry.getNamespacedName(), entry.getTool()))
+                .collect(Collectors.toList());
+        if (toolCallbacks.isEmpty()) {
+            logger.warn("No tools found for servers: {}", serverNames);
+            CachedChatClient basicClient = new CachedChatClient(ChatClient.builder(chatModel).build(), List.of(), index.getCatalogVersion());
+            chatClientCache.put(cacheKey, basicClient);
+            return basicClient;
+        }
+        
+        ChatClient chatClient = ChatClient.builder(chatModel)
+                .defaultToolCallbacks(toolCallbacks)
+                .defaultSystem("사용자가 여러 질문을 한 번에 할 수 있습니다. 모든 질문에 대해 완전하고 정확하게 답변해주세요. 도구를 사용한 후에도 남은 질문이 있다면 반드시 답변해주세요. 도구 이름은 '서버__도구' 형식이며 앞부분이 도구를 제공하는 서버입니다.")
+                .build();
+        
+        CachedChatClient created = new CachedChatClient(chatClient, toolCallbacks, index.getCatalogVersion());
+        chatClientCache.put(cacheKey, created);
+        logger.info("Created aggregate ChatClient for servers {} with {} tool callbacks (catalog version {})", 
+            serverNames, toolCallbacks.size(), index.getCatalogVersion());
+        return created;
     }
     
     /**
      * MCP tool → Spring AI ToolCallback 변환
      */
-    @SuppressWarnings("unchecked")
     private ToolCallback createToolCallback(String serverName, Map<String, Object> tool) {
+        return createToolCallback(serverName, (String) tool.get("name"), tool);
+    }
+    
+    /**
+     * MCP tool → Spring AI ToolCallback 변환 (모델에는 exposedName으로 노출)
+     */
+    @SuppressWarnings("unchecked")
+    private ToolCallback createToolCallback(String serverName, String exposedName, Map<String, Object> tool) {
         String toolName = (String) tool.get("name");
         String description = (String) tool.getOrDefault("description", "");
         Map<String, Object> inputSchema = (Map<String, Object>) tool.getOrDefault("inputSchema", new HashMap<>());
 
-        logger.info("Registering MCP tool → {}", toolName);
+        logger.info("Registering MCP tool → {}", exposedName);
 
         // ToolCallback 직접 구현
-        return new McpToolCallback(serverName, toolName, description, inputSchema);
+        return new McpToolCallback(serverName, toolName, exposedName, description, inputSchema);
     }
     
     /**
      * MCP 서버의 도구를 호출하는 ToolCallback 구현
+     * 모델 응답 하나에 같은 서버 도구 호출이 여러 개면 McpToolCallingManager가 callBatch로 묶어서 호출
      */
-    private class McpToolCallback implements ToolCallback {
+    private class McpToolCallback implements ToolCallback, McpToolExecutor.BatchCapable {
         private final String serverName;
         private final String toolName;
+        // 모델에 노출하는 도구 이름 (여러 서버를 합칠 때는 "서버__도구")
+        private final String exposedName;
         private final String description;
         private final Map<String, Object> inputSchema;
         
-        public McpToolCallback(String serverName, String toolName, String description, Map<String, Object> inputSchema) {
+        public McpToolCallback(String serverName, String toolName, String exposedName, String description, Map<String, Object> inputSchema) {
             this.serverName = serverName;
             this.toolName = toolName;
+            this.exposedName = exposedName;
             this.description = description;
             this.inputSchema = inputSchema;
         }
         
+        @Override
+        public String getServerName() {
+            return serverName;
+        }
+        
         @Override
         public ToolDefinition getToolDefinition() {
             try {
                 // inputSchema를 JSON 문자열로 변환
                 String inputSchemaJson = objectMapper.writeValueAsString(inputSchema);
                 return ToolDefinition.builder()
-                        .name(toolName)
+                        .name(exposedName)
                         .description(description)
                         .inputSchema(inputSchemaJson)
                         .build();
             } catch (Exception e) {
-                logger.error("Error creating ToolDefinition for tool {}", toolName, e);
+                logger.error("Error creating ToolDefinition for tool {}", exposedName, e);
                 // 기본 ToolDefinition 반환
                 return ToolDefinition.builder()
-                        .name(toolName)
+                        .name(exposedName)
                         .description(description)
                         .build();
             }
@@ -353,36 +856,45 @@ public class McpChatService {
         
         @Override
         public String call(String toolInput) {
+            return call(toolInput, currentAccessToken.get(), currentDeadline.get(), null);
+        }
+        
+        /**
+         * 스트리밍 요청은 ToolContext로 전달된 요청 정보 사용 (도구 호출 스레드에 ThreadLocal이 없음)
+         */
+        @Override
+        public String call(String toolInput, ToolContext toolContext) {
+            ToolRequestContext context = toRequestContext(toolContext);
+            return call(toolInput, context.accessToken, context.deadline, context.eventListener);
+        }
+        
+        /**
+         * 같은 서버의 도구 호출 여러 개를 JSON-RPC 배치 요청 하나로 전송 (calls의 도구는 모두 이 서버의 McpToolCallback)
+         */
+        @Override
+        public List<String> callBatch(List<McpToolExecutor.BatchCall> calls, ToolContext toolContext) {
+            return callMcpToolBatch(serverName, calls, toRequestContext(toolContext));
+        }
+        
+        private String call(String toolInput, String tokenFromRequest, McpDeadline deadline, Consumer<Map<String, Object>> eventListener) {
             long toolCallStart = System.currentTimeMillis();
             try {
                 logger.info("=== ToolCallback.call() invoked for tool {} on server {} ===", toolName, serverName);
                 logger.info("Tool input: {}", toolInput);
                 
-                // JSON 문자열을 Map으로 파싱
-                long beforeParse = System.currentTimeMillis();
-                @SuppressWarnings("unchecked")
-                Map<String, Object> arguments = objectMapper.readValue(toolInput, Map.class);
-                long afterParse = System.currentTimeMillis();
-                logger.debug("Parsing tool input took {}ms", afterParse - beforeParse);
-                                
-                // access_token 자동 추가 (도구 호출 인증용)
-                String tokenFromRequest = currentAccessToken.get();
-                if (tokenFromRequest != null && !tokenFromRequest.trim().isEmpty()) {
-                    if (!arguments.containsKey("access_token")) {
-                        arguments.put("access_token", tokenFromRequest);
-                        logger.info("Auto-added access_token to tool arguments");
-                    } else {
-                        logger.debug("access_token already present in arguments, skipping auto-add");
-                    }
-                } else {
-                    logger.debug("No access_token available from request, skipping auto-add");
-                }
+                Map<String, Object> arguments = parseToolArguments(toolInput, tokenFromRequest);
                 
-                // MCP 서버로 도구 호출
-                String result = callMcpTool(serverName, toolName, arguments);
+                // MCP 서버로 도구 호출 (deadline이 지났으면 호출하지 않음)
+                if (deadline != null && deadline.isExpired()) {
+                    logger.warn("Deadline exceeded, skipping tool {} on server {}", toolName, serverName);
+                    return toErrorJson("Deadline exceeded, tool was not called", new McpDeadlineExceededException(toolName));
+                }
+                publishToolEvent(eventListener, "tool_call", null);
+                String result = callMcpTool(serverName, toolName, arguments, deadline);
                 long toolCallEnd = System.currentTimeMillis();
                 long toolCallElapsed = toolCallEnd - toolCallStart;
                 logger.info("=== ToolCallback.call() completed in {}ms ===", toolCallElapsed);
+                publishToolEvent(eventListener, "tool_result", toolCallElapsed);
                 
                 if (toolCallElapsed > 10000) {
                     logger.warn("⚠️ Tool call took {}ms (>10s), this is unusually slow!", toolCallElapsed);
@@ -391,6 +903,7 @@ public class McpChatService {
                 return result;
             } catch (Exception e) {
                 logger.error("Error calling tool {} on server {}", toolName, serverName, e);
+                publishToolEvent(eventListener, "tool_result", System.currentTimeMillis() - toolCallStart);
                 // 에러도 JSON 형식으로 반환 (Gemini가 파싱할 수 있도록)
                 try {
                     Map<String, Object> errorResult = new HashMap<>();
@@ -404,33 +917,196 @@ public class McpChatService {
                 }
             }
         }
+        
+        /**
+         * 도구 호출 진행 이벤트 전달 (스트리밍 요청일 때만)
+         */
+        private void publishToolEvent(Consumer<Map<String, Object>> eventListener, String type, Long elapsedMs) {
+            if (eventListener == null) {
+                return;
+            }
+            Map<String, Object> event = streamEvent(type, "tool", exposedName);
+            event.put("server", serverName);
+            if (elapsedMs != null) {
+                event.put("elapsedMs", elapsedMs);
+            }
+            eventListener.accept(event);
+        }
+    }
+    
+    /**
+     * 도구 호출에 전달된 요청 정보 (ToolContext에 없으면 요청 스레드의 ThreadLocal 사용)
+     */
+    private ToolRequestContext toRequestContext(ToolContext toolContext) {
+        Object requestContext = toolContext != null ? toolContext.getContext().get(TOOL_REQUEST_CONTEXT) : null;
+        if (requestContext instanceof ToolRequestContext context) {
+            return context;
+        }
+        return new ToolRequestContext(currentAccessToken.get(), currentDeadline.get(), null);
+    }
+    
+    /**
+     * 모델이 넘긴 도구 입력(JSON)을 인자 Map으로 변환하고 access_token 자동 추가 (도구 호출 인증용)
+     */
+    private Map<String, Object> parseToolArguments(String toolInput, String tokenFromRequest) throws JsonProcessingException {
+        // JSON 문자열을 Map으로 파싱
+        long beforeParse = System.currentTimeMillis();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> arguments = objectMapper.readValue(toolInput, Map.class);
+        long afterParse = System.currentTimeMillis();
+        logger.debug("Parsing tool input took {}ms", afterParse - beforeParse);
+        
+        if (tokenFromRequest != null && !tokenFromRequest.trim().isEmpty()) {
+            if (!arguments.containsKey("access_token")) {
+                arguments.put("access_token", tokenFromRequest);
+                logger.info("Auto-added access_token to tool arguments");
+            } else {
+                logger.debug("access_token already present in arguments, skipping auto-add");
+            }
+        } else {
+            logger.debug("No access_token available from request, skipping auto-add");
+        }
+        return arguments;
+    }
+    
+    /**
+     * 같은 서버의 도구 호출 여러 개를 JSON-RPC 배치 요청 하나로 전송 (결과는 calls 순서)
+     * 입력을 해석하지 못한 호출은 배치에서 빼고 에러 결과를 돌려주며, 전송이 실패하면 배치의 모든 호출에 같은 에러 결과를 돌려줌
+     */
+    private List<String> callMcpToolBatch(String serverName, List<McpToolExecutor.BatchCall> calls, ToolRequestContext context) {
+        long startTime = System.currentTimeMillis();
+        String[] results = new String[calls.size()];
+        List<McpToolCallback> callbacks = new ArrayList<>(calls.size());
+        List<Integer> requestIndexes = new ArrayList<>();
+        List<McpRequest> requests = new ArrayList<>();
+        for (int i = 0; i < calls.size(); i++) {
+            McpToolCallback callback = (McpToolCallback) calls.get(i).getCallback();
+            callbacks.add(callback);
+            try {
+                Map<String, Object> arguments = parseToolArguments(calls.get(i).getArguments(), context.accessToken);
+                requests.add(toolCallRequest(callback.toolName, arguments));
+                requestIndexes.add(i);
+            } catch (Exception e) {
+                logger.error("Error parsing input for tool {} on server {}", callback.toolName, serverName, e);
+                results[i] = toErrorJson("Error parsing tool input: " + e.getMessage(), e);
+            }
+        }
+        
+        // deadline이 지났으면 호출하지 않음
+        if (context.deadline != null && context.deadline.isExpired()) {
+            logger.warn("Deadline exceeded, skipping {} batched tools on server {}", requests.size(), serverName);
+            for (int index : requestIndexes) {
+                results[index] = toErrorJson("Deadline exceeded, tool was not called",
+                    new McpDeadlineExceededException(callbacks.get(index).toolName));
+            }
+            return Arrays.asList(results);
+        }
+        
+        requestIndexes.forEach(index -> callbacks.get(index).publishToolEvent(context.eventListener, "tool_call", null));
+        List<String> toolNames = requestIndexes.stream().map(index -> callbacks.get(index).toolName).toList();
+        List<String> batchResults = sendToolCallBatch(serverName, toolNames, requests, context.deadline);
+        long elapsed = System.currentTimeMillis() - startTime;
+        for (int n = 0; n < requestIndexes.size(); n++) {
+            int index = requestIndexes.get(n);
+            results[index] = batchResults.get(n);
+            callbacks.get(index).publishToolEvent(context.eventListener, "tool_result", elapsed);
+        }
+        logger.info("=== Batched call of {} tools on server {} completed in {}ms ===", calls.size(), serverName, elapsed);
+        return Arrays.asList(results);
+    }
+    
+    /**
+     * tools/call 요청 배치 전송 (결과는 요청 순서, 에러는 Gemini가 파싱할 수 있는 JSON 결과로 변환)
+     */
+    private List<String> sendToolCallBatch(String serverName, List<String> toolNames, List<McpRequest> requests, McpDeadline deadline) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        try {
+            McpServerConnectionInterface connection = toolCallConnection(serverName, deadline);
+            for (McpRequest request : requests) {
+                request.setId(connection.nextRequestId(serverName, "tool-call"));
+            }
+            serverRegistry.checkCircuit(serverName);
+            
+            logger.info("Sending batch of {} tools/call requests to MCP server {}: {}", requests.size(), serverName, toolNames);
+            long startTime = System.currentTimeMillis();
+            List<McpResponse> responses;
+            try {
+                responses = connection.sendBatch(serverName, requests, getRequestTimeoutMs(serverName, deadline));
+                serverRegistry.recordCallResult(serverName, null);
+            } catch (Exception e) {
+                recordCallFailure(serverName, e, deadline);
+                throw e;
+            }
+            logger.info("Received {} batched responses from MCP server {} after {}ms",
+                responses.size(), serverName, System.currentTimeMillis() - startTime);
+            
+            List<String> results = new ArrayList<>(responses.size());
+            for (int i = 0; i < responses.size(); i++) {
+                results.add(toToolResult(toolNames.get(i), responses.get(i)));
+            }
+            return results;
+        } catch (McpCircuitOpenException e) {
+            logger.warn("Skipping {} batched tools: {}", requests.size(), e.getMessage());
+            return Collections.nCopies(requests.size(), toServerUnavailableJson(e));
+        } catch (Exception e) {
+            logger.error("=== Error calling batched tools {} on server {} ===", toolNames, serverName, e);
+            return Collections.nCopies(requests.size(), toErrorJson("Error calling tool: " + e.getMessage(), e));
+        }
     }
     
     /**
-     * MCP 서버의 도구 호출
+     * tools/call 요청 생성 (요청 ID는 전송할 연결에서 할당)
      */
-    private String callMcpTool(String serverName, String toolName, Map<String, Object> arguments) {
+    private McpRequest toolCallRequest(String toolName, Map<String, Object> arguments) {
+        McpRequest request = new McpRequest();
+        request.setMethod("tools/call");
+        Map<String, Object> params = new HashMap<>();
+        params.put("name", toolName);
+        params.put("arguments", arguments);
+        request.setParams(params);
+        return request;
+    }
+    
+    /**
+     * 도구 호출에 사용할 연결 (서버가 준비될 때까지 남은 시간 안에서 대기)
+     */
+    private McpServerConnectionInterface toolCallConnection(String serverName, McpDeadline deadline) {
+        if (!serverRegistry.awaitReady(serverName, getRequestTimeoutMs(serverName, deadline))) {
+            throw new IllegalStateException("Server " + serverName + " is still warming");
+        }
+        McpServerConnectionInterface connection = serverRegistry.getServerConnection(serverName);
+        if (connection == null) {
+            throw new IllegalStateException("No connection found for server: " + serverName);
+        }
+        return connection;
+    }
+    
+    /**
+     * MCP 서버의 도구 호출 (deadline이 있으면 남은 시간까지만 대기)
+     */
+    private String callMcpTool(String serverName, String toolName, Map<String, Object> arguments, McpDeadline deadline) {
         try {
             logger.info("=== Starting tool call: {} on server {} ===", toolName, serverName);
             logger.info("Tool arguments: {}", arguments);
             
             // MCP 서버로 tools/call 요청 전송
-            McpRequest request = new McpRequest();
-            request.setMethod("tools/call");
-            Map<String, Object> params = new HashMap<>();
-            params.put("name", toolName);
-            params.put("arguments", arguments);
-            request.setParams(params);
-            request.setId("tool-call-" + System.currentTimeMillis());
+            McpRequest request = toolCallRequest(toolName, arguments);
+            McpServerConnectionInterface connection = toolCallConnection(serverName, deadline);
+            request.setId(connection.nextRequestId(serverName, "tool-call"));
+            serverRegistry.checkCircuit(serverName);
             
             logger.info("Sending tools/call request to MCP server: {}", request.getId());
             long startTime = System.currentTimeMillis();
-            
-            McpServerConnectionInterface connection = serverRegistry.getServerConnection(serverName);
-            if (connection == null) {
-                throw new IllegalStateException("No connection found for server: " + serverName);
+            McpResponse response;
+            try {
+                response = connection.sendRequest(serverName, request, getRequestTimeoutMs(serverName, deadline));
+                serverRegistry.recordCallResult(serverName, null);
+            } catch (Exception e) {
+                recordCallFailure(serverName, e, deadline);
+                throw e;
             }
-            McpResponse response = connection.sendRequest(serverName, request);
             
             long elapsedTime = System.currentTimeMillis() - startTime;
             logger.info("Received response from MCP server after {}ms", elapsedTime);
@@ -453,41 +1129,97 @@ public class McpChatService {
             }
             logger.info("=== End of MCP Server Response ===");
             
-            if (response.getError() != null) {
-                // 에러도 JSON 형식으로 반환 (Gemini가 파싱할 수 있도록)
-                Map<String, Object> errorResult = new HashMap<>();
-                errorResult.put("error", true);
-                errorResult.put("message", "Tool call failed: " + response.getError().getMessage());
-                errorResult.put("code", response.getError().getCode());
-                String errorJson = objectMapper.writeValueAsString(errorResult);
-                logger.error("MCP server returned error: {}", errorJson);
-                return errorJson;
-            }
-            
-            // 응답을 JSON 문자열로 변환하여 반환
-            String result = objectMapper.writeValueAsString(response.getResult());
-            logger.info("Tool {} completed successfully. Result length: {} chars", toolName, result.length());
-            logger.info("Tool {} result (for Gemini): {}", toolName, result);
-            return result;
+            return toToolResult(toolName, response);
+        } catch (McpCircuitOpenException e) {
+            logger.warn("Skipping tool {}: {}", toolName, e.getMessage());
+            return toServerUnavailableJson(e);
         } catch (Exception e) {
             logger.error("=== Error calling tool {} on server {} ===", toolName, serverName, e);
             // 에러도 JSON 형식으로 반환 (Gemini가 파싱할 수 있도록)
-            try {
-                Map<String, Object> errorResult = new HashMap<>();
-                errorResult.put("error", true);
-                errorResult.put("message", "Error calling tool: " + e.getMessage());
-                if (e.getCause() != null) {
-                    errorResult.put("cause", e.getCause().getMessage());
-                }
-                errorResult.put("exceptionType", e.getClass().getSimpleName());
-                String errorJson = objectMapper.writeValueAsString(errorResult);
-                logger.error("Returning error as JSON: {}", errorJson);
-                return errorJson;
-            } catch (Exception jsonError) {
-                // JSON 변환도 실패하면 최소한의 JSON 반환
-                logger.error("Failed to convert error to JSON", jsonError);
-                return "{\"error\":true,\"message\":\"Internal error: " + e.getMessage().replace("\"", "\\\"") + "\"}";
+            return toErrorJson("Error calling tool: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 요청 실패를 서킷 브레이커에 기록
+     * deadline이 지나서 짧아진 타임아웃으로 실패한 경우는 서버 탓이 아니므로 제외
+     */
+    private void recordCallFailure(String serverName, Exception e, McpDeadline deadline) {
+        if (deadline == null || !deadline.isExpired()) {
+            serverRegistry.recordCallResult(serverName, e);
+        }
+    }
+    
+    /**
+     * 서버 사용 불가(회로 열림) 결과를 Gemini가 판단할 수 있는 JSON으로 변환
+     * 재시도 가능 여부와 대기 시간을 함께 전달하여 같은 도구를 반복 호출하지 않도록 함
+     */
+    private String toServerUnavailableJson(McpCircuitOpenException e) {
+        Map<String, Object> errorResult = new HashMap<>();
+        errorResult.put("error", true);
+        errorResult.put("errorType", "server_unavailable");
+        errorResult.put("server", e.getServerName());
+        errorResult.put("message", "The tool server is temporarily unavailable and the tool was not called. "
+            + "Do not retry this tool now; tell the user the service is unavailable and answer what you can without it.");
+        errorResult.put("retryable", true);
+        errorResult.put("retryAfterMs", e.getRetryAfterMs());
+        try {
+            return objectMapper.writeValueAsString(errorResult);
+        } catch (JsonProcessingException jsonError) {
+            return toErrorJson(e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 서버 설정의 요청 타임아웃을 남은 deadline으로 제한
+     */
+    private long getRequestTimeoutMs(String serverName, McpDeadline deadline) {
+        McpServerConfig.McpServerInfo serverInfo = serverRegistry.getServer(serverName);
+        long timeoutMs = serverInfo != null ? serverInfo.getRequestTimeoutMs() : McpServerConfig.McpServerInfo.DEFAULT_REQUEST_TIMEOUT_MS;
+        return deadline != null ? deadline.capTimeout(timeoutMs) : timeoutMs;
+    }
+    
+    /**
+     * tools/call 응답을 Gemini에 넘길 JSON 문자열로 변환
+     */
+    private String toToolResult(String toolName, McpResponse response) throws JsonProcessingException {
+        if (response.getError() != null) {
+            // 에러도 JSON 형식으로 반환 (Gemini가 파싱할 수 있도록)
+            Map<String, Object> errorResult = new HashMap<>();
+            errorResult.put("error", true);
+            errorResult.put("message", "Tool call failed: " + response.getError().getMessage());
+            errorResult.put("code", response.getError().getCode());
+            String errorJson = objectMapper.writeValueAsString(errorResult);
+            logger.error("MCP server returned error: {}", errorJson);
+            return errorJson;
+        }
+        
+        // 응답을 JSON 문자열로 변환하여 반환
+        String result = objectMapper.writeValueAsString(response.getResult());
+        logger.info("Tool {} completed successfully. Result length: {} chars", toolName, result.length());
+        logger.info("Tool {} result (for Gemini): {}", toolName, result);
+        return result;
+    }
+    
+    /**
+     * 예외를 Gemini가 파싱할 수 있는 JSON 에러로 변환
+     */
+    private String toErrorJson(String message, Exception e) {
+        try {
+            Map<String, Object> errorResult = new HashMap<>();
+            errorResult.put("error", true);
+            errorResult.put("message", message);
+            if (e.getCause() != null) {
+                errorResult.put("cause", e.getCause().getMessage());
             }
+            errorResult.put("exceptionType", e.getClass().getSimpleName());
+            String errorJson = objectMapper.writeValueAsString(errorResult);
+            logger.error("Returning error as JSON: {}", errorJson);
+            return errorJson;
+        } catch (Exception jsonError) {
+            // JSON 변환도 실패하면 최소한의 JSON 반환
+            logger.error("Failed to convert error to JSON", jsonError);
+            return "{\"error\":true,\"message\":\"Internal error: " + String.valueOf(e.getMessage()).replace("\"", "\\\"") + "\"}";
         }
     }
     
@@ -574,4 +1306,25 @@ public class McpChatService {
             return sessionId;
         }
     }
+    
+    /**
+     * 스트리밍 채팅 응답 (세션 ID와 이벤트 스트림)
+     */
+    public static class ChatStream {
+        private final String sessionId;
+        private final Flux<Map<String, Object>> events;
+        
+        public ChatStream(String sessionId, Flux<Map<String, Object>> events) {
+            this.sessionId = sessionId;
+            this.events = events;
+        }
+        
+        public String getSessionId() {
+            return sessionId;
+        }
+        
+        public Flux<Map<String, Object>> getEvents() {
+            return events;
+        }
+    }
 }
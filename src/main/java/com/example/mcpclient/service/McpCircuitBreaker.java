@@ -0,0 +1,175 @@
+package com.example.mcpclient.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 서버 하나에 대한 서킷 브레이커
+ * 최근 호출 결과(ping, 도구 호출)의 실패율과 연속 실패 수로 회로를 열고,
+ * 열려 있는 동안에는 요청을 보내지 않고 바로 실패시킴
+ * open 시간이 지나면 half-open으로 바꿔 ping 하나로 회복 여부 확인 (실패 시 open 시간 2배, 최대 5분)
+ * 실패는 타임아웃/연결 오류만 해당 (JSON-RPC 에러 응답은 서버가 응답한 것이므로 성공)
+ */
+public class McpCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(McpCircuitBreaker.class);
+    private static final int WINDOW_SIZE = 20;
+    // 실패율 판단에 필요한 최소 호출 수
+    private static final int MIN_CALLS = 5;
+    private static final double FAILURE_RATE_THRESHOLD = 0.5;
+    private static final int CONSECUTIVE_FAILURE_THRESHOLD = 3;
+    private static final long MAX_OPEN_MS = 5 * 60 * 1000;
+    // ping 지연 시간 지수 이동 평균 가중치
+    private static final double LATENCY_EWMA_ALPHA = 0.2;
+
+    private final String serverName;
+    private final long baseOpenMs;
+
+    // 최근 WINDOW_SIZE개 호출 결과 (true = 실패) 순환 버퍼
+    private final boolean[] window = new boolean[WINDOW_SIZE];
+    private int windowIndex = 0;
+    private int windowCount = 0;
+    private int windowFailures = 0;
+    private int consecutiveFailures = 0;
+
+    private State state = State.CLOSED;
+    private long openedAt = 0;
+    private long openMs;
+    private long totalOpened = 0;
+
+    private double latencyEwmaMs = -1;
+    private long lastPingLatencyMs = -1;
+    private long lastPingAt = 0;
+    private String lastError;
+
+    public McpCircuitBreaker(String serverName, long baseOpenMs) {
+        this.serverName = serverName;
+        this.baseOpenMs = Math.max(1000, baseOpenMs);
+        this.openMs = this.baseOpenMs;
+    }
+
+    /**
+     * 요청을 보내도 되는지 확인 (CLOSED일 때만 허용, half-open 확인은 ping이 담당)
+     */
+    public synchronized boolean allowRequest() {
+        return state == State.CLOSED;
+    }
+
+    /**
+     * ping을 보낼 차례인지 확인 (OPEN이면 open 시간이 지난 후 HALF_OPEN으로 전환하고 허용)
+     */
+    public synchronized boolean readyForProbe() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMs) {
+            state = State.HALF_OPEN;
+        }
+        return state != State.OPEN;
+    }
+
+    /**
+     * 회로가 닫힐 수 있는 가장 이른 시점까지 남은 시간 (CLOSED면 0)
+     */
+    public synchronized long getRetryAfterMs() {
+        if (state == State.CLOSED) {
+            return 0;
+        }
+        return Math.max(0, openedAt + openMs - System.currentTimeMillis());
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * ping 성공 기록 (지연 시간 포함)
+     */
+    public synchronized void recordPing(long latencyMs) {
+        lastPingLatencyMs = latencyMs;
+        lastPingAt = System.currentTimeMillis();
+        latencyEwmaMs = latencyEwmaMs < 0 ? latencyMs : latencyEwmaMs + LATENCY_EWMA_ALPHA * (latencyMs - latencyEwmaMs);
+        recordSuccess();
+    }
+
+    public synchronized void recordSuccess() {
+        addOutcome(false);
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+            openMs = baseOpenMs;
+            resetWindow();
+            logger.info("Circuit for server {} closed", serverName);
+        }
+    }
+
+    public synchronized void recordFailure(String error) {
+        addOutcome(true);
+        consecutiveFailures++;
+        lastError = error;
+        if (state == State.HALF_OPEN) {
+            open(Math.min(MAX_OPEN_MS, openMs * 2));
+        } else if (state == State.CLOSED && (consecutiveFailures >= CONSECUTIVE_FAILURE_THRESHOLD
+                || (windowCount >= MIN_CALLS && getFailureRate() >= FAILURE_RATE_THRESHOLD))) {
+            open(baseOpenMs);
+        }
+    }
+
+    /**
+     * 현재 상태와 지표 조회
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("state", state.name());
+        stats.put("errorRate", getFailureRate());
+        stats.put("recentCalls", windowCount);
+        stats.put("consecutiveFailures", consecutiveFailures);
+        stats.put("latencyEwmaMs", latencyEwmaMs < 0 ? null : Math.round(latencyEwmaMs));
+        stats.put("lastPingLatencyMs", lastPingLatencyMs < 0 ? null : lastPingLatencyMs);
+        stats.put("lastPingAt", lastPingAt == 0 ? null : lastPingAt);
+        stats.put("lastError", lastError);
+        stats.put("retryAfterMs", getRetryAfterMs());
+        stats.put("totalOpened", totalOpened);
+        return stats;
+    }
+
+    public String getServerName() {
+        return serverName;
+    }
+
+    private void open(long durationMs) {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        openMs = durationMs;
+        totalOpened++;
+        logger.warn("Circuit for server {} opened for {}ms (error rate {}, consecutive failures {}, last error: {})",
+            serverName, durationMs, getFailureRate(), consecutiveFailures, lastError);
+    }
+
+    private double getFailureRate() {
+        return windowCount == 0 ? 0.0 : (double) windowFailures / windowCount;
+    }
+
+    private void addOutcome(boolean failure) {
+        if (windowCount == WINDOW_SIZE && window[windowIndex]) {
+            windowFailures--;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % WINDOW_SIZE;
+        windowCount = Math.min(WINDOW_SIZE, windowCount + 1);
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+        consecutiveFailures = 0;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.config.McpServerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.PropertySourcesPlaceholdersResolver;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.boot.env.PropertySourceLoader;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * mcp.servers 설정 hot reload
+ * mcp.config-file로 지정한 설정 파일의 수정 시각을 주기적으로 확인하고,
+ * 바뀌면 mcp.servers만 다시 바인딩하여 McpServerRegistry에 적용 (변경된 서버만 재연결)
+ */
+@Component
+public class McpConfigReloader {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpConfigReloader.class);
+
+    private final McpServerConfig serverConfig;
+    private final McpServerRegistry serverRegistry;
+    private final Environment environment;
+    // 마지막으로 적용한 설정 파일 수정 시각
+    private volatile long lastModified = -1;
+
+    public McpConfigReloader(McpServerConfig serverConfig, McpServerRegistry serverRegistry, Environment environment) {
+        this.serverConfig = serverConfig;
+        this.serverRegistry = serverRegistry;
+        this.environment = environment;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        Path configFile = getConfigFile();
+        if (configFile == null) {
+            return;
+        }
+        // 시작 시 바인딩된 설정을 기준으로 이후 변경만 감지
+        try {
+            lastModified = Files.getLastModifiedTime(configFile).toMillis();
+            logger.info("Watching {} for MCP server configuration changes", configFile);
+        } catch (IOException e) {
+            logger.warn("Cannot read MCP config file {}: {}", configFile, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelay = 5000)
+    public void checkForChanges() {
+        Path configFile = getConfigFile();
+        if (configFile == null || !Files.isRegularFile(configFile)) {
+            return;
+        }
+        try {
+            long modified = Files.getLastModifiedTime(configFile).toMillis();
+            if (modified == lastModified) {
+                return;
+            }
+            Map<String, McpServerConfig.McpServerInfo> servers = loadServers(configFile);
+            lastModified = modified;
+            logger.info("MCP server configuration changed in {} ({} server(s))", configFile, servers.size());
+            serverRegistry.applyServerConfig(servers);
+        } catch (Exception e) {
+            // 잘못된 설정은 적용하지 않고 기존 연결 유지 (파일이 다시 바뀌면 재시도)
+            logger.error("Failed to reload MCP server configuration from {}", configFile, e);
+        }
+    }
+
+    /**
+     * 설정 파일에서 mcp.servers만 바인딩 (${...} 값은 현재 Environment로 치환)
+     */
+    private Map<String, McpServerConfig.McpServerInfo> loadServers(Path configFile) throws IOException {
+        String fileName = configFile.getFileName().toString();
+        PropertySourceLoader loader = fileName.endsWith(".properties")
+            ? new PropertiesPropertySourceLoader()
+            : new YamlPropertySourceLoader();
+        List<PropertySource<?>> sources = loader.load("mcp-config-reload", new FileSystemResource(configFile));
+        Binder binder = new Binder(ConfigurationPropertySources.from(sources), new PropertySourcesPlaceholdersResolver(environment));
+        return binder.bind("mcp.servers", Bindable.mapOf(String.class, McpServerConfig.McpServerInfo.class))
+            .orElse(Map.of());
+    }
+
+    private Path getConfigFile() {
+        String configFile = serverConfig.getConfigFile();
+        return configFile == null || configFile.isBlank() ? null : Paths.get(configFile);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.exception.McpDeadlineExceededException;
+
+/**
+ * 채팅 요청 하나의 종료 시각
+ * Gemini 호출, 도구 호출 등 각 단계는 남은 시간만큼만 대기
+ */
+public final class McpDeadline {
+
+    private final long startTime;
+    private final long expiresAt;
+
+    private McpDeadline(long startTime, long expiresAt) {
+        this.startTime = startTime;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * 지금부터 timeoutMs 후에 끝나는 deadline
+     */
+    public static McpDeadline after(long timeoutMs) {
+        long now = System.currentTimeMillis();
+        return new McpDeadline(now, now + Math.max(0, timeoutMs));
+    }
+
+    /**
+     * 남은 시간 (지났으면 0)
+     */
+    public long remainingMs() {
+        return Math.max(0, expiresAt - System.currentTimeMillis());
+    }
+
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAt;
+    }
+
+    /**
+     * 단계별 기본 타임아웃을 남은 시간으로 제한
+     */
+    public long capTimeout(long timeoutMs) {
+        return Math.min(timeoutMs, remainingMs());
+    }
+
+    /**
+     * deadline이 지났으면 다음 단계를 시작하지 않도록 예외 발생
+     */
+    public void check(String stage) {
+        if (isExpired()) {
+            throw new McpDeadlineExceededException("Deadline exceeded before " + stage
+                + " (" + (expiresAt - startTime) + "ms budget)");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.mcpclient.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MCP 작업용 실행기 생성
+ * virtual thread 모드면 작업마다 virtual thread를 사용하고, 아니면 daemon platform thread 풀 사용
+ */
+public final class McpExecutors {
+
+    private McpExecutors() {
+    }
+
+    /**
+     * 작업 실행기 생성 (스레드 이름: name-0, name-1, ...)
+     */
+    public static ExecutorService newTaskExecutor(String name, boolean virtual) {
+        if (virtual) {
+            return newVirtualThreadPerTaskExecutor(name);
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 작업마다 새 virtual thread를 만드는 실행기 (스레드 이름: name-0, name-1, ...)
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String name) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.config.McpServerConfig;
+import com.example.mcpclient.model.McpRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 연결된 MCP 서버에 주기적으로 ping을 보내 지연 시간과 실패를 서킷 브레이커에 기록
+ * 프로세스가 살아 있거나 연결이 맺혀 있어도 응답하지 않는 서버를 찾아내기 위함
+ * 회로가 열린 서버는 open 시간이 지난 후에만 ping으로 회복 여부 확인
+ */
+@Component
+public class McpHealthChecker {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpHealthChecker.class);
+
+    private final McpServerRegistry serverRegistry;
+    // 서버별 다음 ping 시각
+    private final Map<String, Long> nextPingAt = new ConcurrentHashMap<>();
+    // 응답 대기 중인 ping이 있는 서버 (중복 ping 방지)
+    private final Set<String> pingInFlight = ConcurrentHashMap.newKeySet();
+
+    public McpHealthChecker(McpServerRegistry serverRegistry) {
+        this.serverRegistry = serverRegistry;
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void checkServers() {
+        long now = System.currentTimeMillis();
+        nextPingAt.keySet().retainAll(serverRegistry.getConnectedServerNames());
+        for (String serverName : serverRegistry.getConnectedServerNames()) {
+            McpServerConfig.McpServerInfo serverInfo = serverRegistry.getServer(serverName);
+            McpCircuitBreaker breaker = serverRegistry.getCircuitBreaker(serverName);
+            if (serverInfo == null || breaker == null || now < nextPingAt.getOrDefault(serverName, 0L)) {
+                continue;
+            }
+            if (!breaker.readyForProbe() || !pingInFlight.add(serverName)) {
+                continue;
+            }
+            nextPingAt.put(serverName, now + serverInfo.getPingIntervalMs());
+            ping(serverName, serverInfo, breaker);
+        }
+    }
+
+    private void ping(String serverName, McpServerConfig.McpServerInfo serverInfo, McpCircuitBreaker breaker) {
+        McpServerConnectionInterface connection = serverRegistry.getServerConnection(serverName);
+        if (connection == null || !connection.isConnected(serverName)) {
+            pingInFlight.remove(serverName);
+            breaker.recordFailure("not connected");
+            return;
+        }
+        long startTime = System.nanoTime();
+        try {
+            McpRequest ping = new McpRequest("ping", new HashMap<>(), connection.nextRequestId(serverName, "ping"));
+            connection.sendRequestAsync(serverName, ping, serverInfo.getPingTimeoutMs())
+                .whenComplete((response, error) -> {
+                    pingInFlight.remove(serverName);
+                    if (error != null) {
+                        logger.debug("Ping to server {} failed: {}", serverName, error.getMessage());
+                        breaker.recordFailure("ping failed: " + error.getMessage());
+                    } else {
+                        // JSON-RPC 에러 응답이어도 서버가 응답한 것이므로 성공
+                        breaker.recordPing((System.nanoTime() - startTime) / 1_000_000);
+                    }
+                });
+        } catch (Exception e) {
+            pingInFlight.remove(serverName);
+            breaker.recordFailure("ping failed: " + e.getMessage());
+        }
+    }
+}
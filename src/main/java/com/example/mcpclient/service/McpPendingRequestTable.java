@@ -0,0 +1,154 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.model.McpResponse;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 연결 하나에 대한 응답 대기 요청 테이블
+ * 요청마다 deadline을 두고 타이머 휠이 만료된 요청을 제거하여 맵에 항목이 남지 않도록 함
+ * 처리 중 요청 수, 가장 오래된 요청의 대기 시간을 gauge로 제공
+ */
+public class McpPendingRequestTable {
+
+    // 모든 테이블이 공유하는 타이머 휠 (100ms 단위, 만료 처리만 하므로 스레드 하나로 충분)
+    private static final HashedWheelTimer SWEEPER = new HashedWheelTimer(
+            new DefaultThreadFactory("mcp-pending-sweeper", true), 100, TimeUnit.MILLISECONDS, 512);
+
+    private final String serverName;
+    private final String connectionId;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong expiredCount = new AtomicLong();
+
+    /**
+     * 대기 중인 요청 항목
+     */
+    private static final class Entry {
+        private final CompletableFuture<McpResponse> future = new CompletableFuture<>();
+        private final long registeredAt = System.currentTimeMillis();
+        private volatile Timeout timeout;
+    }
+
+    public McpPendingRequestTable(String serverName, String connectionId) {
+        this.serverName = serverName;
+        this.connectionId = connectionId;
+    }
+
+    /**
+     * 요청 등록 (timeoutMs 후 TimeoutException으로 완료되고 테이블에서 제거)
+     */
+    public CompletableFuture<McpResponse> register(String requestId, long timeoutMs) {
+        Entry entry = new Entry();
+        if (entries.putIfAbsent(requestId, entry) != null) {
+            throw new IllegalStateException("Duplicate request id in flight for " + serverName + ": " + requestId);
+        }
+        entry.timeout = SWEEPER.newTimeout(t -> expire(requestId, entry, timeoutMs), timeoutMs, TimeUnit.MILLISECONDS);
+        return entry.future;
+    }
+
+    /**
+     * 응답 전달 (대기 중인 요청이 없으면 false)
+     */
+    public boolean complete(String requestId, McpResponse response) {
+        Entry entry = remove(requestId);
+        if (entry == null) {
+            return false;
+        }
+        entry.future.complete(response);
+        return true;
+    }
+
+    /**
+     * 특정 요청 실패 처리 (대기 중인 요청이 없으면 false)
+     */
+    public boolean fail(String requestId, Throwable cause) {
+        Entry entry = remove(requestId);
+        if (entry == null) {
+            return false;
+        }
+        entry.future.completeExceptionally(cause);
+        return true;
+    }
+
+    /**
+     * 대기 중인 모든 요청 실패 처리 (연결 종료 등)
+     */
+    public void failAll(Throwable cause) {
+        for (String requestId : entries.keySet()) {
+            fail(requestId, cause);
+        }
+    }
+
+    /**
+     * 현재 대기 중인 요청 ID 목록 (복사본)
+     */
+    public List<String> getPendingRequestIds() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    public String getServerName() {
+        return serverName;
+    }
+
+    public String getConnectionId() {
+        return connectionId;
+    }
+
+    /**
+     * gauge: 처리 중인 요청 수
+     */
+    public int getInFlightCount() {
+        return entries.size();
+    }
+
+    /**
+     * gauge: 가장 오래 대기 중인 요청의 경과 시간 (없으면 0)
+     */
+    public long getOldestAgeMs() {
+        long now = System.currentTimeMillis();
+        long oldest = 0;
+        for (Entry entry : entries.values()) {
+            oldest = Math.max(oldest, now - entry.registeredAt);
+        }
+        return oldest;
+    }
+
+    /**
+     * 현재 gauge 값 조회
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("connectionId", connectionId);
+        stats.put("inFlight", getInFlightCount());
+        stats.put("oldestAgeMs", getOldestAgeMs());
+        stats.put("expiredTotal", expiredCount.get());
+        return stats;
+    }
+
+    private Entry remove(String requestId) {
+        Entry entry = entries.remove(requestId);
+        if (entry != null && entry.timeout != null) {
+            entry.timeout.cancel();
+        }
+        return entry;
+    }
+
+    private void expire(String requestId, Entry entry, long timeoutMs) {
+        if (entries.remove(requestId, entry)) {
+            expiredCount.incrementAndGet();
+            entry.future.completeExceptionally(new TimeoutException(
+                "Timeout waiting for response from server " + serverName + " after " + timeoutMs + "ms"));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.mcpclient.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 연결 하나에 대한 JSON-RPC 요청 ID 할당기
+ * ID = 접두어 + 연결 epoch + 순번 (같은 밀리초에 여러 요청이 나가도 충돌하지 않음)
+ * epoch는 연결(재연결 포함)마다 새로 부여되어 이전 연결의 늦은 응답과도 섞이지 않음
+ */
+public class McpRequestIdAllocator {
+
+    // 애플리케이션 기동 시각 (재기동 간 ID 충돌 방지)
+    private static final String BOOT_ID = Long.toString(System.currentTimeMillis(), 36);
+    private static final AtomicLong EPOCH_SEQUENCE = new AtomicLong();
+
+    private final String epoch;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public McpRequestIdAllocator() {
+        this.epoch = BOOT_ID + "." + EPOCH_SEQUENCE.incrementAndGet();
+    }
+
+    /**
+     * 다음 요청 ID 할당 (예: tool-call-lx3k2a.3-17)
+     */
+    public String next(String prefix) {
+        return prefix + "-" + epoch + "-" + sequence.incrementAndGet();
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+}
@@ -5,10 +5,12 @@ import com.example.mcpclient.model.McpRequest;
 import com.example.mcpclient.model.McpResponse;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * MCP 서버 통신 인터페이스
- * stdio와 SSE 방식 모두 지원
+ * stdio, SSE, Streamable HTTP 방식 모두 지원
  */
 public interface McpServerConnectionInterface {
     
@@ -22,6 +24,39 @@ public interface McpServerConnectionInterface {
      */
     McpResponse sendRequest(String serverName, McpRequest request) throws IOException;
     
+    /**
+     * MCP 서버에 요청 전송 (서버 기본값 대신 timeoutMs까지만 대기, 남은 deadline 전달용)
+     */
+    McpResponse sendRequest(String serverName, McpRequest request, long timeoutMs) throws IOException;
+    
+    /**
+     * MCP 서버에 비동기 요청 전송
+     * 응답을 기다리는 동안 호출 스레드를 점유하지 않음 (타임아웃 시 TimeoutException으로 완료)
+     */
+    CompletableFuture<McpResponse> sendRequestAsync(String serverName, McpRequest request);
+    
+    /**
+     * MCP 서버에 비동기 요청 전송 (timeoutMs 후 TimeoutException으로 완료)
+     */
+    CompletableFuture<McpResponse> sendRequestAsync(String serverName, McpRequest request, long timeoutMs);
+    
+    /**
+     * 여러 요청을 하나의 JSON-RPC 배치(배열)로 전송
+     * 응답은 ID로 매칭하여 요청 순서대로 반환
+     */
+    List<McpResponse> sendBatch(String serverName, List<McpRequest> requests) throws IOException;
+    
+    /**
+     * 여러 요청을 하나의 JSON-RPC 배치로 전송 (timeoutMs까지만 대기)
+     */
+    List<McpResponse> sendBatch(String serverName, List<McpRequest> requests, long timeoutMs) throws IOException;
+    
+    /**
+     * 연결별 요청 ID 할당 (접두어-연결 epoch-순번, 같은 밀리초에도 충돌 없음)
+     * 요청 ID가 없으면 전송 시 자동으로 할당됨
+     */
+    String nextRequestId(String serverName, String prefix);
+    
     /**
      * 서버 연결 종료
      */
@@ -31,4 +66,9 @@ public interface McpServerConnectionInterface {
      * 서버가 연결되어 있는지 확인
      */
     boolean isConnected(String serverName);
+    
+    /**
+     * 응답을 기다리는 중인 요청 수 (설정 변경으로 재연결하기 전 drain 판단용)
+     */
+    int getInFlightCount(String serverName);
 }
@@ -1,47 +1,90 @@
 package com.example.mcpclient.service;
 
 import com.example.mcpclient.config.McpServerConfig;
+import com.example.mcpclient.exception.McpCircuitOpenException;
 import com.example.mcpclient.model.McpRequest;
 import com.example.mcpclient.model.McpResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 서버 등록/해제 관리
  * 등록된 서버 조회
  * 초기화 시 설정 파일에서 서버 정보 로드
  * 서버 연결 시 자동으로 도구 목록 가져오기
+ * 시작 시 모든 서버를 동시에 연결하고, 시작 예산 안에 끝나지 않은 서버는 백그라운드에서 계속 연결 (warming)
+ * 도구 목록은 불변 카탈로그 스냅샷으로 교체하며, list_changed 알림과 주기적 갱신(jitter)으로 다시 가져옴
+ * 시작 시 스냅샷 파일의 도구 목록을 바로 사용하고, 연결 후 해시가 바뀐 경우에만 교체
+ * 설정이 바뀌면 변경된 서버만 drain 후 재연결 (바뀌지 않은 서버는 연결 유지)
  */
 @Service
 public class McpServerRegistry {
     
     private static final Logger logger = LoggerFactory.getLogger(McpServerRegistry.class);
+    // 잘못된 cursor로 무한 반복하지 않도록 tools/list 최대 페이지 수 제한
+    private static final int MAX_TOOLS_PAGES = 1000;
+    private static final long DRAIN_POLL_INTERVAL_MS = 100;
     private final McpServerConfig serverConfig;
     private final McpServerStdioConnection stdioConnection;
     private final McpServerSseConnection sseConnection;
+    private final McpServerStreamableHttpConnection streamableHttpConnection;
+    private final McpToolCatalogSnapshotStore snapshotStore;
     // 서버별 연결 객체 저장
     private final Map<String, McpServerConnectionInterface> serverConnections = new ConcurrentHashMap<>();
-    private final Map<String, McpServerConfig.McpServerInfo> registeredServers = new HashMap<>();
-    // 서버별 도구 목록 저장
-    private final Map<String, List<Map<String, Object>>> serverTools = new HashMap<>();
+    private final Map<String, McpServerConfig.McpServerInfo> registeredServers = new ConcurrentHashMap<>();
+    // 서버별 도구 목록 (불변 스냅샷을 통째로 교체, 읽을 때 잠금 없음)
+    private final AtomicReference<McpToolCatalog> catalog = new AtomicReference<>(McpToolCatalog.empty());
+    // 서버 간 통합 도구 이름 색인 (카탈로그 버전이 바뀌면 다시 생성)
+    private final AtomicReference<McpToolIndex> toolIndex = new AtomicReference<>(McpToolIndex.build(McpToolCatalog.empty()));
+    // 갱신 작업이 예약된 서버 (알림이 몰려도 한 번만 실행)
+    private final Set<String> refreshQueued = ConcurrentHashMap.newKeySet();
+    // 서버별 서킷 브레이커 (헬스 체크 ping과 도구 호출 결과로 상태 결정)
+    private final Map<String, McpCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    // 서버별 다음 주기적 갱신 시각
+    private final Map<String, Long> nextRefreshAt = new ConcurrentHashMap<>();
+    // 서버별 연결 + 도구 목록 준비 완료 여부 (미완료면 warming)
+    private final Map<String, CompletableFuture<Void>> serverReady = new ConcurrentHashMap<>();
+    // 시작 시 서버 연결용 스레드 (서버마다 하나씩 동시에 연결, virtual thread 모드면 virtual thread)
+    private final ExecutorService bootstrapExecutor;
 
     public McpServerRegistry(
             McpServerConfig serverConfig, 
             McpServerStdioConnection stdioConnection,
-            McpServerSseConnection sseConnection) {
+            McpServerSseConnection sseConnection,
+            McpServerStreamableHttpConnection streamableHttpConnection,
+            McpToolCatalogSnapshotStore snapshotStore,
+            Environment environment) {
         this.serverConfig = serverConfig;
         this.stdioConnection = stdioConnection;
         this.sseConnection = sseConnection;
+        this.streamableHttpConnection = streamableHttpConnection;
+        this.snapshotStore = snapshotStore;
+        // spring.threads.virtual.enabled=true면 연결/재연결 대기도 virtual thread에서 처리
+        this.bootstrapExecutor = McpExecutors.newTaskExecutor("mcp-bootstrap", Threading.VIRTUAL.isActive(environment));
     }
 
     @PostConstruct
@@ -54,25 +97,41 @@ public class McpServerRegistry {
             registeredServers.putAll(serverConfig.getServers());
             logger.info("Registered {} servers", registeredServers.size());
             
-            // 등록된 서버 자동 연결 및 도구 목록 가져오기
+            // 스냅샷의 도구 목록을 먼저 제공 (연결 후 백그라운드에서 재검증)
+            for (Map.Entry<String, McpToolCatalogSnapshotStore.SnapshotEntry> entry : snapshotStore.load().entrySet()) {
+                if (registeredServers.containsKey(entry.getKey())) {
+                    catalog.updateAndGet(current -> current.withServerTools(
+                        entry.getKey(), entry.getValue().getTools(), entry.getValue().getHash()));
+                    logger.info("Serving {} tools for server {} from snapshot", 
+                        entry.getValue().getTools().size(), entry.getKey());
+                }
+            }
+            
+            // 등록된 서버 동시 연결 및 도구 목록 가져오기
             for (Map.Entry<String, McpServerConfig.McpServerInfo> entry : registeredServers.entrySet()) {
-                try {
-                    String serverName = entry.getKey();
-                    McpServerConfig.McpServerInfo serverInfo = entry.getValue();
-                    
-                    // 통신 방식에 따라 적절한 연결 객체 선택
-                    McpServerConnectionInterface connection = getConnectionForServer(serverInfo);
-                    connection.connectServer(serverName, serverInfo);
-                    serverConnections.put(serverName, connection);
-                    
-                    logger.info("🔗 Auto-connected MCP server: {} (type: {})", serverName, serverInfo.getType());
-                    
-                    // 서버 연결 후 도구 목록 자동으로 가져오기
-                    fetchToolsFromServer(serverName);
-                } catch (IOException e) {
-                    logger.error("Failed to connect MCP server: {}", entry.getKey(), e);
+                String serverName = entry.getKey();
+                McpServerConfig.McpServerInfo serverInfo = entry.getValue();
+                serverReady.put(serverName, CompletableFuture.runAsync(() -> bootstrap(serverName, serverInfo), bootstrapExecutor));
+            }
+            
+            // 시작 예산만큼만 대기 (나머지는 백그라운드에서 계속 연결)
+            long startTime = System.currentTimeMillis();
+            try {
+                CompletableFuture.allOf(serverReady.values().toArray(new CompletableFuture<?>[0]))
+                    .get(serverConfig.getStartupBudgetMs(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                for (String serverName : registeredServers.keySet()) {
+                    if ("warming".equals(getServerState(serverName))) {
+                        logger.warn("MCP server {} not ready within startup budget {}ms, continuing in background", 
+                            serverName, serverConfig.getStartupBudgetMs());
+                    }
                 }
+            } catch (ExecutionException e) {
+                // 개별 서버 실패는 bootstrap에서 로그 출력
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
+            logger.info("MCP server bootstrap finished in {}ms", System.currentTimeMillis() - startTime);
         } else {
             logger.warn("No MCP servers found in configuration");
         }
@@ -81,6 +140,7 @@ public class McpServerRegistry {
     @PreDestroy
     public void cleanup() {
         // 애플리케이션 종료 시 모든 서버 연결 해제
+        bootstrapExecutor.shutdownNow();
         for (String serverName : registeredServers.keySet()) {
             McpServerConnectionInterface connection = serverConnections.get(serverName);
             if (connection != null) {
@@ -89,6 +149,76 @@ public class McpServerRegistry {
         }
     }
 
+    /**
+     * 서버 하나 연결 후 도구 목록 가져오기 (시작 시 서버별 스레드에서 실행)
+     */
+    private void bootstrap(String serverName, McpServerConfig.McpServerInfo serverInfo) {
+        long startTime = System.currentTimeMillis();
+        try {
+            // 통신 방식에 따라 적절한 연결 객체 선택
+            McpServerConnectionInterface connection = getConnectionForServer(serverInfo);
+            connection.connectServer(serverName, serverInfo);
+            circuitBreakers.put(serverName, new McpCircuitBreaker(serverName, serverInfo.getCircuitOpenMs()));
+            serverConnections.put(serverName, connection);
+            
+            logger.info("🔗 Auto-connected MCP server: {} (type: {})", serverName, serverInfo.getType());
+            
+            // 서버 연결 후 도구 목록 자동으로 가져오기
+            fetchToolsFromServer(serverName);
+            logger.info("MCP server {} ready in {}ms", serverName, System.currentTimeMillis() - startTime);
+        } catch (IOException e) {
+            logger.error("Failed to connect MCP server: {}", serverName, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 서버가 준비될 때까지 최대 timeoutMs 대기 (warming 상태일 때만 실제로 대기)
+     * 준비되면 true, 시간 초과면 false (연결 실패한 서버는 기다리지 않고 true)
+     */
+    public boolean awaitReady(String serverName, long timeoutMs) {
+        CompletableFuture<Void> ready = serverReady.get(serverName);
+        if (ready == null || ready.isDone()) {
+            return true;
+        }
+        try {
+            ready.get(timeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 서버가 준비(연결 완료 또는 실패)되면 완료되는 future (대기 중 스레드를 점유하지 않음)
+     */
+    public CompletableFuture<Void> whenReady(String serverName) {
+        CompletableFuture<Void> ready = serverReady.get(serverName);
+        if (ready == null || ready.isDone()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return ready.exceptionally(e -> null);
+    }
+
+    /**
+     * 서버 상태 조회 ("ready", "warming", "failed", 등록되지 않은 서버는 null)
+     */
+    public String getServerState(String serverName) {
+        if (!registeredServers.containsKey(serverName)) {
+            return null;
+        }
+        CompletableFuture<Void> ready = serverReady.get(serverName);
+        if (ready == null || (ready.isDone() && !ready.isCompletedExceptionally())) {
+            return serverConnections.containsKey(serverName) ? "ready" : "failed";
+        }
+        return ready.isDone() ? "failed" : "warming";
+    }
+
     /**
      * 통신 방식에 따라 적절한 연결 객체 반환
      */
@@ -98,6 +228,8 @@ public class McpServerRegistry {
             return stdioConnection;
         } else if ("sse".equalsIgnoreCase(type)) {
             return sseConnection;
+        } else if ("streamable-http".equalsIgnoreCase(type)) {
+            return streamableHttpConnection;
         } else {
             logger.warn("Unknown connection type: {}, using stdio", type);
             return stdioConnection;
@@ -113,6 +245,93 @@ public class McpServerRegistry {
             connection.disconnectServer(serverName);
         }
         registeredServers.remove(serverName);
+        serverReady.remove(serverName);
+        removeServerState(serverName);
+    }
+    
+    /**
+     * 새 서버 설정 적용 (설정 hot reload)
+     * 추가된 서버는 연결, 삭제된 서버는 drain 후 종료, 변경된 서버는 drain 후 새 설정으로 재연결
+     * 바뀌지 않은 서버는 연결, 도구 카탈로그, ChatClient 캐시를 그대로 유지
+     */
+    public synchronized void applyServerConfig(Map<String, McpServerConfig.McpServerInfo> servers) {
+        for (String serverName : new ArrayList<>(registeredServers.keySet())) {
+            if (!servers.containsKey(serverName)) {
+                logger.info("MCP server {} removed from configuration, draining", serverName);
+                registeredServers.remove(serverName);
+                CompletableFuture<Void> previous = serverReady.remove(serverName);
+                afterPrevious(previous, () -> {
+                    drainAndDisconnect(serverName);
+                    // 같은 이름으로 다시 추가되었으면 새 연결의 상태는 유지
+                    if (!registeredServers.containsKey(serverName)) {
+                        removeServerState(serverName);
+                    }
+                });
+            }
+        }
+        for (Map.Entry<String, McpServerConfig.McpServerInfo> entry : servers.entrySet()) {
+            String serverName = entry.getKey();
+            McpServerConfig.McpServerInfo serverInfo = entry.getValue();
+            McpServerConfig.McpServerInfo current = registeredServers.get(serverName);
+            if (serverInfo.equals(current)) {
+                continue;
+            }
+            boolean changed = current != null;
+            logger.info("MCP server {} {} in configuration, {}", serverName,
+                changed ? "changed" : "added", changed ? "draining and reconnecting" : "connecting");
+            registeredServers.put(serverName, serverInfo);
+            // 재연결이 끝날 때까지 warming (새 도구 호출은 대기, 처리 중인 요청은 기존 연결에서 완료)
+            serverReady.put(serverName, afterPrevious(serverReady.get(serverName), () -> {
+                if (changed) {
+                    drainAndDisconnect(serverName);
+                }
+                bootstrap(serverName, serverInfo);
+            }));
+        }
+        serverConfig.setServers(new HashMap<>(servers));
+    }
+    
+    /**
+     * 이전 작업(연결/재연결)이 끝난 후 실행 (성공/실패 무관)
+     */
+    private CompletableFuture<Void> afterPrevious(CompletableFuture<Void> previous, Runnable task) {
+        CompletableFuture<Void> start = previous != null ? previous.handle((result, error) -> null) : CompletableFuture.completedFuture(null);
+        return start.thenRunAsync(task, bootstrapExecutor);
+    }
+    
+    /**
+     * 처리 중인 요청이 끝날 때까지 (최대 drain-timeout-ms) 기다린 후 연결 종료
+     */
+    private void drainAndDisconnect(String serverName) {
+        McpServerConnectionInterface connection = serverConnections.get(serverName);
+        if (connection == null) {
+            return;
+        }
+        long drainUntil = System.currentTimeMillis() + serverConfig.getDrainTimeoutMs();
+        try {
+            while (connection.getInFlightCount(serverName) > 0 && System.currentTimeMillis() < drainUntil) {
+                Thread.sleep(DRAIN_POLL_INTERVAL_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int remaining = connection.getInFlightCount(serverName);
+        if (remaining > 0) {
+            logger.warn("Disconnecting MCP server {} with {} request(s) still in flight after drain timeout", serverName, remaining);
+        }
+        serverConnections.remove(serverName, connection);
+        circuitBreakers.remove(serverName);
+        connection.disconnectServer(serverName);
+        logger.info("Drained and disconnected MCP server {}", serverName);
+    }
+    
+    /**
+     * 삭제된 서버의 서킷 브레이커, 갱신 일정, 도구 카탈로그 정리
+     */
+    private void removeServerState(String serverName) {
+        circuitBreakers.remove(serverName);
+        nextRefreshAt.remove(serverName);
+        snapshotStore.save(catalog.updateAndGet(current -> current.withoutServer(serverName)));
     }
     
     /**
@@ -122,6 +341,59 @@ public class McpServerRegistry {
         return serverConnections.get(serverName);
     }
 
+    /**
+     * 연결된 서버 이름 목록 (warming / 연결 실패 서버 제외)
+     */
+    public Set<String> getConnectedServerNames() {
+        return serverConnections.keySet();
+    }
+    
+    /**
+     * 서버의 서킷 브레이커 (연결된 적 없는 서버는 null)
+     */
+    public McpCircuitBreaker getCircuitBreaker(String serverName) {
+        return circuitBreakers.get(serverName);
+    }
+    
+    /**
+     * 회로가 열려 있으면 요청을 보내지 않고 바로 실패
+     */
+    public void checkCircuit(String serverName) {
+        McpCircuitBreaker breaker = circuitBreakers.get(serverName);
+        if (breaker != null && !breaker.allowRequest()) {
+            throw new McpCircuitOpenException(serverName, breaker.getRetryAfterMs());
+        }
+    }
+    
+    /**
+     * 요청 결과를 서킷 브레이커에 기록 (error가 null이면 성공)
+     */
+    public void recordCallResult(String serverName, Throwable error) {
+        McpCircuitBreaker breaker = circuitBreakers.get(serverName);
+        if (breaker == null) {
+            return;
+        }
+        if (error == null) {
+            breaker.recordSuccess();
+        } else {
+            breaker.recordFailure(error.getClass().getSimpleName() + ": " + error.getMessage());
+        }
+    }
+    
+    /**
+     * 서버별 상태와 서킷 브레이커 지표 조회
+     */
+    public Map<String, Map<String, Object>> getServerHealth() {
+        Map<String, Map<String, Object>> health = new HashMap<>();
+        for (String serverName : registeredServers.keySet()) {
+            McpCircuitBreaker breaker = circuitBreakers.get(serverName);
+            Map<String, Object> serverHealth = breaker != null ? breaker.getStats() : new HashMap<>();
+            serverHealth.put("serverState", getServerState(serverName));
+            health.put(serverName, serverHealth);
+        }
+        return health;
+    }
+    
     /**
      * 등록된 서버 정보 조회
      */
@@ -144,7 +416,9 @@ public class McpServerRegistry {
     }
     
     /**
-     * MCP 서버로부터 도구 목록 가져오기
+     * MCP 서버로부터 도구 목록 가져오기 (nextCursor 페이지 처리)
+     * 처음 가져오는 서버는 페이지가 올 때마다 카탈로그에 반영하고,
+     * 이미 목록이 있는 서버는 잘린 목록이 보이지 않도록 모든 페이지를 받은 후 한 번에 교체
      */
     private void fetchToolsFromServer(String serverName) {
         try {
@@ -153,50 +427,166 @@ public class McpServerRegistry {
                 logger.error("No connection found for server: {}", serverName);
                 return;
             }
+            McpServerConfig.McpServerInfo serverInfo = registeredServers.get(serverName);
+            boolean prefetch = serverInfo == null || serverInfo.isToolsListPrefetch();
+            boolean streamPages = !catalog.get().hasServer(serverName);
             
-            McpRequest request = new McpRequest();
-            request.setMethod("tools/list");
-            request.setParams(new HashMap<>());
-            request.setId("tools-list-" + System.currentTimeMillis());
-            
-            McpResponse response = connection.sendRequest(serverName, request);
-            
-            if (response.getError() == null && response.getResult() != null) {
+            List<Map<String, Object>> tools = new ArrayList<>();
+            Set<String> seenCursors = new HashSet<>();
+            int pageCount = 0;
+            CompletableFuture<McpResponse> pending = requestToolsPage(connection, serverName, null);
+            while (pending != null) {
+                McpResponse response = pending.get();
+                pageCount++;
+                if (response.getError() != null || response.getResult() == null) {
+                    logger.warn("Failed to fetch tools from server {} (page {}): {}", serverName, pageCount,
+                        response.getError() != null ? response.getError().getMessage() : "Unknown error");
+                    return;
+                }
+                
                 @SuppressWarnings("unchecked")
                 Map<String, Object> result = (Map<String, Object>) response.getResult();
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> tools = (List<Map<String, Object>>) result.get("tools");
+                String nextCursor = result.get("nextCursor") instanceof String cursor && !cursor.isEmpty() ? cursor : null;
+                if (nextCursor != null && (!seenCursors.add(nextCursor) || pageCount >= MAX_TOOLS_PAGES)) {
+                    logger.warn("Stopping tools/list pagination for server {} after {} pages (repeated cursor or page limit)", 
+                        serverName, pageCount);
+                    nextCursor = null;
+                }
+                
+                // 현재 페이지를 처리하는 동안 다음 페이지 요청
+                pending = nextCursor != null && prefetch ? requestToolsPage(connection, serverName, nextCursor) : null;
                 
-                if (tools != null) {
-                    serverTools.put(serverName, tools);
-                    logger.info("Fetched {} tools from server {}", tools.size(), serverName);
-                    for (Map<String, Object> tool : tools) {
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> page = (List<Map<String, Object>>) result.get("tools");
+                if (page != null) {
+                    tools.addAll(page);
+                    for (Map<String, Object> tool : page) {
                         logger.debug("Tool: {}", tool.get("name"));
                     }
-                } else {
+                } else if (pageCount == 1 && nextCursor == null) {
                     logger.warn("No tools found in response from server {}", serverName);
+                    return;
+                }
+                logger.debug("Fetched tools/list page {} from server {} ({} tools so far)", pageCount, serverName, tools.size());
+                
+                if (nextCursor != null) {
+                    if (streamPages) {
+                        updateServerTools(serverName, tools);
+                    }
+                    if (!prefetch) {
+                        pending = requestToolsPage(connection, serverName, nextCursor);
+                    }
                 }
-            } else {
-                logger.warn("Failed to fetch tools from server {}: {}", serverName, 
-                    response.getError() != null ? response.getError().getMessage() : "Unknown error");
+            }
+            
+            McpToolCatalog previous = catalog.get();
+            McpToolCatalog updated = updateServerTools(serverName, tools);
+            logger.info("Fetched {} tools in {} page(s) from server {} (catalog version {}{})", tools.size(), pageCount,
+                serverName, updated.getVersion(), updated == previous ? ", unchanged" : "");
+            if (updated != previous) {
+                snapshotStore.save(updated);
             }
         } catch (Exception e) {
             logger.error("Error fetching tools from server {}", serverName, e);
         }
     }
     
+    /**
+     * tools/list 페이지 하나 요청 (cursor가 없으면 첫 페이지)
+     */
+    private CompletableFuture<McpResponse> requestToolsPage(
+            McpServerConnectionInterface connection, String serverName, String cursor) {
+        Map<String, Object> params = new HashMap<>();
+        if (cursor != null) {
+            params.put("cursor", cursor);
+        }
+        McpRequest request = new McpRequest();
+        request.setMethod("tools/list");
+        request.setParams(params);
+        request.setId(connection.nextRequestId(serverName, "tools-list"));
+        return connection.sendRequestAsync(serverName, request);
+    }
+    
+    private McpToolCatalog updateServerTools(String serverName, List<Map<String, Object>> tools) {
+        String hash = snapshotStore.hash(tools);
+        return catalog.updateAndGet(current -> current.withServerTools(serverName, tools, hash));
+    }
+    
     /**
      * 서버의 도구 목록 조회
      */
     public List<Map<String, Object>> getServerTools(String serverName) {
-        return serverTools.getOrDefault(serverName, List.of());
+        return catalog.get().getServerTools(serverName);
     }
     
     /**
      * 모든 서버의 도구 목록 조회
      */
     public Map<String, List<Map<String, Object>>> getAllServerTools() {
-        return new HashMap<>(serverTools);
+        return catalog.get().getAllServerTools();
+    }
+    
+    /**
+     * 현재 도구 카탈로그 스냅샷 (버전으로 파생 데이터 무효화 판단)
+     */
+    public McpToolCatalog getToolCatalog() {
+        return catalog.get();
+    }
+    
+    /**
+     * 현재 카탈로그의 통합 도구 이름 색인 (서버__도구 → 서버, 도구)
+     */
+    public McpToolIndex getToolIndex() {
+        McpToolCatalog current = catalog.get();
+        McpToolIndex index = toolIndex.get();
+        if (index.getCatalogVersion() != current.getVersion()) {
+            index = McpToolIndex.build(current);
+            toolIndex.set(index);
+        }
+        return index;
+    }
+    
+    /**
+     * 서버가 도구 목록 변경을 알리면 백그라운드에서 다시 가져오기
+     * (알림을 받은 reader 스레드에서 요청을 보내지 않도록 비동기로 처리)
+     */
+    @EventListener
+    public void onToolsChanged(McpToolsChangedEvent event) {
+        logger.info("Tool list changed on server {}, refreshing", event.getServerName());
+        requestRefresh(event.getServerName());
+    }
+    
+    /**
+     * 주기적 도구 목록 갱신 (서버별 갱신 시각에 jitter를 주어 동시에 몰리지 않게 함)
+     */
+    @Scheduled(fixedDelay = 30 * 1000)
+    public void refreshToolsPeriodically() {
+        long now = System.currentTimeMillis();
+        for (String serverName : serverConnections.keySet()) {
+            Long dueAt = nextRefreshAt.get(serverName);
+            if (dueAt == null) {
+                scheduleNextRefresh(serverName, now);
+            } else if (now >= dueAt) {
+                scheduleNextRefresh(serverName, now);
+                requestRefresh(serverName);
+            }
+        }
+    }
+    
+    private void scheduleNextRefresh(String serverName, long now) {
+        long interval = serverConfig.getToolsRefreshIntervalMs();
+        long jitter = (long) (interval * 0.2 * (ThreadLocalRandom.current().nextDouble() * 2 - 1));
+        nextRefreshAt.put(serverName, now + interval + jitter);
+    }
+    
+    private void requestRefresh(String serverName) {
+        if (bootstrapExecutor.isShutdown() || !serverConnections.containsKey(serverName) || !refreshQueued.add(serverName)) {
+            return;
+        }
+        bootstrapExecutor.execute(() -> {
+            refreshQueued.remove(serverName);
+            fetchToolsFromServer(serverName);
+        });
     }
     
     /**
@@ -204,10 +594,12 @@ public class McpServerRegistry {
      */
     public void registerServer(String serverName, McpServerConfig.McpServerInfo serverInfo) throws IOException {
         registeredServers.put(serverName, serverInfo);
+        serverReady.remove(serverName);
         
         // 통신 방식에 따라 적절한 연결 객체 선택
         McpServerConnectionInterface connection = getConnectionForServer(serverInfo);
         connection.connectServer(serverName, serverInfo);
+        circuitBreakers.put(serverName, new McpCircuitBreaker(serverName, serverInfo.getCircuitOpenMs()));
         serverConnections.put(serverName, connection);
         
         fetchToolsFromServer(serverName);
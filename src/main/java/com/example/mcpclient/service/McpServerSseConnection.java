@@ -3,18 +3,21 @@ package com.example.mcpclient.service;
 import com.example.mcpclient.config.McpServerConfig;
 import com.example.mcpclient.model.McpRequest;
 import com.example.mcpclient.model.McpResponse;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.*;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -26,20 +29,18 @@ import java.util.concurrent.TimeoutException;
 public class McpServerSseConnection implements McpServerConnectionInterface {
     
     private static final Logger logger = LoggerFactory.getLogger(McpServerSseConnection.class);
-    private final ObjectMapper objectMapper;
-    private final RestTemplate restTemplate;
+    private static final long POST_TIMEOUT_MS = 10000; // POST 자체 타임아웃 10초
+    private static final long CONNECT_TIMEOUT_MS = 10000; // 첫 SSE 연결 대기 10초
     private final McpSseClientManager sseClientManager;
     
     // 서버별 클라이언트 ID 저장
     private final Map<String, String> serverClientIds = new ConcurrentHashMap<>();
     // 서버별 서버 정보 저장
     private final Map<String, McpServerConfig.McpServerInfo> serverInfos = new ConcurrentHashMap<>();
-    // 서버별 SSE 연결 상태 저장
-    private final Map<String, Boolean> serverConnectionStatus = new ConcurrentHashMap<>();
+    // 서버(연결)별 요청 ID 할당기
+    private final Map<String, McpRequestIdAllocator> idAllocators = new ConcurrentHashMap<>();
     
-    public McpServerSseConnection(ObjectMapper objectMapper, McpSseClientManager sseClientManager) {
-        this.objectMapper = objectMapper;
-        this.restTemplate = new RestTemplate();
+    public McpServerSseConnection(McpSseClientManager sseClientManager) {
         this.sseClientManager = sseClientManager;
     }
     
@@ -59,21 +60,151 @@ public class McpServerSseConnection implements McpServerConnectionInterface {
         String clientId = UUID.randomUUID().toString();
         serverClientIds.put(serverName, clientId);
         serverInfos.put(serverName, serverInfo);
-        serverConnectionStatus.put(serverName, true);
+        idAllocators.put(serverName, new McpRequestIdAllocator());
         
-        // SSE 연결 시작
-        sseClientManager.startSseConnection(serverName, url, clientId);
+        // SSE 연결 시작 (첫 연결까지만 대기, 이후 끊김은 백그라운드에서 재연결)
+        CompletableFuture<Void> firstConnect = sseClientManager.startSseConnection(
+                serverName, url, clientId, serverInfo.getHeartbeatTimeoutMs(), serverInfo.getReplayGraceMs());
+        try {
+            firstConnect.get(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("SSE stream for server {} not connected yet, retrying in background", serverName);
+        } catch (ExecutionException e) {
+            logger.warn("SSE stream for server {} failed to connect ({}), retrying in background",
+                    serverName, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while connecting to server " + serverName, e);
+        }
         
         logger.info("MCP server {} connected via SSE with clientId: {}", serverName, clientId);
     }
     
     @Override
     public McpResponse sendRequest(String serverName, McpRequest request) throws IOException {
+        return sendRequest(serverName, request, getRequestTimeoutMs(serverName));
+    }
+    
+    @Override
+    public McpResponse sendRequest(String serverName, McpRequest request, long timeoutMs) throws IOException {
+        // SSE 스트림에서 응답 대기 (timeoutMs까지)
+        McpResponse response = awaitResponse(serverName, sendRequestAsync(serverName, request, timeoutMs),
+                System.currentTimeMillis() + timeoutMs, timeoutMs);
+        logger.info("Received response from {} for request: {}", serverName, request.getId());
+        return response;
+    }
+    
+    /**
+     * 비동기 요청 전송
+     * WebClient로 POST하고, 응답은 SSE 스트림에서 요청 ID로 받아 Future를 완료 (호출 스레드 점유 없음)
+     */
+    @Override
+    public CompletableFuture<McpResponse> sendRequestAsync(String serverName, McpRequest request) {
+        return sendRequestAsync(serverName, request, getRequestTimeoutMs(serverName));
+    }
+    
+    @Override
+    public CompletableFuture<McpResponse> sendRequestAsync(String serverName, McpRequest request, long timeoutMs) {
+        String clientId;
+        McpServerConfig.McpServerInfo serverInfo;
+        try {
+            clientId = getClientId(serverName);
+            serverInfo = getValidatedServerInfo(serverName);
+            assignRequestId(serverName, request);
+        } catch (IllegalStateException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (!sseClientManager.isStreamConnected(serverName)) {
+            // 재연결 중에는 25초를 기다리지 않고 바로 실패
+            return CompletableFuture.failedFuture(
+                new IOException("SSE stream to server " + serverName + " is not connected (reconnecting)"));
+        }
+        
+        // 요청 ID를 사용하여 응답 매핑 (deadline이 지나면 테이블에서 자동 제거)
+        CompletableFuture<McpResponse> responseFuture =
+                sseClientManager.registerRequest(serverName, request.getId(), timeoutMs);
+        postToServer(serverName, serverInfo, clientId, request)
+                .subscribe(ignored -> { }, error -> sseClientManager.failRequest(serverName, request.getId(), error));
+        return responseFuture;
+    }
+    
+    /**
+     * 여러 요청을 하나의 JSON-RPC 배열로 POST
+     * 응답은 SSE 스트림에서 ID별로 받아 요청 순서대로 반환
+     */
+    @Override
+    public List<McpResponse> sendBatch(String serverName, List<McpRequest> requests) throws IOException {
+        return sendBatch(serverName, requests, getRequestTimeoutMs(serverName));
+    }
+    
+    @Override
+    public List<McpResponse> sendBatch(String serverName, List<McpRequest> requests, long timeoutMs) throws IOException {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        String clientId = getClientId(serverName);
+        McpServerConfig.McpServerInfo serverInfo = getValidatedServerInfo(serverName);
+        requests.forEach(request -> assignRequestId(serverName, request));
+        if (!sseClientManager.isStreamConnected(serverName)) {
+            throw new IOException("SSE stream to server " + serverName + " is not connected (reconnecting)");
+        }
+        
+        List<CompletableFuture<McpResponse>> responseFutures = new ArrayList<>(requests.size());
+        for (McpRequest request : requests) {
+            responseFutures.add(sseClientManager.registerRequest(serverName, request.getId(), timeoutMs));
+        }
+        
+        postToServer(serverName, serverInfo, clientId, requests)
+                .subscribe(ignored -> { }, error -> requests.forEach(
+                        request -> sseClientManager.failRequest(serverName, request.getId(), error)));
+        
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        List<McpResponse> responses = new ArrayList<>(requests.size());
+        for (CompletableFuture<McpResponse> responseFuture : responseFutures) {
+            responses.add(awaitResponse(serverName, responseFuture, deadline, timeoutMs));
+        }
+        logger.info("Received {} batched responses from {}", responses.size(), serverName);
+        return responses;
+    }
+    
+    /**
+     * 연결별 요청 ID 할당 (접두어-연결 epoch-순번)
+     */
+    @Override
+    public String nextRequestId(String serverName, String prefix) {
+        McpRequestIdAllocator allocator = idAllocators.get(serverName);
+        if (allocator == null) {
+            throw new IllegalStateException("Server " + serverName + " is not connected");
+        }
+        return allocator.next(prefix);
+    }
+    
+    /**
+     * ID가 없는 요청에 연결별 ID 부여
+     */
+    private void assignRequestId(String serverName, McpRequest request) {
+        if (request.getId() == null) {
+            request.setId(nextRequestId(serverName, "req"));
+        }
+    }
+    
+    /**
+     * 서버 설정의 요청 기본 타임아웃
+     */
+    private long getRequestTimeoutMs(String serverName) {
+        McpServerConfig.McpServerInfo serverInfo = serverInfos.get(serverName);
+        return serverInfo != null ? serverInfo.getRequestTimeoutMs() : McpServerConfig.McpServerInfo.DEFAULT_REQUEST_TIMEOUT_MS;
+    }
+    
+    private String getClientId(String serverName) {
         String clientId = serverClientIds.get(serverName);
         if (clientId == null) {
             throw new IllegalStateException("Server " + serverName + " is not connected");
         }
-        
+        return clientId;
+    }
+    
+    private McpServerConfig.McpServerInfo getValidatedServerInfo(String serverName) {
         McpServerConfig.McpServerInfo serverInfo = getServerInfo(serverName);
         if (serverInfo == null) {
             throw new IllegalStateException("Server info not found for: " + serverName);
@@ -83,51 +214,73 @@ public class McpServerSseConnection implements McpServerConnectionInterface {
         if (baseUrl == null || baseUrl.trim().isEmpty()) {
             throw new IllegalStateException("Server URL not configured for: " + serverName);
         }
+        return serverInfo;
+    }
+    
+    /**
+     * 요청 본문(단일 요청 또는 배열) 비동기 POST (응답은 SSE 스트림으로 받음)
+     * 커넥션 풀이 설정된 McpSseClientManager의 WebClient 사용
+     */
+    private Mono<Void> postToServer(
+            String serverName,
+            McpServerConfig.McpServerInfo serverInfo,
+            String clientId,
+            Object body) {
+        // 요청 전송 URL
+        String requestUrl = serverInfo.getUrl() + "/mcp/request?clientId=" + clientId;
+        logger.info("Sending SSE request to {}: {}", serverName,
+            body instanceof McpRequest ? ((McpRequest) body).getMethod() : "batch");
         
-        // 요청 ID를 사용하여 응답 매핑
-        String requestId = request.getId();
-        CompletableFuture<McpResponse> responseFuture = sseClientManager.registerRequest(requestId);
-        
+        return sseClientManager.getWebClient().post()
+                .uri(requestUrl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(headers -> {
+                    if (serverInfo.getHeaders() != null) {
+                        serverInfo.getHeaders().forEach(headers::set);
+                    }
+                })
+                .bodyValue(body)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(Duration.ofMillis(POST_TIMEOUT_MS))
+                .doOnNext(response -> logger.debug("Request sent successfully, status: {}", response.getStatusCode()))
+                .onErrorMap(e -> {
+                    logger.error("Error sending request to server {}", serverName, e);
+                    return new IOException("Error sending request to server " + serverName + ": " + e.getMessage(), e);
+                })
+                .then();
+    }
+    
+    /**
+     * SSE 스트림에서 응답 대기
+     */
+    private McpResponse awaitResponse(
+            String serverName,
+            CompletableFuture<McpResponse> responseFuture,
+            long deadline,
+            long timeoutMs) throws IOException {
         try {
-            // 요청 전송 URL
-            String requestUrl = baseUrl + "/mcp/request?clientId=" + clientId;
-            
-            // 헤더 설정
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            if (serverInfo.getHeaders() != null) {
-                serverInfo.getHeaders().forEach(headers::set);
+            long remaining = Math.max(0, deadline - System.currentTimeMillis());
+            return responseFuture.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.error("Timeout waiting for response from {} after {}ms", serverName, timeoutMs);
+            throw new IOException("Timeout waiting for response from server " + serverName + " after " + timeoutMs + "ms", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) {
+                logger.error("Timeout waiting for response from {} after {}ms", serverName, timeoutMs);
+                throw new IOException("Timeout waiting for response from server " + serverName + " after " + timeoutMs + "ms", cause);
             }
-            
-            // 요청 본문
-            String requestJson = objectMapper.writeValueAsString(request);
-            HttpEntity<String> entity = new HttpEntity<>(requestJson, headers);
-            
-            logger.info("Sending SSE request to {}: {}", serverName, requestJson);
-            
-            // 요청 전송 (응답은 SSE 스트림으로 받음)
-            try {
-                ResponseEntity<String> response = restTemplate.postForEntity(requestUrl, entity, String.class);
-                logger.debug("Request sent successfully, status: {}", response.getStatusCode());
-            } catch (Exception e) {
-                logger.error("Error sending request to server {}", serverName, e);
-                sseClientManager.cancelAllPendingRequests(serverName);
-                throw new IOException("Error sending request to server " + serverName + ": " + e.getMessage(), e);
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
             }
-            
-            // SSE 스트림에서 응답 대기 (타임아웃 25초)
-            McpResponse response = responseFuture.get(25, TimeUnit.SECONDS);
-            logger.info("Received response from {} for request: {}", serverName, requestId);
-            return response;
-            
-        } catch (TimeoutException e) {
-            logger.error("Timeout waiting for response from {} after 25s", serverName);
-            throw new IOException("Timeout waiting for response from server " + serverName, e);
+            logger.error("Error waiting for response from server {}", serverName, cause);
+            throw new IOException("Error waiting for response from server " + serverName + ": " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for response from server " + serverName, e);
         } catch (Exception e) {
             logger.error("Error waiting for response from server {}", serverName, e);
-            if (e instanceof IOException) {
-                throw (IOException) e;
-            }
             throw new IOException("Error waiting for response from server " + serverName + ": " + e.getMessage(), e);
         }
     }
@@ -138,14 +291,18 @@ public class McpServerSseConnection implements McpServerConnectionInterface {
         sseClientManager.cancelAllPendingRequests(serverName);
         serverClientIds.remove(serverName);
         serverInfos.remove(serverName);
-        serverConnectionStatus.remove(serverName);
+        idAllocators.remove(serverName);
         logger.info("MCP server {} disconnected", serverName);
     }
     
     @Override
     public boolean isConnected(String serverName) {
-        return serverClientIds.containsKey(serverName) && 
-               serverConnectionStatus.getOrDefault(serverName, false);
+        return serverClientIds.containsKey(serverName) && sseClientManager.isStreamConnected(serverName);
+    }
+    
+    @Override
+    public int getInFlightCount(String serverName) {
+        return sseClientManager.getInFlightCount(serverName);
     }
     
     /**
@@ -4,253 +4,337 @@ import com.example.mcpclient.config.McpServerConfig;
 import com.example.mcpclient.model.McpRequest;
 import com.example.mcpclient.model.McpResponse;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PreDestroy;
 import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * MCP 서버와의 stdio 통신 관리
+ * 서버별 자식 프로세스 풀에 요청을 분배하고, 응답은 요청 ID로 매칭
+ * 자식 프로세스가 죽으면 풀이 처리 중인 요청을 즉시 실패시키고 재시작
  */
 @Service
 public class McpServerStdioConnection implements McpServerConnectionInterface {
     
     private static final Logger logger = LoggerFactory.getLogger(McpServerStdioConnection.class);
+    private static final long POOL_IDLE_TIMEOUT_MS = 5 * 60 * 1000; // 5분간 유휴 프로세스는 정리
     private final ObjectMapper objectMapper;
-    private final Map<String, Process> serverProcesses = new ConcurrentHashMap<>();
-    private final Map<String, BufferedReader> serverReaders = new ConcurrentHashMap<>();
-    private final Map<String, PrintWriter> serverWriters = new ConcurrentHashMap<>();
+    private final ApplicationEventPublisher eventPublisher;
+    // 서버별 자식 프로세스 풀
+    private final Map<String, McpStdioProcessPool> serverPools = new ConcurrentHashMap<>();
+    // 서버(연결)별 요청 ID 할당기
+    private final Map<String, McpRequestIdAllocator> idAllocators = new ConcurrentHashMap<>();
+    // 프로세스 재시작/예비 프로세스 준비용 스케줄러
+    private final ScheduledExecutorService supervisor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mcp-stdio-supervisor");
+        thread.setDaemon(true);
+        return thread;
+    });
 
-    public McpServerStdioConnection(ObjectMapper objectMapper) {
+    public McpServerStdioConnection(ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher) {
         this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        supervisor.shutdownNow();
     }
 
     /**
      * MCP 서버 프로세스 시작 및 연결
      */
     public void connectServer(String serverName, McpServerConfig.McpServerInfo serverInfo) throws IOException {
-        if (serverProcesses.containsKey(serverName)) {
+        if (serverPools.containsKey(serverName)) {
             logger.warn("Server {} is already connected", serverName);
             return;
         }
 
-        ProcessBuilder processBuilder = new ProcessBuilder();
-        processBuilder.command(serverInfo.getCommand());
-        if (serverInfo.getArgs() != null) {
-            for (String arg : serverInfo.getArgs()) {
-                processBuilder.command().add(arg);
-            }
-        }
-        
-        if (serverInfo.getCwd() != null) {
-            processBuilder.directory(new File(serverInfo.getCwd()));
+        McpStdioProcessPool pool = new McpStdioProcessPool(serverName, serverInfo, objectMapper, supervisor,
+            notification -> handleNotification(serverName, notification));
+        try {
+            pool.start();
+        } catch (IOException e) {
+            pool.close();
+            throw e;
         }
-        
-        if (serverInfo.getEnv() != null && !serverInfo.getEnv().isEmpty()) {
-            processBuilder.environment().putAll(serverInfo.getEnv());
+        idAllocators.put(serverName, new McpRequestIdAllocator());
+        serverPools.put(serverName, pool);
+
+        logger.info("MCP server {} connected", serverName);
+    }
+
+    /**
+     * MCP 서버에 요청 전송 (서버 설정의 기본 타임아웃 사용)
+     */
+    public McpResponse sendRequest(String serverName, McpRequest request) throws IOException {
+        return sendRequest(serverName, request, getRequestTimeoutMs(serverName));
+    }
+
+    /**
+     * MCP 서버에 요청 전송 (timeoutMs 안에 응답이 없으면 실패)
+     */
+    @Override
+    public McpResponse sendRequest(String serverName, McpRequest request, long timeoutMs) throws IOException {
+        assignRequestId(serverName, request);
+        McpStdioProcess stdioProcess = selectProcess(serverName);
+
+        logger.info("Waiting for response from {} for request: {}", serverName, request.getMethod());
+        long startTime = System.currentTimeMillis();
+        CompletableFuture<McpResponse> responseFuture = stdioProcess.send(request, timeoutMs);
+        McpResponse parsedResponse = awaitResponse(serverName, stdioProcess, request.getId(), responseFuture,
+                startTime + timeoutMs, timeoutMs);
+        logger.info("Found valid JSON response from {} after {}ms", serverName, System.currentTimeMillis() - startTime);
+        logResponse(serverName, parsedResponse);
+        return parsedResponse;
+    }
+
+    /**
+     * 비동기 요청 전송 (응답은 reader 스레드가 Future를 완료, deadline 경과 시 대기 테이블이 TimeoutException으로 완료)
+     */
+    @Override
+    public CompletableFuture<McpResponse> sendRequestAsync(String serverName, McpRequest request) {
+        return sendRequestAsync(serverName, request, getRequestTimeoutMs(serverName));
+    }
+
+    @Override
+    public CompletableFuture<McpResponse> sendRequestAsync(String serverName, McpRequest request, long timeoutMs) {
+        McpStdioProcess stdioProcess;
+        CompletableFuture<McpResponse> responseFuture;
+        try {
+            assignRequestId(serverName, request);
+            stdioProcess = selectProcess(serverName);
+            responseFuture = stdioProcess.send(request, timeoutMs);
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return responseFuture.whenComplete((response, error) -> {
+            if (error instanceof TimeoutException) {
+                logger.error("Timeout waiting for response from {} after {}ms", serverName, timeoutMs);
+            }
+        });
+    }
 
-        Process process = processBuilder.start();
-        serverProcesses.put(serverName, process);
+    /**
+     * 여러 요청을 하나의 JSON-RPC 배열 프레임으로 전송
+     * 응답은 요청 순서대로 반환
+     */
+    @Override
+    public List<McpResponse> sendBatch(String serverName, List<McpRequest> requests) throws IOException {
+        return sendBatch(serverName, requests, getRequestTimeoutMs(serverName));
+    }
 
-        // stdin/stdout 스트림 설정
-        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
-        PrintWriter writer = new PrintWriter(new OutputStreamWriter(process.getOutputStream(), "UTF-8"), true);
-        
-        serverReaders.put(serverName, reader);
-        serverWriters.put(serverName, writer);
+    @Override
+    public List<McpResponse> sendBatch(String serverName, List<McpRequest> requests, long timeoutMs) throws IOException {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        requests.forEach(request -> assignRequestId(serverName, request));
+        McpStdioProcess stdioProcess = selectProcess(serverName);
 
-        // 서버 초기화 메시지 읽기 및 무시 (일반 텍스트 메시지)
-        // MCP 서버는 초기화 시 일반 텍스트 메시지를 보낼 수 있음
+        logger.info("Waiting for {} batched responses from {}", requests.size(), serverName);
+        long startTime = System.currentTimeMillis();
+        long deadline = startTime + timeoutMs;
+        List<CompletableFuture<McpResponse>> responseFutures = stdioProcess.sendBatch(requests, timeoutMs);
+
+        List<McpResponse> responses = new ArrayList<>(requests.size());
         try {
-            // 초기화 메시지가 있으면 읽고 무시 (최대 5줄까지)
-            for (int i = 0; i < 5; i++) {
-                if (!reader.ready()) {
-                    // 데이터가 없으면 잠시 대기
-                    Thread.sleep(100);
-                    if (!reader.ready()) {
-                        break;
-                    }
-                }
-                String line = reader.readLine();
-                if (line == null) {
-                    break;
-                }
-                // JSON 형식인지 확인 (시작이 '{' 또는 '[')
-                if (line.trim().startsWith("{") || line.trim().startsWith("[")) {
-                    // JSON 형식이면 버퍼에 다시 넣을 수 없으므로 별도 처리 필요
-                    // 일단 로그만 남기고 넘어감
-                    logger.debug("Received JSON during initialization: {}", line);
-                    break;
-                } else {
-                    // 일반 텍스트 초기화 메시지
-                    logger.debug("Ignoring initialization message from {}: {}", serverName, line);
-                }
+            for (int i = 0; i < requests.size(); i++) {
+                McpResponse parsedResponse = awaitResponse(serverName, stdioProcess, requests.get(i).getId(),
+                        responseFutures.get(i), deadline, timeoutMs);
+                logResponse(serverName, parsedResponse);
+                responses.add(parsedResponse);
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.warn("Interrupted while reading initialization messages from {}", serverName);
+        } catch (IOException e) {
+            // 하나라도 실패하면 남은 요청도 더 이상 기다리지 않음
+            requests.forEach(request -> stdioProcess.abandon(request.getId()));
+            throw e;
         }
+        logger.info("Received {} batched responses from {} after {}ms", responses.size(), serverName,
+                System.currentTimeMillis() - startTime);
+        return responses;
+    }
 
-        logger.info("MCP server {} connected", serverName);
+    /**
+     * 연결별 요청 ID 할당 (접두어-연결 epoch-순번)
+     */
+    @Override
+    public String nextRequestId(String serverName, String prefix) {
+        McpRequestIdAllocator allocator = idAllocators.get(serverName);
+        if (allocator == null) {
+            throw new IllegalStateException("Server " + serverName + " is not connected");
+        }
+        return allocator.next(prefix);
     }
 
     /**
-     * JSON 형식인지 확인
+     * ID가 없는 요청에 연결별 ID 부여
      */
-    private boolean isJsonFormat(String line) {
-        if (line == null || line.trim().isEmpty()) {
-            return false;
+    private void assignRequestId(String serverName, McpRequest request) {
+        if (request.getId() == null) {
+            request.setId(nextRequestId(serverName, "req"));
         }
-        String trimmed = line.trim();
-        return trimmed.startsWith("{") || trimmed.startsWith("[");
     }
 
     /**
-     * MCP 서버에 요청 전송
+     * ID 없는 서버 알림 처리 (도구 목록 변경 알림은 이벤트로 발행)
      */
-    public McpResponse sendRequest(String serverName, McpRequest request) throws IOException {
-        if (!serverProcesses.containsKey(serverName)) {
-            throw new IllegalStateException("Server " + serverName + " is not connected");
+    private void handleNotification(String serverName, McpResponse notification) {
+        if (McpToolsChangedEvent.METHOD.equals(notification.getMethod())) {
+            eventPublisher.publishEvent(new McpToolsChangedEvent(serverName));
         }
+    }
 
-        PrintWriter writer = serverWriters.get(serverName);
-        BufferedReader reader = serverReaders.get(serverName);
+    /**
+     * 서버 설정의 요청 기본 타임아웃
+     */
+    private long getRequestTimeoutMs(String serverName) {
+        McpStdioProcessPool pool = serverPools.get(serverName);
+        return pool != null ? pool.getServerInfo().getRequestTimeoutMs() : McpServerConfig.McpServerInfo.DEFAULT_REQUEST_TIMEOUT_MS;
+    }
 
-        // JSON-RPC 요청 전송
-        String requestJson = objectMapper.writeValueAsString(request);
-        logger.debug("Sending to {}: {}", serverName, requestJson);
-        writer.println(requestJson);
-        writer.flush();
+    private McpStdioProcess selectProcess(String serverName) throws IOException {
+        McpStdioProcessPool pool = serverPools.get(serverName);
+        if (pool == null) {
+            throw new IllegalStateException("Server " + serverName + " is not connected");
+        }
+        return pool.select();
+    }
 
-        // 응답 읽기 (JSON 형식이 아닌 메시지는 건너뛰기)
-        String responseLine = null;
-        int maxAttempts = 10; // 최대 10줄까지 읽기 시도
-        int attempts = 0;
-        long startTime = System.currentTimeMillis();
-        long timeout = 25000; // 25초 타임아웃
-        
-        logger.info("Waiting for response from {} for request: {}", serverName, request.getMethod());
-        
-        while (attempts < maxAttempts) {
-            // 타임아웃 체크
-            if (System.currentTimeMillis() - startTime > timeout) {
-                logger.error("Timeout waiting for response from {} after {}ms", serverName, timeout);
-                throw new IOException("Timeout waiting for response from server " + serverName + " after " + timeout + "ms");
-            }
-            
-            // 데이터가 준비되었는지 확인 (논블로킹 체크)
-            if (!reader.ready()) {
-                try {
-                    Thread.sleep(100); // 100ms 대기 후 다시 시도
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw new IOException("Interrupted while waiting for response from " + serverName);
-                }
-                continue;
-            }
-            
-            String line = reader.readLine();
-            if (line == null) {
-                logger.warn("Received null line from {} (attempt {})", serverName, attempts + 1);
-                throw new IOException("No response from server " + serverName + " after " + attempts + " attempts");
+    /**
+     * 응답 Future를 deadline까지 대기
+     */
+    private McpResponse awaitResponse(
+            String serverName,
+            McpStdioProcess stdioProcess,
+            String requestId,
+            CompletableFuture<McpResponse> responseFuture,
+            long deadline,
+            long timeoutMs) throws IOException {
+        try {
+            long remaining = Math.max(0, deadline - System.currentTimeMillis());
+            return responseFuture.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            stdioProcess.abandon(requestId);
+            logger.error("Timeout waiting for response from {} after {}ms", serverName, timeoutMs);
+            throw new IOException("Timeout waiting for response from server " + serverName + " after " + timeoutMs + "ms");
+        } catch (InterruptedException e) {
+            stdioProcess.abandon(requestId);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for response from " + serverName);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) {
+                logger.error("Timeout waiting for response from {} after {}ms", serverName, timeoutMs);
+                throw new IOException("Timeout waiting for response from server " + serverName + " after " + timeoutMs + "ms", cause);
             }
-            
-            logger.info("Received from {} (attempt {}): {}", serverName, attempts + 1, line);
-            
-            // JSON 형식인지 확인
-            if (isJsonFormat(line)) {
-                responseLine = line;
-                logger.info("Found valid JSON response from {} after {}ms", serverName, System.currentTimeMillis() - startTime);
-                break;
-            } else {
-                // JSON 형식이 아닌 메시지는 로그만 남기고 건너뛰기
-                logger.debug("Skipping non-JSON message from {}: {}", serverName, line);
-                attempts++;
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
             }
+            throw new IOException("Error waiting for response from server " + serverName + ": " + cause.getMessage(), cause);
         }
-        
-        if (responseLine == null) {
-            logger.error("No valid JSON response from {} after {} attempts and {}ms", serverName, maxAttempts, System.currentTimeMillis() - startTime);
-            throw new IOException("No valid JSON response from server " + serverName + " after " + maxAttempts + " attempts");
-        }
+    }
 
-        // MCP 서버 원본 응답 로그 출력
-        logger.info("=== MCP Server Raw Response from {} ===", serverName);
-        logger.info("Raw response line: {}", responseLine);
-        
-        // MCP 서버가 배열을 반환할 수 있으므로 처리
-        McpResponse parsedResponse;
-        try {
-            // 먼저 JsonNode로 파싱하여 배열인지 확인
-            JsonNode jsonNode = objectMapper.readTree(responseLine);
-            
-            if (jsonNode.isArray()) {
-                // 배열인 경우 첫 번째 요소를 사용
-                logger.info("Response is an array (size: {}), using first element", jsonNode.size());
-                if (jsonNode.size() == 0) {
-                    throw new IOException("Empty array response from server " + serverName);
-                }
-                parsedResponse = objectMapper.treeToValue(jsonNode.get(0), McpResponse.class);
-            } else {
-                // 단일 객체인 경우 그대로 파싱
-                logger.debug("Response is a single object");
-                parsedResponse = objectMapper.treeToValue(jsonNode, McpResponse.class);
-            }
-            
-            // 파싱된 응답 로그 출력
-            logger.info("=== MCP Server Parsed Response from {} ===", serverName);
-            logger.info("Parsed response - ID: {}, JSON-RPC: {}", parsedResponse.getId(), parsedResponse.getJsonrpc());
-            if (parsedResponse.getError() != null) {
-                logger.info("Parsed response - Error: code={}, message={}", 
-                    parsedResponse.getError().getCode(), parsedResponse.getError().getMessage());
-            } else {
-                logger.info("Parsed response - Result: {}", objectMapper.writeValueAsString(parsedResponse.getResult()));
+    /**
+     * 파싱된 응답 로그 출력
+     */
+    private void logResponse(String serverName, McpResponse parsedResponse) {
+        logger.info("=== MCP Server Parsed Response from {} ===", serverName);
+        logger.info("Parsed response - ID: {}, JSON-RPC: {}", parsedResponse.getId(), parsedResponse.getJsonrpc());
+        if (parsedResponse.getError() != null) {
+            logger.info("Parsed response - Error: code={}, message={}", 
+                parsedResponse.getError().getCode(), parsedResponse.getError().getMessage());
+        } else if (logger.isDebugEnabled()) {
+            // 큰 결과를 매번 문자열로 직렬화하지 않도록 debug 레벨에서만 출력
+            try {
+                logger.debug("Parsed response - Result: {}", objectMapper.writeValueAsString(parsedResponse.getResult()));
+            } catch (JsonProcessingException e) {
+                logger.warn("Failed to serialize result from {}: {}", serverName, e.getMessage());
             }
-            logger.info("=== End of MCP Server Response ===");
-            
-            return parsedResponse;
-        } catch (JsonProcessingException e) {
-            logger.error("Failed to parse JSON response from {}: {}", serverName, responseLine, e);
-            throw new IOException("Failed to parse JSON response from server " + serverName + ": " + e.getMessage(), e);
         }
+        logger.info("=== End of MCP Server Response ===");
     }
 
     /**
      * 서버 연결 종료
      */
     public void disconnectServer(String serverName) {
-        Process process = serverProcesses.remove(serverName);
-        if (process != null) {
-            process.destroy();
+        McpStdioProcessPool pool = serverPools.remove(serverName);
+        idAllocators.remove(serverName);
+        if (pool != null) {
+            pool.close();
             logger.info("MCP server {} disconnected", serverName);
         }
-        
-        BufferedReader reader = serverReaders.remove(serverName);
-        if (reader != null) {
-            try {
-                reader.close();
-            } catch (IOException e) {
-                logger.error("Error closing reader for {}", serverName, e);
-            }
-        }
-        
-        PrintWriter writer = serverWriters.remove(serverName);
-        if (writer != null) {
-            writer.close();
-        }
     }
 
     /**
      * 서버가 연결되어 있는지 확인
      */
     public boolean isConnected(String serverName) {
-        Process process = serverProcesses.get(serverName);
-        return process != null && process.isAlive();
+        McpStdioProcessPool pool = serverPools.get(serverName);
+        return pool != null && pool.isAlive();
+    }
+
+    @Override
+    public int getInFlightCount(String serverName) {
+        McpStdioProcessPool pool = serverPools.get(serverName);
+        return pool != null ? pool.getOutstandingCount() : 0;
+    }
+
+    /**
+     * 서버 진단 정보 조회 (stderr 최근 줄, 풀 상태)
+     * stdio 서버가 아니거나 연결되지 않았으면 null
+     */
+    public Map<String, Object> getDiagnostics(String serverName, int lines) {
+        McpStdioProcessPool pool = serverPools.get(serverName);
+        if (pool == null) {
+            return null;
+        }
+        McpStderrRingBuffer stderrBuffer = pool.getStderrBuffer();
+        Map<String, Object> diagnostics = new HashMap<>();
+        diagnostics.put("serverName", serverName);
+        diagnostics.put("alive", pool.isAlive());
+        diagnostics.put("processCount", pool.size());
+        diagnostics.put("standbyReady", pool.hasStandby());
+        diagnostics.put("outstandingRequests", pool.getOutstandingCount());
+        diagnostics.put("pendingRequests", pool.getPendingStats());
+        diagnostics.put("stderrTotalLines", stderrBuffer.getTotalLines());
+        diagnostics.put("stderrCapacity", stderrBuffer.getCapacity());
+        diagnostics.put("stderr", stderrBuffer.getLastLines(lines));
+        return diagnostics;
+    }
+
+    /**
+     * 서버별 응답 대기 테이블 gauge 조회 (프로세스별 처리 중 요청 수, 가장 오래된 요청 대기 시간)
+     */
+    public Map<String, Object> getPendingStats() {
+        Map<String, Object> stats = new HashMap<>();
+        serverPools.forEach((serverName, pool) -> stats.put(serverName, pool.getPendingStats()));
+        return stats;
+    }
+
+    /**
+     * 유휴 프로세스 정리 (1분마다 실행)
+     */
+    @Scheduled(fixedDelay = 60 * 1000)
+    public void shrinkIdlePools() {
+        serverPools.values().forEach(pool -> pool.shrinkIdle(POOL_IDLE_TIMEOUT_MS));
     }
 }
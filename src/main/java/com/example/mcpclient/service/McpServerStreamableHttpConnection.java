@@ -0,0 +1,549 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.config.McpServerConfig;
+import com.example.mcpclient.model.McpRequest;
+import com.example.mcpclient.model.McpResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MCP 서버와의 Streamable HTTP 통신 관리
+ * 요청마다 하나의 POST를 보내고, 응답은 JSON 본문 또는 짧은 SSE 스트림으로 같은 연결에서 받음
+ * (별도 이벤트 스트림과 clientId 기반 응답 매칭이 필요 없음)
+ * initialize 시 받은 Mcp-Session-Id를 이후 모든 요청에 전달
+ * 세션이 만료되면(404) 새 세션으로 다시 초기화한 뒤 요청을 한 번 재시도
+ */
+@Service
+public class McpServerStreamableHttpConnection implements McpServerConnectionInterface {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpServerStreamableHttpConnection.class);
+    private static final String PROTOCOL_VERSION = "2025-03-26";
+    private static final String SESSION_ID_HEADER = "Mcp-Session-Id";
+    private static final String PROTOCOL_VERSION_HEADER = "MCP-Protocol-Version";
+    private static final Duration SESSION_RECOVERY_BACKOFF_MIN = Duration.ofSeconds(1);
+    private static final Duration SESSION_RECOVERY_BACKOFF_MAX = Duration.ofSeconds(30);
+
+    private final McpSseClientManager sseClientManager;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 서버별 서버 정보 저장
+    private final Map<String, McpServerConfig.McpServerInfo> serverInfos = new ConcurrentHashMap<>();
+    // 서버별 세션 ID 저장 (서버가 세션을 쓰지 않으면 없음)
+    private final Map<String, String> sessionIds = new ConcurrentHashMap<>();
+    // 서버별 협상된 프로토콜 버전
+    private final Map<String, String> protocolVersions = new ConcurrentHashMap<>();
+    // 서버(연결)별 요청 ID 할당기
+    private final Map<String, McpRequestIdAllocator> idAllocators = new ConcurrentHashMap<>();
+    // 서버별 응답을 기다리는 중인 POST 수
+    private final Map<String, AtomicInteger> inFlightCounts = new ConcurrentHashMap<>();
+    // 서버별 진행 중인 세션 재초기화 (같은 세션의 만료를 동시에 감지한 요청들이 공유)
+    private final Map<String, CompletableFuture<Void>> sessionRecoveries = new ConcurrentHashMap<>();
+    // 세션 재초기화에 실패해 백그라운드에서 다시 시도 중인 서버 (성공할 때까지 연결 끊김으로 취급)
+    private final Map<String, Disposable> lostSessions = new ConcurrentHashMap<>();
+
+    /**
+     * 서버가 요청의 세션 ID를 모른다고 응답(404)한 경우
+     */
+    private static final class SessionExpiredException extends IOException {
+        private final String sessionId;
+
+        SessionExpiredException(String serverName, String sessionId) {
+            super("Session " + sessionId + " expired on server " + serverName);
+            this.sessionId = sessionId;
+        }
+    }
+
+    public McpServerStreamableHttpConnection(
+            McpSseClientManager sseClientManager,
+            ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher) {
+        this.sseClientManager = sseClientManager;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * 서버 연결 (initialize 핸드셰이크 후 세션 ID 저장)
+     */
+    @Override
+    public void connectServer(String serverName, McpServerConfig.McpServerInfo serverInfo) throws IOException {
+        if (serverInfos.containsKey(serverName)) {
+            logger.warn("Server {} is already connected", serverName);
+            return;
+        }
+
+        String url = serverInfo.getUrl();
+        if (url == null || url.trim().isEmpty()) {
+            throw new IllegalArgumentException("Streamable HTTP connection requires 'url' in server configuration for server: " + serverName);
+        }
+        serverInfos.put(serverName, serverInfo);
+        idAllocators.put(serverName, new McpRequestIdAllocator());
+
+        try {
+            long timeoutMs = serverInfo.getRequestTimeoutMs();
+            awaitResponse(serverName, initialize(serverName, timeoutMs).toFuture(), timeoutMs);
+        } catch (IOException | RuntimeException e) {
+            serverInfos.remove(serverName);
+            idAllocators.remove(serverName);
+            sessionIds.remove(serverName);
+            protocolVersions.remove(serverName);
+            throw e;
+        }
+
+        logger.info("MCP server {} connected via streamable HTTP (session: {})", serverName, sessionIds.get(serverName));
+    }
+
+    @Override
+    public McpResponse sendRequest(String serverName, McpRequest request) throws IOException {
+        return sendRequest(serverName, request, getRequestTimeoutMs(serverName));
+    }
+
+    @Override
+    public McpResponse sendRequest(String serverName, McpRequest request, long timeoutMs) throws IOException {
+        McpResponse response = awaitResponse(serverName, sendRequestAsync(serverName, request, timeoutMs), timeoutMs);
+        logger.info("Received response from {} for request: {}", serverName, request.getId());
+        return response;
+    }
+
+    /**
+     * 비동기 요청 전송 (POST 응답 본문/스트림에서 바로 결과를 받음)
+     */
+    @Override
+    public CompletableFuture<McpResponse> sendRequestAsync(String serverName, McpRequest request) {
+        return sendRequestAsync(serverName, request, getRequestTimeoutMs(serverName));
+    }
+
+    @Override
+    public CompletableFuture<McpResponse> sendRequestAsync(String serverName, McpRequest request, long timeoutMs) {
+        try {
+            assignRequestId(serverName, request);
+        } catch (IllegalStateException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return exchange(serverName, request, Set.of(request.getId()), timeoutMs)
+                .flatMap(responses -> responses.isEmpty()
+                        ? Mono.error(new IOException("No response for request " + request.getId() + " from server " + serverName))
+                        : Mono.just(responses.get(0)))
+                .toFuture();
+    }
+
+    /**
+     * 여러 요청을 하나의 JSON-RPC 배열로 POST
+     * 응답은 요청 순서대로 반환
+     */
+    @Override
+    public List<McpResponse> sendBatch(String serverName, List<McpRequest> requests) throws IOException {
+        return sendBatch(serverName, requests, getRequestTimeoutMs(serverName));
+    }
+
+    @Override
+    public List<McpResponse> sendBatch(String serverName, List<McpRequest> requests, long timeoutMs) throws IOException {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        Set<String> expectedIds = new HashSet<>();
+        for (McpRequest request : requests) {
+            assignRequestId(serverName, request);
+            expectedIds.add(request.getId());
+        }
+
+        List<McpResponse> received = awaitResponse(serverName,
+                exchange(serverName, requests, expectedIds, timeoutMs).toFuture(), timeoutMs);
+        Map<String, McpResponse> responsesById = new HashMap<>();
+        received.forEach(response -> responsesById.put(response.getId(), response));
+
+        List<McpResponse> responses = new ArrayList<>(requests.size());
+        for (McpRequest request : requests) {
+            McpResponse response = responsesById.get(request.getId());
+            if (response == null) {
+                throw new IOException("No response for request " + request.getId() + " from server " + serverName);
+            }
+            responses.add(response);
+        }
+        logger.info("Received {} batched responses from {}", responses.size(), serverName);
+        return responses;
+    }
+
+    /**
+     * initialize 요청과 notifications/initialized 알림으로 세션 시작
+     * 이전 세션 정보는 지우고 세션 없이 시작 (새 세션 ID는 readResponse가 응답 헤더에서 저장)
+     */
+    private Mono<Void> initialize(String serverName, long timeoutMs) {
+        return Mono.defer(() -> {
+            sessionIds.remove(serverName);
+            protocolVersions.remove(serverName);
+
+            Map<String, Object> clientInfo = new HashMap<>();
+            clientInfo.put("name", "mcpclient");
+            clientInfo.put("version", "1.0");
+            Map<String, Object> params = new HashMap<>();
+            params.put("protocolVersion", PROTOCOL_VERSION);
+            params.put("capabilities", new HashMap<>());
+            params.put("clientInfo", clientInfo);
+            McpRequest request = new McpRequest("initialize", params, nextRequestId(serverName, "initialize"));
+
+            return send(serverName, request, Set.of(request.getId()));
+        })
+                .flatMap(responses -> {
+                    McpResponse response = responses.isEmpty() ? null : responses.get(0);
+                    if (response == null) {
+                        return Mono.error(new IOException("No response for initialize from server " + serverName));
+                    }
+                    if (response.getError() != null) {
+                        return Mono.error(new IOException("Initialize failed for server " + serverName + ": " + response.getError().getMessage()));
+                    }
+                    if (response.getResult() instanceof Map<?, ?> result && result.get("protocolVersion") != null) {
+                        protocolVersions.put(serverName, result.get("protocolVersion").toString());
+                    }
+                    // 초기화 완료 알림 (응답 없음)
+                    return send(serverName, new McpRequest("notifications/initialized", null, null), Set.of());
+                })
+                .then()
+                .timeout(Duration.ofMillis(timeoutMs))
+                .onErrorMap(e -> toIOException(serverName, e));
+    }
+
+    /**
+     * 요청 본문(단일 요청 또는 배열) POST 후 응답 수집 (timeoutMs 안에 끝나지 않으면 TimeoutException)
+     * 세션이 만료되었으면 새 세션으로 초기화한 뒤 한 번만 재시도
+     */
+    private Mono<List<McpResponse>> exchange(String serverName, Object body, Set<String> expectedIds, long timeoutMs) {
+        if (lostSessions.containsKey(serverName)) {
+            // 재초기화 중에는 세션 없는 요청을 보내지 않고 바로 실패
+            return Mono.error(new IOException("Session with server " + serverName + " was lost (re-initializing)"));
+        }
+        // 다른 요청이 세션을 재초기화하는 중이면 새 세션을 받은 뒤 전송
+        CompletableFuture<Void> recovery = sessionRecoveries.get(serverName);
+        Mono<List<McpResponse>> request = recovery != null
+                ? Mono.fromFuture(recovery, true).then(Mono.defer(() -> send(serverName, body, expectedIds)))
+                : send(serverName, body, expectedIds);
+        return request
+                .onErrorResume(SessionExpiredException.class, e -> recoverSession(serverName, e.sessionId, timeoutMs)
+                        .then(Mono.defer(() -> send(serverName, body, expectedIds))))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .onErrorMap(e -> toIOException(serverName, e));
+    }
+
+    /**
+     * 요청 본문 POST 한 번 (현재 세션 ID 사용)
+     * application/json이면 본문을, text/event-stream이면 기다리는 ID가 모두 도착할 때까지 스트림을 읽음
+     * 202 Accepted(알림 전송 등)는 빈 목록
+     */
+    private Mono<List<McpResponse>> send(String serverName, Object body, Set<String> expectedIds) {
+        McpServerConfig.McpServerInfo serverInfo = serverInfos.get(serverName);
+        if (serverInfo == null) {
+            return Mono.error(new IllegalStateException("Server " + serverName + " is not connected"));
+        }
+        String sessionId = sessionIds.get(serverName);
+        AtomicInteger inFlight = inFlightCounts.computeIfAbsent(serverName, name -> new AtomicInteger());
+
+        return sseClientManager.getWebClient().post()
+                .uri(serverInfo.getUrl())
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON, MediaType.TEXT_EVENT_STREAM)
+                .headers(headers -> {
+                    if (serverInfo.getHeaders() != null) {
+                        serverInfo.getHeaders().forEach(headers::set);
+                    }
+                    if (sessionId != null) {
+                        headers.set(SESSION_ID_HEADER, sessionId);
+                    }
+                    String protocolVersion = protocolVersions.get(serverName);
+                    if (protocolVersion != null) {
+                        headers.set(PROTOCOL_VERSION_HEADER, protocolVersion);
+                    }
+                })
+                .bodyValue(body)
+                .exchangeToMono(response -> readResponse(serverName, sessionId, response, expectedIds))
+                .doOnSubscribe(subscription -> inFlight.incrementAndGet())
+                .doFinally(signal -> inFlight.decrementAndGet());
+    }
+
+    /**
+     * 만료된 세션 복구: 새 세션으로 다시 초기화
+     * 같은 세션의 만료를 동시에 감지한 요청들은 한 번의 재초기화를 함께 기다림
+     * 재초기화가 실패하면 연결이 끊긴 것으로 보고 백그라운드에서 계속 재시도
+     */
+    private Mono<Void> recoverSession(String serverName, String expiredSessionId, long timeoutMs) {
+        CompletableFuture<Void> recovery = new CompletableFuture<>();
+        CompletableFuture<Void> inProgress = sessionRecoveries.putIfAbsent(serverName, recovery);
+        if (inProgress != null) {
+            // 기다리던 요청이 타임아웃되어도 공유 재초기화는 취소하지 않음
+            return Mono.fromFuture(inProgress, true);
+        }
+        String currentSessionId = sessionIds.get(serverName);
+        if (currentSessionId != null && !currentSessionId.equals(expiredSessionId)) {
+            // 다른 요청이 이미 새 세션을 받음
+            sessionRecoveries.remove(serverName, recovery);
+            return Mono.empty();
+        }
+
+        logger.warn("Session {} expired on server {}, re-initializing", expiredSessionId, serverName);
+        initialize(serverName, timeoutMs).subscribe(
+                ignored -> { },
+                error -> {
+                    logger.error("Failed to re-initialize session with server {}: {}", serverName, error.getMessage());
+                    scheduleSessionRecovery(serverName);
+                    sessionRecoveries.remove(serverName, recovery);
+                    recovery.completeExceptionally(error);
+                },
+                () -> {
+                    logger.info("Session with server {} re-initialized (session: {})", serverName, sessionIds.get(serverName));
+                    sessionRecoveries.remove(serverName, recovery);
+                    recovery.complete(null);
+                });
+        return Mono.fromFuture(recovery, true);
+    }
+
+    /**
+     * 세션 재초기화를 백그라운드에서 지수 백오프로 반복 (연결 해제 시 중단)
+     */
+    private void scheduleSessionRecovery(String serverName) {
+        McpServerConfig.McpServerInfo serverInfo = serverInfos.get(serverName);
+        if (serverInfo == null) {
+            return;
+        }
+        Disposable retry = initialize(serverName, serverInfo.getRequestTimeoutMs())
+                .delaySubscription(SESSION_RECOVERY_BACKOFF_MIN)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, SESSION_RECOVERY_BACKOFF_MIN)
+                        .maxBackoff(SESSION_RECOVERY_BACKOFF_MAX)
+                        .filter(error -> serverInfos.get(serverName) == serverInfo))
+                .subscribe(
+                        ignored -> { },
+                        error -> lostSessions.remove(serverName),
+                        () -> {
+                            lostSessions.remove(serverName);
+                            logger.info("Session with server {} re-established (session: {})", serverName, sessionIds.get(serverName));
+                        });
+        Disposable previous = lostSessions.put(serverName, retry);
+        if (previous != null) {
+            previous.dispose();
+        }
+    }
+
+    /**
+     * IOException/TimeoutException/IllegalStateException이 아닌 에러는 IOException으로 감쌈
+     */
+    private Throwable toIOException(String serverName, Throwable e) {
+        if (e instanceof IOException || e instanceof TimeoutException || e instanceof IllegalStateException) {
+            return e;
+        }
+        return new IOException("Error sending request to server " + serverName + ": " + e.getMessage(), e);
+    }
+
+    private Mono<List<McpResponse>> readResponse(
+            String serverName,
+            String sessionId,
+            ClientResponse response,
+            Set<String> expectedIds) {
+        response.headers().header(SESSION_ID_HEADER).stream().findFirst()
+                .ifPresent(newSessionId -> sessionIds.put(serverName, newSessionId));
+
+        if (response.statusCode().value() == HttpStatus.NOT_FOUND.value() && sessionId != null) {
+            // 서버가 세션을 만료시킨 경우: exchange가 새 세션으로 초기화 후 재시도
+            return response.releaseBody().then(Mono.error(new SessionExpiredException(serverName, sessionId)));
+        }
+        if (!response.statusCode().is2xxSuccessful()) {
+            return response.createException().flatMap(Mono::error);
+        }
+        if (response.statusCode().value() == HttpStatus.ACCEPTED.value()) {
+            return response.releaseBody().thenReturn(List.of());
+        }
+
+        MediaType contentType = response.headers().contentType().orElse(MediaType.APPLICATION_JSON);
+        if (MediaType.TEXT_EVENT_STREAM.isCompatibleWith(contentType)) {
+            Set<String> remaining = ConcurrentHashMap.newKeySet();
+            remaining.addAll(expectedIds);
+            // 버퍼 하나를 디코딩하는 동안 완성된 메시지 (concatMapIterable은 순차 실행)
+            List<McpResponse> decoded = new ArrayList<>();
+            McpSseEventDecoder decoder = new McpSseEventDecoder(
+                    event -> readEventMessages(serverName, event, decoded), retryMs -> { });
+            return response.bodyToFlux(DataBuffer.class)
+                    .concatMapIterable(buffer -> {
+                        decoder.decode(buffer);
+                        List<McpResponse> messages = new ArrayList<>(decoded);
+                        decoded.clear();
+                        return messages;
+                    })
+                    // 기다리는 응답이 모두 오면 스트림을 더 읽지 않음
+                    .takeUntil(message -> remaining.remove(message.getId()) && remaining.isEmpty())
+                    .collectList();
+        }
+        // JSON 본문은 코덱이 버퍼에서 바로 파싱
+        return response.bodyToMono(JsonNode.class)
+                .map(jsonNode -> parseMessages(serverName, jsonNode))
+                .defaultIfEmpty(List.of());
+    }
+
+    /**
+     * SSE 이벤트 data의 JSON-RPC 메시지를 바이트에서 바로 파싱, ID 없는 알림은 handleNotification으로 처리
+     */
+    private void readEventMessages(String serverName, McpSseEvent event, List<McpResponse> messages) {
+        if (!event.isJson()) {
+            return;
+        }
+        try {
+            event.readMessages(objectMapper, message -> {
+                if (message.getId() != null) {
+                    messages.add(message);
+                } else {
+                    handleNotification(serverName, message.getMethod());
+                }
+            });
+        } catch (IOException e) {
+            logger.error("Error parsing SSE event from server {}: {}", serverName, event.getDataAsString(), e);
+        }
+    }
+
+    /**
+     * ID 없는 서버 알림 처리 (도구 목록 변경 알림은 이벤트로 발행)
+     */
+    private void handleNotification(String serverName, String method) {
+        logger.debug("Received notification from {}: {}", serverName, method);
+        if (McpToolsChangedEvent.METHOD.equals(method)) {
+            eventPublisher.publishEvent(new McpToolsChangedEvent(serverName));
+        }
+    }
+
+    /**
+     * JSON-RPC 메시지(단일 또는 배열) 파싱, ID 없는 알림은 handleNotification으로 처리
+     */
+    private List<McpResponse> parseMessages(String serverName, JsonNode jsonNode) {
+        List<McpResponse> messages = new ArrayList<>();
+        try {
+            Iterable<JsonNode> elements = jsonNode.isArray() ? jsonNode : List.of(jsonNode);
+            for (JsonNode element : elements) {
+                if (!element.hasNonNull("id")) {
+                    handleNotification(serverName, element.path("method").asText());
+                    continue;
+                }
+                messages.add(objectMapper.treeToValue(element, McpResponse.class));
+            }
+        } catch (IOException e) {
+            logger.error("Error parsing response from server {}: {}", serverName, jsonNode, e);
+        }
+        return messages;
+    }
+
+    /**
+     * 응답 Future 대기 (deadline은 exchange의 timeout이 보장)
+     */
+    private <T> T awaitResponse(String serverName, CompletableFuture<T> responseFuture, long timeoutMs) throws IOException {
+        try {
+            return responseFuture.get();
+        } catch (InterruptedException e) {
+            responseFuture.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for response from " + serverName);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) {
+                logger.error("Timeout waiting for response from {} after {}ms", serverName, timeoutMs);
+                throw new IOException("Timeout waiting for response from server " + serverName + " after " + timeoutMs + "ms", cause);
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            logger.error("Error waiting for response from server {}", serverName, cause);
+            throw new IOException("Error waiting for response from server " + serverName + ": " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * 연결별 요청 ID 할당 (접두어-연결 epoch-순번)
+     */
+    @Override
+    public String nextRequestId(String serverName, String prefix) {
+        McpRequestIdAllocator allocator = idAllocators.get(serverName);
+        if (allocator == null) {
+            throw new IllegalStateException("Server " + serverName + " is not connected");
+        }
+        return allocator.next(prefix);
+    }
+
+    /**
+     * ID가 없는 요청에 연결별 ID 부여
+     */
+    private void assignRequestId(String serverName, McpRequest request) {
+        if (request.getId() == null) {
+            request.setId(nextRequestId(serverName, "req"));
+        }
+    }
+
+    /**
+     * 서버 설정의 요청 기본 타임아웃
+     */
+    private long getRequestTimeoutMs(String serverName) {
+        McpServerConfig.McpServerInfo serverInfo = serverInfos.get(serverName);
+        return serverInfo != null ? serverInfo.getRequestTimeoutMs() : McpServerConfig.McpServerInfo.DEFAULT_REQUEST_TIMEOUT_MS;
+    }
+
+    /**
+     * 연결 해제 (세션이 있으면 DELETE로 서버에 종료 알림)
+     */
+    @Override
+    public void disconnectServer(String serverName) {
+        McpServerConfig.McpServerInfo serverInfo = serverInfos.remove(serverName);
+        inFlightCounts.remove(serverName);
+        idAllocators.remove(serverName);
+        String sessionId = sessionIds.remove(serverName);
+        protocolVersions.remove(serverName);
+        sessionRecoveries.remove(serverName);
+        Disposable recovery = lostSessions.remove(serverName);
+        if (recovery != null) {
+            recovery.dispose();
+        }
+        if (serverInfo != null && sessionId != null) {
+            sseClientManager.getWebClient().delete()
+                    .uri(serverInfo.getUrl())
+                    .header(SESSION_ID_HEADER, sessionId)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(Duration.ofSeconds(5))
+                    .subscribe(
+                            ignored -> logger.debug("Terminated session {} on server {}", sessionId, serverName),
+                            error -> logger.debug("Failed to terminate session on server {}: {}", serverName, error.getMessage()));
+        }
+        logger.info("MCP server {} disconnected", serverName);
+    }
+
+    /**
+     * 연결 여부 (세션을 잃고 재초기화 중이면 false)
+     */
+    @Override
+    public boolean isConnected(String serverName) {
+        return serverInfos.containsKey(serverName) && !lostSessions.containsKey(serverName);
+    }
+
+    @Override
+    public int getInFlightCount(String serverName) {
+        AtomicInteger count = inFlightCounts.get(serverName);
+        return count != null ? count.get() : 0;
+    }
+}
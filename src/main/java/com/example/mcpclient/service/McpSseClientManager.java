@@ -1,141 +1,358 @@
 package com.example.mcpclient.service;
 
 import com.example.mcpclient.model.McpResponse;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import io.netty.channel.ChannelOption;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * SSE 클라이언트 연결 관리
  * 각 서버별로 SSE 스트림을 읽고 응답을 처리
+ * 스트림이 끊기면 jitter가 있는 지수 백오프로 재연결하고 Last-Event-ID로 이어받음
+ * 재연결이 실패하거나 재연결 후 유예 시간 안에 응답이 재전송되지 않으면 대기 중인 요청을 실패 처리
  */
 @Component
 public class McpSseClientManager {
     
     private static final Logger logger = LoggerFactory.getLogger(McpSseClientManager.class);
+    private static final Duration RECONNECT_BACKOFF_MIN = Duration.ofMillis(500);
+    private static final Duration RECONNECT_BACKOFF_MAX = Duration.ofSeconds(30);
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
     private final WebClient webClient;
     
     // 서버별 SSE 스트림 구독 관리
-    private final Map<String, Flux<String>> sseStreams = new ConcurrentHashMap<>();
-    // 요청 ID별 응답 Future 저장
-    private final Map<String, CompletableFuture<McpResponse>> pendingRequests = new ConcurrentHashMap<>();
+    private final Map<String, SseStream> sseStreams = new ConcurrentHashMap<>();
+    // 서버(연결)별 응답 대기 요청 테이블
+    private final Map<String, McpPendingRequestTable> pendingTables = new ConcurrentHashMap<>();
     
-    public McpSseClientManager(ObjectMapper objectMapper) {
+    /**
+     * 서버별 SSE 스트림 상태
+     */
+    private static final class SseStream {
+        private final CompletableFuture<Void> firstConnect = new CompletableFuture<>();
+        private volatile Disposable subscription;
+        private volatile boolean connected = false;
+        // 이벤트 스트림 디코더 (마지막 이벤트 ID를 재연결 시 Last-Event-ID 헤더로 전송)
+        private volatile McpSseEventDecoder decoder;
+        // 서버가 retry 필드로 지정한 최소 재연결 대기 시간
+        private volatile long serverRetryMs = 0;
+        // 재연결 후 응답 재전송을 기다리는 시간
+        private final long replayGraceMs;
+        // 연속 재연결 시도 횟수 (연결 성립 시 초기화)
+        private final AtomicInteger reconnectAttempts = new AtomicInteger(0);
+        
+        private SseStream(long replayGraceMs) {
+            this.replayGraceMs = replayGraceMs;
+        }
+    }
+    
+    public McpSseClientManager(ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher) {
         this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        // 커넥션 풀: keep-alive 연결 재사용, 획득 대기/유휴 시간 제한
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("mcp-sse")
+                .maxConnections(500)
+                .pendingAcquireMaxCount(1000)
+                .pendingAcquireTimeout(Duration.ofSeconds(10))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .evictInBackground(Duration.ofSeconds(60))
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000)
+                .keepAlive(true);
         this.webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024)) // 10MB
                 .build();
     }
     
+    /**
+     * SSE 스트림과 요청 POST가 함께 쓰는 WebClient (커넥션 풀 공유)
+     */
+    public WebClient getWebClient() {
+        return webClient;
+    }
+    
     /**
      * SSE 연결 시작 및 스트림 구독
+     * 반환된 Future는 첫 연결이 성립되면 완료, 첫 연결 시도가 실패하면 그 에러로 완료 (이후 재연결은 백그라운드에서 계속)
+     * 재연결 후 replayGraceMs 안에 응답이 재전송되지 않은 요청은 실패 처리
      */
-    public void startSseConnection(String serverName, String baseUrl, String clientId) {
+    public CompletableFuture<Void> startSseConnection(String serverName, String baseUrl, String clientId,
+                                                      long heartbeatTimeoutMs, long replayGraceMs) {
         String sseUrl = baseUrl + "/mcp/events?clientId=" + clientId;
         
         logger.info("Starting SSE connection for server {}: {}", serverName, sseUrl);
+        McpPendingRequestTable previous = pendingTables.put(serverName, new McpPendingRequestTable(serverName, clientId));
+        if (previous != null) {
+            previous.failAll(new IOException("SSE connection to server " + serverName + " was replaced"));
+        }
+        SseStream stream = new SseStream(replayGraceMs);
+        SseStream previousStream = sseStreams.put(serverName, stream);
+        if (previousStream != null && previousStream.subscription != null) {
+            previousStream.subscription.dispose();
+        }
         
-        Flux<String> sseStream = webClient.get()
-                .uri(sseUrl)
-                .accept(MediaType.TEXT_EVENT_STREAM)
-                .retrieve()
-                .bodyToFlux(String.class)
-                .timeout(Duration.ofMinutes(30)) // 30분 타임아웃
-                .doOnError(error -> {
-                    logger.error("SSE stream error for server {}: {}", serverName, error.getMessage());
-                    // 재연결 로직 추가 가능
-                })
-                .doOnComplete(() -> {
-                    logger.info("SSE stream completed for server {}", serverName);
-                    sseStreams.remove(serverName);
-                });
+        McpSseEventDecoder decoder = new McpSseEventDecoder(
+                event -> handleSseEvent(serverName, event),
+                retryMs -> stream.serverRetryMs = retryMs);
+        stream.decoder = decoder;
+        
+        // 구독(재연결)마다 요청을 새로 만들어 마지막 이벤트 ID를 헤더에 반영
+        Flux<DataBuffer> sseBody = Flux.defer(() -> webClient.get()
+                        .uri(sseUrl)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .headers(headers -> {
+                            if (decoder.getLastEventId() != null) {
+                                headers.set("Last-Event-ID", decoder.getLastEventId());
+                            }
+                        })
+                        .exchangeToFlux(response -> {
+                            if (!response.statusCode().is2xxSuccessful()) {
+                                return response.createException().flatMapMany(Flux::error);
+                            }
+                            decoder.reset();
+                            onConnected(serverName, stream);
+                            return response.bodyToFlux(DataBuffer.class);
+                        }))
+                // heartbeat 기반 생존 확인: 일정 시간 동안 수신(주석 heartbeat 포함)이 없으면 끊긴 것으로 판단
+                .timeout(Duration.ofMillis(heartbeatTimeoutMs))
+                // 서버가 스트림을 정상 종료한 경우에도 재연결
+                .concatWith(Flux.error(() -> new IOException("SSE stream closed by server " + serverName)))
+                .doOnError(error -> onDisconnected(serverName, stream, error))
+                .retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                    long delay = nextReconnectDelay(stream);
+                    logger.info("Reconnecting SSE stream for server {} in {}ms (attempt {})",
+                            serverName, delay, signal.totalRetriesInARow() + 1);
+                    return Mono.delay(Duration.ofMillis(delay));
+                })));
         
         // SSE 이벤트 처리
-        sseStream.subscribe(
-                eventData -> handleSseEvent(serverName, eventData),
-                error -> {
-                    logger.error("Error in SSE stream for server {}", serverName, error);
-                    sseStreams.remove(serverName);
-                },
-                () -> {
-                    logger.info("SSE stream closed for server {}", serverName);
-                    sseStreams.remove(serverName);
-                }
-        );
+        stream.subscription = sseBody.subscribe(
+                decoder::decode,
+                error -> logger.error("SSE stream for server {} terminated", serverName, error));
         
-        sseStreams.put(serverName, sseStream);
         logger.info("SSE connection started for server {}", serverName);
+        return stream.firstConnect;
     }
     
     /**
-     * SSE 이벤트 처리
+     * SSE 스트림 연결 성립 처리
      */
-    private void handleSseEvent(String serverName, String eventData) {
-        try {
-            // SSE 형식: "data: {...}" 또는 직접 JSON
-            String jsonData = eventData;
-            if (eventData.startsWith("data: ")) {
-                jsonData = eventData.substring(6).trim();
+    private void onConnected(String serverName, SseStream stream) {
+        stream.connected = true;
+        stream.reconnectAttempts.set(0);
+        if (!stream.firstConnect.complete(null)) {
+            logger.info("SSE stream for server {} reconnected (Last-Event-ID: {})", serverName, stream.decoder.getLastEventId());
+            failUnreplayedRequests(serverName, stream);
+        }
+    }
+    
+    /**
+     * 재연결 시점에 대기 중이던 요청 중 유예 시간 안에 응답이 재전송되지 않은 요청 실패 처리
+     * (재연결 중에는 새 요청을 받지 않으므로 이 요청들은 끊기기 전에 보낸 요청)
+     */
+    private void failUnreplayedRequests(String serverName, SseStream stream) {
+        McpPendingRequestTable table = pendingTables.get(serverName);
+        if (table == null) {
+            return;
+        }
+        List<String> requestIds = table.getPendingRequestIds();
+        if (requestIds.isEmpty()) {
+            return;
+        }
+        Mono.delay(Duration.ofMillis(stream.replayGraceMs)).subscribe(ignored -> {
+            IOException cause = new IOException("Response from server " + serverName
+                    + " was not replayed within " + stream.replayGraceMs + "ms after reconnect");
+            int failed = 0;
+            for (String requestId : requestIds) {
+                if (table.fail(requestId, cause)) {
+                    failed++;
+                }
             }
-            
-            JsonNode jsonNode = objectMapper.readTree(jsonData);
-            String requestId = jsonNode.has("id") ? jsonNode.get("id").asText() : null;
-            
-            if (requestId == null) {
-                logger.warn("Received SSE event without request ID from {}: {}", serverName, jsonData);
-                return;
+            if (failed > 0) {
+                logger.warn("Failed {} requests to server {} whose responses were not replayed after reconnect", failed, serverName);
             }
-            
-            CompletableFuture<McpResponse> future = pendingRequests.remove(requestId);
-            if (future != null) {
-                McpResponse response = objectMapper.treeToValue(jsonNode, McpResponse.class);
-                future.complete(response);
-                logger.info("Completed future for request ID: {} from server {}", requestId, serverName);
-            } else {
-                logger.warn("No pending request found for ID: {} from server {}", requestId, serverName);
+        });
+    }
+    
+    /**
+     * 다음 재연결 대기 시간: jitter가 있는 지수 백오프 (서버가 retry를 지정했으면 그 이상)
+     */
+    private long nextReconnectDelay(SseStream stream) {
+        int attempts = Math.min(stream.reconnectAttempts.getAndIncrement(), 16);
+        long backoff = Math.min(RECONNECT_BACKOFF_MAX.toMillis(), RECONNECT_BACKOFF_MIN.toMillis() << attempts);
+        backoff = Math.max(backoff, stream.serverRetryMs);
+        // ±50% jitter로 여러 연결이 동시에 재연결하지 않도록 분산
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff + 1);
+    }
+    
+    /**
+     * SSE 스트림 끊김 처리
+     * 서버가 이벤트 ID를 주지 않거나 재연결 시도가 실패하면 재전송을 기대할 수 없으므로 처리 중인 요청을 즉시 실패시킴
+     * 이벤트 ID가 있으면 재연결 후 이어받을 수 있도록 대기 유지 (재연결 후 유예 시간까지)
+     */
+    private void onDisconnected(String serverName, SseStream stream, Throwable error) {
+        if (sseStreams.get(serverName) != stream) {
+            return;
+        }
+        boolean wasConnected = stream.connected;
+        stream.connected = false;
+        // 첫 연결 실패는 연결 대기 중인 호출자에게 바로 전달 (재연결은 백그라운드에서 계속)
+        if (stream.firstConnect.completeExceptionally(error)) {
+            logger.warn("SSE stream for server {} failed to connect: {}", serverName, error.getMessage());
+            return;
+        }
+        McpPendingRequestTable table = pendingTables.get(serverName);
+        if (!wasConnected) {
+            // 재연결 시도 실패
+            logger.warn("SSE stream for server {} failed to reconnect: {}", serverName, error.getMessage());
+            if (table != null) {
+                table.failAll(new IOException("SSE stream to server " + serverName + " could not be reconnected: "
+                        + error.getMessage(), error));
             }
-        } catch (Exception e) {
-            logger.error("Error parsing SSE event from server {}: {}", serverName, eventData, e);
+            return;
+        }
+        logger.warn("SSE stream for server {} lost: {}", serverName, error.getMessage());
+        
+        if (table != null && stream.decoder.getLastEventId() == null) {
+            table.failAll(new IOException("SSE stream to server " + serverName + " lost: " + error.getMessage(), error));
+        }
+    }
+    
+    /**
+     * SSE 스트림이 현재 연결되어 있는지 확인 (재연결 중이면 false)
+     */
+    public boolean isStreamConnected(String serverName) {
+        SseStream stream = sseStreams.get(serverName);
+        return stream != null && stream.connected;
+    }
+    
+    /**
+     * SSE 이벤트 처리 (data 바이트를 바로 McpResponse로 바인딩)
+     */
+    private void handleSseEvent(String serverName, McpSseEvent event) {
+        if (!event.isJson()) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Skipping non-JSON SSE event '{}' from server {}: {}", event.getType(), serverName, event.getDataAsString());
+            }
+            return;
+        }
+        
+        try {
+            // 배치 응답이면 요소별로 대기 중인 요청에 전달
+            event.readMessages(objectMapper, message -> dispatch(serverName, message));
+        } catch (IOException e) {
+            logger.error("Error parsing SSE event from server {}: {}", serverName, event.getDataAsString(), e);
+        }
+    }
+    
+    /**
+     * 단일 JSON-RPC 메시지를 대기 중인 요청에 전달
+     */
+    private void dispatch(String serverName, McpResponse response) {
+        String requestId = response.getId();
+        if (requestId == null) {
+            logger.debug("Received notification from {}: {}", serverName, response.getMethod());
+            if (McpToolsChangedEvent.METHOD.equals(response.getMethod())) {
+                eventPublisher.publishEvent(new McpToolsChangedEvent(serverName));
+            }
+            return;
+        }
+        
+        McpPendingRequestTable table = pendingTables.get(serverName);
+        if (table != null && table.complete(requestId, response)) {
+            logger.info("Completed future for request ID: {} from server {}", requestId, serverName);
+        } else {
+            logger.warn("No pending request found for ID: {} from server {}", requestId, serverName);
         }
     }
     
     /**
      * 요청 등록 (응답 대기)
+     * timeoutMs가 지나면 TimeoutException으로 완료되고 테이블에서 제거됨
      */
-    public CompletableFuture<McpResponse> registerRequest(String requestId) {
-        CompletableFuture<McpResponse> future = new CompletableFuture<>();
-        pendingRequests.put(requestId, future);
-        return future;
+    public CompletableFuture<McpResponse> registerRequest(String serverName, String requestId, long timeoutMs) {
+        McpPendingRequestTable table = pendingTables.get(serverName);
+        if (table == null) {
+            return CompletableFuture.failedFuture(
+                new IllegalStateException("SSE connection for server " + serverName + " is not started"));
+        }
+        return table.register(requestId, timeoutMs);
+    }
+    
+    /**
+     * 특정 요청 실패 처리 (POST 실패 등)
+     */
+    public void failRequest(String serverName, String requestId, Throwable cause) {
+        McpPendingRequestTable table = pendingTables.get(serverName);
+        if (table != null) {
+            table.fail(requestId, cause);
+        }
     }
     
     /**
      * SSE 연결 종료
      */
     public void stopSseConnection(String serverName) {
-        Flux<String> stream = sseStreams.remove(serverName);
+        SseStream stream = sseStreams.remove(serverName);
         if (stream != null) {
-            // 스트림 구독 취소는 이미 doOnComplete에서 처리됨
+            stream.connected = false;
+            if (stream.subscription != null) {
+                stream.subscription.dispose();
+            }
             logger.info("Stopped SSE connection for server {}", serverName);
         }
     }
     
     /**
-     * 모든 pending 요청 취소
+     * 해당 서버의 pending 요청 모두 취소 (다른 서버 요청에는 영향 없음)
      */
     public void cancelAllPendingRequests(String serverName) {
-        // 서버별로 요청을 구분할 수 있도록 개선 가능
-        pendingRequests.values().forEach(future -> future.cancel(true));
-        pendingRequests.clear();
+        McpPendingRequestTable table = pendingTables.remove(serverName);
+        if (table != null) {
+            table.failAll(new IOException("SSE connection to server " + serverName + " closed"));
+        }
+    }
+    
+    /**
+     * 서버의 응답 대기 중인 요청 수
+     */
+    public int getInFlightCount(String serverName) {
+        McpPendingRequestTable table = pendingTables.get(serverName);
+        return table != null ? table.getInFlightCount() : 0;
+    }
+    
+    /**
+     * 서버별 pending 요청 gauge 조회 (처리 중 요청 수, 가장 오래된 요청 대기 시간)
+     */
+    public Map<String, Map<String, Object>> getPendingStats() {
+        Map<String, Map<String, Object>> stats = new HashMap<>();
+        pendingTables.forEach((serverName, table) -> stats.put(serverName, table.getStats()));
+        return stats;
     }
 }
@@ -0,0 +1,81 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.model.McpResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * McpSseEventDecoder가 만든 SSE 이벤트 하나
+ * data는 디코더 내부 버퍼를 그대로 가리키므로 콜백 안에서만 유효
+ */
+public class McpSseEvent {
+
+    private final String type;
+    private final String lastEventId;
+    private final byte[] data;
+    private final int dataLength;
+
+    McpSseEvent(String type, String lastEventId, byte[] data, int dataLength) {
+        this.type = type;
+        this.lastEventId = lastEventId;
+        this.data = data;
+        this.dataLength = dataLength;
+    }
+
+    /**
+     * 이벤트 타입 (event 필드가 없으면 "message")
+     */
+    public String getType() {
+        return type;
+    }
+
+    public String getLastEventId() {
+        return lastEventId;
+    }
+
+    public int getDataLength() {
+        return dataLength;
+    }
+
+    /**
+     * data가 JSON 객체/배열로 시작하는지 확인
+     */
+    public boolean isJson() {
+        for (int i = 0; i < dataLength; i++) {
+            byte b = data[i];
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                return b == '{' || b == '[';
+            }
+        }
+        return false;
+    }
+
+    /**
+     * data의 JSON-RPC 메시지를 String 변환 없이 바로 McpResponse로 바인딩
+     * JSON 배열이면 요소별로 handler 호출
+     */
+    public void readMessages(ObjectMapper objectMapper, Consumer<McpResponse> handler) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(data, 0, dataLength)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    handler.accept(objectMapper.readValue(parser, McpResponse.class));
+                }
+            } else if (token == JsonToken.START_OBJECT) {
+                handler.accept(objectMapper.readValue(parser, McpResponse.class));
+            }
+        }
+    }
+
+    /**
+     * 로그 출력용 data 문자열
+     */
+    public String getDataAsString() {
+        return new String(data, 0, dataLength, StandardCharsets.UTF_8);
+    }
+}
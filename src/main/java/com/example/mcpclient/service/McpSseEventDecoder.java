@@ -0,0 +1,233 @@
+package com.example.mcpclient.service;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * text/event-stream 디코더 (HTML Living Standard의 이벤트 스트림 해석 규칙)
+ * 네트워크 DataBuffer의 바이트를 재사용 버퍼에 모아 줄 단위로 해석하고,
+ * 여러 줄 data 필드, event / id / retry 필드, 주석(heartbeat), CR / LF / CRLF 줄바꿈, 스트림 앞의 UTF-8 BOM을 처리
+ * 이벤트 data는 String으로 변환하지 않고 바이트 그대로 전달
+ */
+public class McpSseEventDecoder {
+
+    private static final int INITIAL_LINE_CAPACITY = 8 * 1024;
+    private static final int INITIAL_DATA_CAPACITY = 64 * 1024;
+    // 큰 이벤트 처리 후 버퍼가 이 크기를 넘으면 초기 크기로 되돌림
+    private static final int MAX_RETAINED_CAPACITY = 4 * 1024 * 1024;
+    private static final byte[] FIELD_DATA = "data".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FIELD_EVENT = "event".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FIELD_ID = "id".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FIELD_RETRY = "retry".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final Consumer<McpSseEvent> eventHandler;
+    private final LongConsumer retryHandler;
+
+    private byte[] line = new byte[INITIAL_LINE_CAPACITY];
+    private int lineLength = 0;
+    // 직전 줄이 CR로 끝났으면 바로 뒤의 LF는 같은 줄바꿈(CRLF)으로 취급
+    private boolean pendingCr = false;
+    // 스트림의 첫 줄이면 앞의 BOM 제거
+    private boolean firstLine = true;
+
+    private byte[] data = new byte[INITIAL_DATA_CAPACITY];
+    private int dataLength = 0;
+    private String eventType;
+    // id 필드로 받은 값 (이벤트가 끝까지 도착해 전달될 때 lastEventId로 확정)
+    private String lastEventIdBuffer;
+    // 마지막으로 전달된 이벤트까지의 ID, 연결이 바뀌어도 유지 (재연결 시 Last-Event-ID로 사용)
+    private volatile String lastEventId;
+
+    public McpSseEventDecoder(Consumer<McpSseEvent> eventHandler, LongConsumer retryHandler) {
+        this.eventHandler = eventHandler;
+        this.retryHandler = retryHandler;
+    }
+
+    /**
+     * 수신한 버퍼를 해석하여 완성된 이벤트마다 eventHandler 호출 (버퍼는 해제됨)
+     */
+    public void decode(DataBuffer buffer) {
+        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                decode(iterator.next());
+            }
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    /**
+     * 새 연결 시작 시 미완성 줄/이벤트 초기화
+     * 마지막 이벤트 ID는 유지하고, 끊긴 이벤트에서 받은 id는 버림 (그 이벤트는 서버가 다시 보내야 함)
+     */
+    public void reset() {
+        lineLength = 0;
+        pendingCr = false;
+        firstLine = true;
+        dataLength = 0;
+        eventType = null;
+        lastEventIdBuffer = lastEventId;
+    }
+
+    public String getLastEventId() {
+        return lastEventId;
+    }
+
+    private void decode(ByteBuffer byteBuffer) {
+        int segmentStart = byteBuffer.position();
+        int limit = byteBuffer.limit();
+        for (int i = segmentStart; i < limit; i++) {
+            byte b = byteBuffer.get(i);
+            if (b != '\n' && b != '\r') {
+                continue;
+            }
+            appendToLine(byteBuffer, segmentStart, i);
+            segmentStart = i + 1;
+            if (b == '\n' && pendingCr) {
+                pendingCr = false;
+                continue;
+            }
+            pendingCr = b == '\r';
+            processLine();
+        }
+        appendToLine(byteBuffer, segmentStart, limit);
+        byteBuffer.position(limit);
+    }
+
+    private void appendToLine(ByteBuffer byteBuffer, int from, int to) {
+        int length = to - from;
+        if (length == 0) {
+            return;
+        }
+        pendingCr = false;
+        line = ensureCapacity(line, lineLength, lineLength + length);
+        byteBuffer.get(from, line, lineLength, length);
+        lineLength += length;
+    }
+
+    /**
+     * 한 줄 해석: 빈 줄은 이벤트 전달, ':'로 시작하면 주석, 그 외는 "필드: 값"
+     */
+    private void processLine() {
+        int length = lineLength;
+        lineLength = 0;
+        if (firstLine) {
+            firstLine = false;
+            if (length >= UTF8_BOM.length && line[0] == UTF8_BOM[0] && line[1] == UTF8_BOM[1] && line[2] == UTF8_BOM[2]) {
+                length -= UTF8_BOM.length;
+                System.arraycopy(line, UTF8_BOM.length, line, 0, length);
+            }
+        }
+        if (length == 0) {
+            dispatchEvent();
+            return;
+        }
+        if (line[0] == ':') {
+            return;
+        }
+
+        int colon = indexOf(line, length, (byte) ':');
+        int fieldLength = colon < 0 ? length : colon;
+        int valueStart = colon < 0 ? length : colon + 1;
+        if (valueStart < length && line[valueStart] == ' ') {
+            valueStart++;
+        }
+        int valueLength = length - valueStart;
+
+        if (fieldEquals(FIELD_DATA, fieldLength)) {
+            data = ensureCapacity(data, dataLength, dataLength + valueLength + 1);
+            System.arraycopy(line, valueStart, data, dataLength, valueLength);
+            dataLength += valueLength;
+            data[dataLength++] = '\n';
+        } else if (fieldEquals(FIELD_EVENT, fieldLength)) {
+            eventType = new String(line, valueStart, valueLength, StandardCharsets.UTF_8);
+        } else if (fieldEquals(FIELD_ID, fieldLength)) {
+            if (indexOf(line, length, (byte) 0) < 0) {
+                lastEventIdBuffer = new String(line, valueStart, valueLength, StandardCharsets.UTF_8);
+            }
+        } else if (fieldEquals(FIELD_RETRY, fieldLength)) {
+            long retry = parseDigits(valueStart, length);
+            if (retry >= 0) {
+                retryHandler.accept(retry);
+            }
+        }
+        // 그 외 필드는 무시
+        if (line.length > MAX_RETAINED_CAPACITY) {
+            line = new byte[INITIAL_LINE_CAPACITY];
+        }
+    }
+
+    /**
+     * 이벤트 ID를 확정하고 모은 data로 이벤트 전달 (data가 없으면 전달하지 않음)
+     */
+    private void dispatchEvent() {
+        // data 없이 id만 보낸 이벤트도 ID는 확정
+        lastEventId = lastEventIdBuffer;
+        if (dataLength == 0) {
+            eventType = null;
+            return;
+        }
+        // 마지막 data 줄 뒤의 개행 제거
+        McpSseEvent event = new McpSseEvent(eventType != null ? eventType : "message", lastEventId, data, dataLength - 1);
+        dataLength = 0;
+        eventType = null;
+        try {
+            eventHandler.accept(event);
+        } finally {
+            if (data.length > MAX_RETAINED_CAPACITY) {
+                data = new byte[INITIAL_DATA_CAPACITY];
+            }
+        }
+    }
+
+    private boolean fieldEquals(byte[] field, int fieldLength) {
+        if (field.length != fieldLength) {
+            return false;
+        }
+        for (int i = 0; i < fieldLength; i++) {
+            if (line[i] != field[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long parseDigits(int from, int to) {
+        if (from == to || to - from > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            byte b = line[i];
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private static int indexOf(byte[] bytes, int length, byte target) {
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] ensureCapacity(byte[] bytes, int used, int required) {
+        if (required <= bytes.length) {
+            return bytes;
+        }
+        byte[] grown = new byte[Math.max(required, bytes.length * 2)];
+        System.arraycopy(bytes, 0, grown, 0, used);
+        return grown;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.mcpclient.service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * stdio MCP 서버 stderr 출력 보관용 고정 크기 링 버퍼
+ * 가장 오래된 줄부터 버리며, 줄 길이도 제한하여 메모리 사용량을 일정하게 유지
+ */
+public class McpStderrRingBuffer {
+
+    private static final int MAX_LINE_LENGTH = 2000;
+
+    private final int capacity;
+    private final Deque<String> lines;
+    private long totalLines = 0;
+
+    public McpStderrRingBuffer(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.lines = new ArrayDeque<>(this.capacity);
+    }
+
+    /**
+     * stderr 한 줄 추가
+     */
+    public void append(long pid, String line) {
+        if (line.length() > MAX_LINE_LENGTH) {
+            line = line.substring(0, MAX_LINE_LENGTH) + "...(truncated)";
+        }
+        String entry = Instant.now() + " [" + pid + "] " + line;
+        synchronized (lines) {
+            if (lines.size() == capacity) {
+                lines.removeFirst();
+            }
+            lines.addLast(entry);
+            totalLines++;
+        }
+    }
+
+    /**
+     * 최근 limit개 줄 조회 (오래된 순)
+     */
+    public List<String> getLastLines(int limit) {
+        synchronized (lines) {
+            int skip = Math.max(0, lines.size() - Math.max(0, limit));
+            List<String> result = new ArrayList<>(lines.size() - skip);
+            int index = 0;
+            for (String line : lines) {
+                if (index++ >= skip) {
+                    result.add(line);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 지금까지 받은 전체 줄 수 (버려진 줄 포함)
+     */
+    public long getTotalLines() {
+        synchronized (lines) {
+            return totalLines;
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
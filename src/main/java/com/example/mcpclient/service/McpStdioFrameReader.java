@@ -0,0 +1,136 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.model.McpResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * stdio 파이프용 newline-delimited JSON-RPC 프레임 디코더
+ * InputStream의 바이트를 재사용 버퍼에 읽어 줄 단위로 자르고,
+ * String 변환 없이 Jackson 스트리밍 파서로 McpResponse에 바로 바인딩
+ */
+public class McpStdioFrameReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpStdioFrameReader.class);
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+    // 큰 프레임 처리 후 버퍼가 이 크기를 넘으면 비어 있을 때 초기 크기로 되돌림
+    private static final int MAX_RETAINED_CAPACITY = 4 * 1024 * 1024;
+
+    private final String serverName;
+    private final InputStream inputStream;
+    private final ObjectMapper objectMapper;
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+
+    public McpStdioFrameReader(String serverName, InputStream inputStream, ObjectMapper objectMapper) {
+        this.serverName = serverName;
+        this.inputStream = inputStream;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * EOF까지 프레임을 읽어 메시지마다 handler 호출
+     * JSON 배열 프레임은 요소별로 handler 호출
+     */
+    public void readFrames(Consumer<McpResponse> handler) throws IOException {
+        int start = 0;      // 아직 처리하지 않은 데이터 시작
+        int end = 0;        // 유효 데이터 끝
+        int scanFrom = 0;   // 개행 문자 탐색 시작 위치
+
+        while (true) {
+            int newline = indexOfNewline(scanFrom, end);
+            if (newline >= 0) {
+                processFrame(start, newline, handler);
+                start = newline + 1;
+                scanFrom = start;
+                continue;
+            }
+
+            // 남은 데이터를 버퍼 앞으로 당기고, 필요하면 버퍼 확장
+            if (start > 0) {
+                System.arraycopy(buffer, start, buffer, 0, end - start);
+                end -= start;
+                start = 0;
+            }
+            if (end == 0 && buffer.length > MAX_RETAINED_CAPACITY) {
+                buffer = new byte[INITIAL_CAPACITY];
+            }
+            if (end == buffer.length) {
+                byte[] grown = new byte[buffer.length * 2];
+                System.arraycopy(buffer, 0, grown, 0, end);
+                buffer = grown;
+            }
+            scanFrom = end;
+
+            int read = inputStream.read(buffer, end, buffer.length - end);
+            if (read < 0) {
+                // 개행 없이 끝난 마지막 프레임 처리
+                processFrame(start, end, handler);
+                return;
+            }
+            end += read;
+        }
+    }
+
+    private int indexOfNewline(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * [from, to) 구간의 한 줄 처리
+     */
+    private void processFrame(int from, int to, Consumer<McpResponse> handler) {
+        while (from < to && isWhitespace(buffer[from])) {
+            from++;
+        }
+        while (to > from && isWhitespace(buffer[to - 1])) {
+            to--;
+        }
+        if (from == to) {
+            return;
+        }
+
+        // JSON 형식이 아닌 줄(배너, 로그 등)은 건너뛰기
+        byte first = buffer[from];
+        if (first != '{' && first != '[') {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Skipping non-JSON message from {}: {}", serverName,
+                    new String(buffer, from, to - from, StandardCharsets.UTF_8));
+            }
+            return;
+        }
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(buffer, from, to - from)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    handler.accept(objectMapper.readValue(parser, McpResponse.class));
+                }
+            } else if (token == JsonToken.START_OBJECT) {
+                handler.accept(objectMapper.readValue(parser, McpResponse.class));
+            }
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to parse JSON frame from {}: {}", serverName,
+                new String(buffer, from, to - from, StandardCharsets.UTF_8), e);
+        } catch (IOException e) {
+            logger.error("Error decoding JSON frame from {}", serverName, e);
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.mcpclient.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * stdio 파이프용 newline-delimited JSON-RPC 프레임 인코더
+ * 전용 writer 스레드가 큐에 쌓인 메시지를 버퍼에 바로 직렬화하고,
+ * 큐가 빌 때(버스트 끝) 한 번만 flush
+ */
+public class McpStdioFrameWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpStdioFrameWriter.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String serverName;
+    private final OutputStream outputStream;
+    // 직렬화가 스트림을 닫거나 매번 flush하지 않도록 설정
+    private final ObjectWriter objectWriter;
+    private final BlockingQueue<Frame> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private volatile boolean closed = false;
+
+    /**
+     * 전송 대기 중인 프레임
+     */
+    private static final class Frame {
+        private final Object payload;
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+
+        private Frame(Object payload) {
+            this.payload = payload;
+        }
+    }
+
+    public McpStdioFrameWriter(String serverName, OutputStream outputStream, ObjectMapper objectMapper, String threadName) {
+        this.serverName = serverName;
+        this.outputStream = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        this.objectWriter = objectMapper.writer()
+                .withoutFeatures(JsonGenerator.Feature.AUTO_CLOSE_TARGET, JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        this.writerThread = new Thread(this::writeLoop, threadName);
+        this.writerThread.setDaemon(true);
+    }
+
+    public void start() {
+        writerThread.start();
+    }
+
+    /**
+     * 메시지 전송 예약 (실제 쓰기가 끝나면 future 완료)
+     */
+    public CompletableFuture<Void> write(Object payload) {
+        Frame frame = new Frame(payload);
+        if (closed) {
+            fail(frame);
+            return frame.written;
+        }
+        queue.add(frame);
+        // 큐에 넣는 사이 close()되어 writer 스레드가 이미 큐를 비웠으면 직접 실패 처리
+        // (remove에 성공한 쪽만 완료하므로 writer 스레드와 중복 완료되지 않음)
+        if (closed && queue.remove(frame)) {
+            fail(frame);
+        }
+        return frame.written;
+    }
+
+    /**
+     * 쓰기 종료 요청
+     * 스트림은 쓰는 도중에 닫히지 않도록 writer 스레드가 종료하면서 닫음
+     */
+    public void close() {
+        closed = true;
+        if (writerThread.getState() == Thread.State.NEW) {
+            // 시작 전이면 writer 스레드가 없으므로 여기서 정리
+            finish();
+            return;
+        }
+        writerThread.interrupt();
+    }
+
+    private void writeLoop() {
+        List<Frame> batch = new ArrayList<>();
+        try {
+            while (!closed) {
+                // 대기 중인 프레임을 모두 모아 쓰고 한 번만 flush
+                batch.add(queue.take());
+                queue.drainTo(batch);
+
+                IOException failure = null;
+                try {
+                    for (Frame frame : batch) {
+                        objectWriter.writeValue(outputStream, frame.payload);
+                        outputStream.write('\n');
+                    }
+                    outputStream.flush();
+                } catch (IOException e) {
+                    failure = e;
+                    logger.error("Failed to write to stdin of server {}", serverName, e);
+                }
+
+                for (Frame frame : batch) {
+                    if (failure == null) {
+                        frame.written.complete(null);
+                    } else {
+                        frame.written.completeExceptionally(failure);
+                    }
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * 남은 프레임 실패 처리 후 스트림 닫기
+     */
+    private void finish() {
+        // writer 스레드가 예외로 끝난 경우에도 이후 write()가 큐에 남지 않도록 닫힘 표시
+        closed = true;
+        Frame frame;
+        while ((frame = queue.poll()) != null) {
+            fail(frame);
+        }
+        try {
+            outputStream.close();
+        } catch (IOException e) {
+            logger.debug("Error closing stdin of {}: {}", serverName, e.getMessage());
+        }
+    }
+
+    private void fail(Frame frame) {
+        frame.written.completeExceptionally(new IOException("Writer for server " + serverName + " is closed"));
+    }
+}
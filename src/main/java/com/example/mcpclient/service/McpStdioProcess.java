@@ -0,0 +1,254 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.model.McpRequest;
+import com.example.mcpclient.model.McpResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * stdio MCP 서버 자식 프로세스 하나에 대한 다중화 채널
+ * 전용 reader 스레드가 stdout의 모든 JSON-RPC 프레임을 읽어
+ * 요청 ID별 CompletableFuture를 완료시킴 (응답 순서와 무관, deadline이 지난 요청은 자동 제거)
+ * 쓰기는 전용 writer 스레드가 버스트 단위로 모아서 flush
+ * stderr는 별도 스레드가 계속 비워서 파이프 버퍼가 차서 서버가 멈추는 일을 방지
+ */
+public final class McpStdioProcess {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpStdioProcess.class);
+    private final String serverName;
+    private final Process process;
+    private final McpStdioFrameReader frameReader;
+    private final McpStdioFrameWriter frameWriter;
+    private final Thread readerThread;
+    private final Thread stderrThread;
+    private final McpStderrRingBuffer stderrBuffer;
+    // ID 없는 서버 알림 처리기
+    private final Consumer<McpResponse> notificationHandler;
+    // 요청 ID별 응답 대기 테이블
+    private final McpPendingRequestTable pendingRequests;
+    private final long startTime = System.currentTimeMillis();
+    private volatile long lastActivityTime = startTime;
+    // close()로 의도적으로 종료했는지 여부 (비정상 종료와 구분)
+    private volatile boolean closed = false;
+
+    public McpStdioProcess(
+            String serverName,
+            Process process,
+            ObjectMapper objectMapper,
+            McpStderrRingBuffer stderrBuffer,
+            Consumer<McpResponse> notificationHandler) {
+        this.serverName = serverName;
+        this.process = process;
+        this.stderrBuffer = stderrBuffer;
+        this.notificationHandler = notificationHandler;
+        this.pendingRequests = new McpPendingRequestTable(serverName, "pid-" + process.pid());
+        this.frameReader = new McpStdioFrameReader(serverName, process.getInputStream(), objectMapper);
+        this.frameWriter = new McpStdioFrameWriter(serverName, process.getOutputStream(), objectMapper,
+                "mcp-stdio-writer-" + serverName + "-" + process.pid());
+        this.readerThread = new Thread(this::readLoop, "mcp-stdio-reader-" + serverName + "-" + process.pid());
+        this.readerThread.setDaemon(true);
+        this.stderrThread = new Thread(this::drainStderr, "mcp-stdio-stderr-" + serverName + "-" + process.pid());
+        this.stderrThread.setDaemon(true);
+    }
+
+    /**
+     * stdout reader / stdin writer / stderr drain 스레드 시작
+     */
+    public void start() {
+        frameWriter.start();
+        readerThread.start();
+        stderrThread.start();
+    }
+
+    /**
+     * 요청 전송 (응답은 reader 스레드가 ID로 매칭하여 완료)
+     */
+    public CompletableFuture<McpResponse> send(McpRequest request, long timeoutMs) throws IOException {
+        CompletableFuture<McpResponse> future = register(request, timeoutMs);
+        logger.debug("Sending to {}: {} (id: {})", serverName, request.getMethod(), request.getId());
+        failOnWriteError(frameWriter.write(request), List.of(request.getId()));
+        return future;
+    }
+
+    /**
+     * 여러 요청을 하나의 JSON-RPC 배열 프레임으로 전송
+     * 응답 Future는 요청 순서대로 반환 (응답 도착 순서와 무관)
+     */
+    public List<CompletableFuture<McpResponse>> sendBatch(List<McpRequest> requests, long timeoutMs) throws IOException {
+        List<CompletableFuture<McpResponse>> futures = new ArrayList<>(requests.size());
+        List<String> requestIds = new ArrayList<>(requests.size());
+        try {
+            for (McpRequest request : requests) {
+                futures.add(register(request, timeoutMs));
+                requestIds.add(request.getId());
+            }
+        } catch (RuntimeException | IOException e) {
+            requestIds.forEach(requestId -> pendingRequests.fail(requestId, e));
+            throw e;
+        }
+        logger.debug("Sending batch of {} requests to {}", requests.size(), serverName);
+        failOnWriteError(frameWriter.write(requests), requestIds);
+        return futures;
+    }
+
+    /**
+     * 응답 Future 등록 (timeoutMs 후 TimeoutException으로 완료)
+     */
+    private CompletableFuture<McpResponse> register(McpRequest request, long timeoutMs) throws IOException {
+        String requestId = request.getId();
+        if (requestId == null) {
+            throw new IllegalArgumentException("Request id is required for stdio request: " + request.getMethod());
+        }
+        if (!process.isAlive()) {
+            throw new IOException("Server process " + serverName + " is not alive");
+        }
+
+        lastActivityTime = System.currentTimeMillis();
+        return pendingRequests.register(requestId, timeoutMs);
+    }
+
+    /**
+     * 쓰기 실패 시 해당 요청들을 즉시 실패 처리
+     */
+    private void failOnWriteError(CompletableFuture<Void> written, List<String> requestIds) {
+        written.whenComplete((ignored, error) -> {
+            if (error == null) {
+                return;
+            }
+            IOException cause = new IOException("Failed to write request to server " + serverName, error);
+            for (String requestId : requestIds) {
+                pendingRequests.fail(requestId, cause);
+            }
+        });
+    }
+
+    /**
+     * 응답 대기를 포기한 요청 정리 (호출자 인터럽트 등)
+     */
+    public void abandon(String requestId) {
+        pendingRequests.fail(requestId, new CancellationException("Request " + requestId + " abandoned"));
+    }
+
+    /**
+     * 처리 중인 요청 수
+     */
+    public int getOutstandingCount() {
+        return pendingRequests.getInFlightCount();
+    }
+
+    /**
+     * 응답 대기 테이블 gauge 조회
+     */
+    public Map<String, Object> getPendingStats() {
+        return pendingRequests.getStats();
+    }
+
+    /**
+     * 마지막 요청 전송 시각
+     */
+    public long getLastActivityTime() {
+        return lastActivityTime;
+    }
+
+    /**
+     * 프로세스 시작 시각
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    /**
+     * close()로 종료되었는지 확인
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public Process getProcess() {
+        return process;
+    }
+
+    /**
+     * 프로세스 종료 및 처리 중인 요청 실패 처리
+     */
+    public void close() {
+        closed = true;
+        process.destroy();
+        frameWriter.close();
+        failAll(new IOException("Server " + serverName + " disconnected"));
+    }
+
+    /**
+     * stdout 프레임 읽기 루프
+     * JSON이 아닌 줄(배너, 로그 등)은 디코더가 건너뛰고, JSON 프레임은 ID로 분배
+     */
+    private void readLoop() {
+        try {
+            frameReader.readFrames(this::dispatch);
+            logger.warn("stdout of server {} reached EOF", serverName);
+        } catch (IOException e) {
+            if (process.isAlive()) {
+                logger.error("Error reading stdout of server {}", serverName, e);
+            }
+        } finally {
+            failAll(new IOException("Server " + serverName + " closed its output stream"));
+        }
+    }
+
+    /**
+     * stderr를 줄 단위로 읽어 링 버퍼에 보관
+     */
+    private void drainStderr() {
+        try (BufferedReader errorReader = new BufferedReader(
+                new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = errorReader.readLine()) != null) {
+                stderrBuffer.append(process.pid(), line);
+                logger.debug("[{} stderr] {}", serverName, line);
+            }
+        } catch (IOException e) {
+            if (process.isAlive()) {
+                logger.warn("Error draining stderr of server {}: {}", serverName, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 단일 JSON-RPC 메시지를 대기 중인 요청에 전달
+     */
+    private void dispatch(McpResponse message) {
+        String requestId = message.getId();
+        if (requestId == null) {
+            logger.debug("Received notification from {}: {}", serverName, message.getMethod());
+            notificationHandler.accept(message);
+            return;
+        }
+
+        if (!pendingRequests.complete(requestId, message)) {
+            logger.warn("No pending request found for ID: {} from server {}", requestId, serverName);
+        }
+    }
+
+    /**
+     * 처리 중인 모든 요청을 즉시 실패 처리 (프로세스 비정상 종료 시)
+     */
+    public void failAll(IOException cause) {
+        pendingRequests.failAll(cause);
+    }
+}
@@ -0,0 +1,404 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.config.McpServerConfig;
+import com.example.mcpclient.model.McpRequest;
+import com.example.mcpclient.model.McpResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * stdio MCP 서버 하나에 대한 자식 프로세스 풀
+ * 처리 중인 요청이 가장 적은 프로세스로 분배하고, 대기 요청 수에 따라 풀 크기 조절
+ * 프로세스 비정상 종료를 감시하여 처리 중인 요청을 즉시 실패시키고 백오프 후 재시작
+ */
+public class McpStdioProcessPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpStdioProcessPool.class);
+    private static final long RESTART_BACKOFF_BASE_MS = 500;
+    private static final long RESTART_BACKOFF_MAX_MS = 30 * 1000;
+    // 이 시간 이상 살아 있던 프로세스가 종료되면 백오프 단계를 초기화
+    private static final long STABLE_UPTIME_MS = 60 * 1000;
+    private static final long STANDBY_WARMUP_TIMEOUT_MS = 60 * 1000;
+
+    private final String serverName;
+    private final McpServerConfig.McpServerInfo serverInfo;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService scheduler;
+    // 모든 프로세스의 ID 없는 서버 알림 처리기
+    private final Consumer<McpResponse> notificationHandler;
+    // 풀의 모든 프로세스가 공유하는 stderr 보관 버퍼
+    private final McpStderrRingBuffer stderrBuffer;
+    private final List<McpStdioProcess> processes = new CopyOnWriteArrayList<>();
+    // 확장은 한 번에 하나만 진행 (요청 폭주 시 여러 스레드가 동시에 프로세스를 띄우지 않도록)
+    private final AtomicBoolean growing = new AtomicBoolean(false);
+    // 연속 재시작 실패 횟수 (지수 백오프 계산용)
+    private final AtomicInteger consecutiveFailures = new AtomicInteger(0);
+    // 백오프 중에는 요청 경로에서 프로세스를 새로 띄우지 않음
+    private volatile long respawnNotBefore = 0;
+    // 초기화가 끝난 예비 프로세스 (요청 분배 대상 아님)
+    private volatile McpStdioProcess standby;
+    // ping 응답을 기다리는 중인 예비 프로세스
+    private volatile McpStdioProcess warmingStandby;
+    private volatile boolean closed = false;
+
+    public McpStdioProcessPool(
+            String serverName,
+            McpServerConfig.McpServerInfo serverInfo,
+            ObjectMapper objectMapper,
+            ScheduledExecutorService scheduler,
+            Consumer<McpResponse> notificationHandler) {
+        this.serverName = serverName;
+        this.serverInfo = serverInfo;
+        this.objectMapper = objectMapper;
+        this.scheduler = scheduler;
+        this.notificationHandler = notificationHandler;
+        this.stderrBuffer = new McpStderrRingBuffer(serverInfo.getStderrBufferLines());
+    }
+
+    /**
+     * 최소 프로세스 수만큼 시작 (설정 시 예비 프로세스도 준비)
+     */
+    public void start() throws IOException {
+        for (int i = 0; i < getMinProcesses(); i++) {
+            addProcess(spawn());
+        }
+        logger.info("Started {} process(es) for server {} (max: {})", processes.size(), serverName, getMaxProcesses());
+        if (serverInfo.isWarmStandby()) {
+            scheduler.execute(this::prepareStandby);
+        }
+    }
+
+    /**
+     * 처리 중인 요청이 가장 적은 프로세스 선택
+     * 선택된 프로세스도 임계값 이상 바쁘면 supervisor 스레드에서 풀 확장을 시작하고,
+     * 현재 요청은 기다리지 않고 선택된 프로세스로 보냄 (프로세스 시작 지연을 요청이 부담하지 않음)
+     */
+    public McpStdioProcess select() throws IOException {
+        McpStdioProcess selected = null;
+        for (McpStdioProcess process : processes) {
+            if (!process.isAlive()) {
+                continue;
+            }
+            if (selected == null || process.getOutstandingCount() < selected.getOutstandingCount()) {
+                selected = process;
+            }
+        }
+
+        if (selected == null || selected.getOutstandingCount() >= serverInfo.getScaleUpThreshold()) {
+            requestGrow();
+        }
+        if (selected == null) {
+            throw new IOException("No live process available for server " + serverName + " (restarting)");
+        }
+        return selected;
+    }
+
+    /**
+     * 유휴 프로세스 정리 (최소 프로세스 수는 유지)
+     * 풀 전체 대기 요청이 한 프로세스 임계값 미만일 때, 유휴 시간이 지난 프로세스를 하나씩 제거
+     */
+    public void shrinkIdle(long idleTimeoutMs) {
+        if (processes.size() <= getMinProcesses() || getOutstandingCount() >= serverInfo.getScaleUpThreshold()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (McpStdioProcess process : processes) {
+            if (process.getOutstandingCount() == 0 && now - process.getLastActivityTime() > idleTimeoutMs) {
+                processes.remove(process);
+                process.close();
+                logger.info("Shrunk pool of server {} to {} process(es)", serverName, processes.size());
+                return;
+            }
+        }
+    }
+
+    /**
+     * 풀 전체에서 처리 중인 요청 수
+     */
+    public int getOutstandingCount() {
+        return processes.stream().mapToInt(McpStdioProcess::getOutstandingCount).sum();
+    }
+
+    public int size() {
+        return processes.size();
+    }
+
+    public boolean isAlive() {
+        return processes.stream().anyMatch(McpStdioProcess::isAlive);
+    }
+
+    /**
+     * 프로세스별 응답 대기 테이블 gauge 조회
+     */
+    public List<Map<String, Object>> getPendingStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        for (McpStdioProcess process : processes) {
+            stats.add(process.getPendingStats());
+        }
+        return stats;
+    }
+
+    public boolean hasStandby() {
+        return standby != null;
+    }
+
+    public McpServerConfig.McpServerInfo getServerInfo() {
+        return serverInfo;
+    }
+
+    public McpStderrRingBuffer getStderrBuffer() {
+        return stderrBuffer;
+    }
+
+    /**
+     * 모든 프로세스 종료
+     */
+    public void close() {
+        closed = true;
+        for (McpStdioProcess process : processes) {
+            process.close();
+        }
+        processes.clear();
+        McpStdioProcess spare = standby;
+        standby = null;
+        if (spare != null) {
+            spare.close();
+        }
+        McpStdioProcess warming = warmingStandby;
+        if (warming != null) {
+            warming.close();
+        }
+    }
+
+    /**
+     * 풀 확장 예약 (이미 확장 중이거나 최대 크기/백오프 중이면 무시)
+     */
+    private void requestGrow() {
+        if (closed || processes.size() >= getMaxProcesses()
+                || System.currentTimeMillis() < respawnNotBefore
+                || !growing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.execute(this::grow);
+        } catch (RejectedExecutionException e) {
+            growing.set(false);
+        }
+    }
+
+    private void grow() {
+        try {
+            if (closed || processes.size() >= getMaxProcesses()) {
+                return;
+            }
+            McpStdioProcess process = spawn();
+            addProcess(process);
+            // 시작하는 동안 풀이 닫혔으면 추가한 프로세스도 정리
+            if (closed) {
+                processes.remove(process);
+                process.close();
+                return;
+            }
+            logger.info("Grew pool of server {} to {} process(es)", serverName, processes.size());
+        } catch (IOException e) {
+            logger.error("Failed to grow pool of server {}", serverName, e);
+        } finally {
+            growing.set(false);
+        }
+    }
+
+    /**
+     * 자식 프로세스 비정상 종료 처리
+     * 처리 중인 요청을 즉시 실패시키고, 예비 프로세스로 교체하거나 백오프 후 재시작
+     */
+    private void handleExit(McpStdioProcess process) {
+        if (closed || process.isClosed()) {
+            return;
+        }
+        int exitCode = process.getProcess().exitValue();
+        logger.error("MCP server {} process {} exited unexpectedly with code {}", serverName, process.getProcess().pid(), exitCode);
+        process.failAll(new IOException("Server " + serverName + " process exited with code " + exitCode));
+        process.close();
+
+        if (standby == process) {
+            standby = null;
+            scheduleStandby();
+            return;
+        }
+        processes.remove(process);
+
+        if (System.currentTimeMillis() - process.getStartTime() > STABLE_UPTIME_MS) {
+            consecutiveFailures.set(0);
+        }
+
+        McpStdioProcess spare = standby;
+        if (spare != null && spare.isAlive()) {
+            // 예비 프로세스로 즉시 교체
+            standby = null;
+            processes.add(spare);
+            if (closed) {
+                processes.remove(spare);
+                spare.close();
+                return;
+            }
+            logger.info("Promoted standby process {} for server {}", spare.getProcess().pid(), serverName);
+            scheduleStandby();
+        } else if (processes.size() < getMinProcesses()) {
+            scheduleRespawn();
+        }
+    }
+
+    /**
+     * 지수 백오프 후 프로세스 재시작
+     */
+    private void scheduleRespawn() {
+        long delay = nextBackoffDelay();
+        respawnNotBefore = System.currentTimeMillis() + delay;
+        logger.info("Restarting process for server {} in {}ms", serverName, delay);
+        scheduler.schedule(() -> {
+            if (closed || processes.size() >= getMinProcesses()) {
+                return;
+            }
+            try {
+                McpStdioProcess process = spawn();
+                addProcess(process);
+                if (closed) {
+                    processes.remove(process);
+                    process.close();
+                    return;
+                }
+                logger.info("Restarted process for server {} ({} process(es))", serverName, processes.size());
+            } catch (IOException e) {
+                logger.error("Failed to restart process for server {}", serverName, e);
+                scheduleRespawn();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void scheduleStandby() {
+        if (closed || !serverInfo.isWarmStandby()) {
+            return;
+        }
+        scheduler.schedule(this::prepareStandby, nextBackoffDelay(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 예비 프로세스 준비
+     * ping에 어떤 JSON-RPC 응답이든 돌아오면 요청을 받을 준비가 된 것으로 판단
+     * supervisor 스레드는 모든 서버가 공유하므로 프로세스만 띄우고 ping 응답은 기다리지 않음
+     * (느린 서버 하나가 다른 서버의 재시작/교체를 지연시키지 않도록)
+     */
+    private void prepareStandby() {
+        if (closed || standby != null || warmingStandby != null) {
+            return;
+        }
+        McpStdioProcess process;
+        CompletableFuture<McpResponse> warmup;
+        try {
+            process = spawn();
+        } catch (IOException e) {
+            logger.warn("Failed to start standby process for server {}: {}", serverName, e.getMessage());
+            scheduleStandby();
+            return;
+        }
+        warmingStandby = process;
+        if (closed) {
+            warmingStandby = null;
+            process.close();
+            return;
+        }
+        try {
+            McpRequest ping = new McpRequest("ping", new HashMap<>(), "standby-ping-" + System.nanoTime());
+            warmup = process.send(ping, STANDBY_WARMUP_TIMEOUT_MS);
+        } catch (IOException e) {
+            warmup = CompletableFuture.failedFuture(e);
+        }
+        warmup.whenComplete((response, error) -> {
+            warmingStandby = null;
+            if (error != null) {
+                logger.warn("Failed to prepare standby process for server {}: {}", serverName, error.getMessage());
+                process.close();
+                scheduleStandby();
+                return;
+            }
+            onStandbyReady(process);
+        });
+    }
+
+    private void onStandbyReady(McpStdioProcess process) {
+        if (closed || standby != null) {
+            process.close();
+            return;
+        }
+        standby = process;
+        // 대입하는 사이 close()가 standby를 이미 확인했을 수 있으므로 다시 확인
+        if (closed) {
+            standby = null;
+            process.close();
+            return;
+        }
+        process.getProcess().onExit().thenRun(() -> handleExit(process));
+        logger.info("Warm standby process {} ready for server {}", process.getProcess().pid(), serverName);
+    }
+
+    private long nextBackoffDelay() {
+        int failures = Math.min(consecutiveFailures.getAndIncrement(), 16);
+        return Math.min(RESTART_BACKOFF_MAX_MS, RESTART_BACKOFF_BASE_MS << failures);
+    }
+
+    private McpStdioProcess spawn() throws IOException {
+        ProcessBuilder processBuilder = new ProcessBuilder();
+        processBuilder.command(serverInfo.getCommand());
+        if (serverInfo.getArgs() != null) {
+            for (String arg : serverInfo.getArgs()) {
+                processBuilder.command().add(arg);
+            }
+        }
+
+        if (serverInfo.getCwd() != null) {
+            processBuilder.directory(new File(serverInfo.getCwd()));
+        }
+
+        if (serverInfo.getEnv() != null && !serverInfo.getEnv().isEmpty()) {
+            processBuilder.environment().putAll(serverInfo.getEnv());
+        }
+
+        // stdout은 전용 reader 스레드가 계속 읽음 (초기화 시 일반 텍스트 메시지도 여기서 건너뜀)
+        McpStdioProcess process = new McpStdioProcess(serverName, processBuilder.start(), objectMapper, stderrBuffer, notificationHandler);
+        process.start();
+        return process;
+    }
+
+    /**
+     * 요청 분배 대상에 추가하고 종료 감시 시작
+     * 목록에 넣은 뒤 감시해야 이미 종료된 프로세스도 목록에서 제거되고 재시작이 예약됨
+     */
+    private void addProcess(McpStdioProcess process) {
+        processes.add(process);
+        process.getProcess().onExit().thenRun(() -> handleExit(process));
+    }
+
+    private int getMinProcesses() {
+        return Math.max(1, serverInfo.getMinProcesses());
+    }
+
+    private int getMaxProcesses() {
+        return Math.max(getMinProcesses(), serverInfo.getMaxProcesses());
+    }
+}
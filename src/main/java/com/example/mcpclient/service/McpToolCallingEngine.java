@@ -0,0 +1,201 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.config.McpServerConfig;
+import com.example.mcpclient.exception.McpDeadlineExceededException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 도구 호출 반복을 직접 수행하는 엔진 (Spring AI 내부 도구 실행 대신 사용)
+ * 반복(turn)마다 Gemini를 한 번만 호출하고, 받은 ChatResponse의 도구 호출을 실행한 뒤 결과와 함께 다시 요청
+ * 도구 호출이 없는 응답이 오면 그 ChatResponse의 텍스트를 최종 답변으로 사용 (같은 대화로 Gemini를 다시 호출하지 않음)
+ * 반복 횟수는 mcp.max-tool-iterations, 전체 시간은 요청 deadline으로 제한 (Gemini 호출 하나도 남은 시간까지만 대기)
+ * 반복 한도에 도달하면 오류 대신 마지막으로 받은 텍스트에 중단 안내를 붙여 반환
+ */
+@Component
+public class McpToolCallingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpToolCallingEngine.class);
+
+    private final ToolCallingManager toolCallingManager;
+    private final McpServerConfig serverConfig;
+    // deadline이 있는 Gemini 호출을 실행 (호출 스레드는 남은 시간까지만 대기)
+    private final ExecutorService geminiExecutor;
+
+    public McpToolCallingEngine(ToolCallingManager toolCallingManager, McpServerConfig serverConfig, Environment environment) {
+        this.toolCallingManager = toolCallingManager;
+        this.serverConfig = serverConfig;
+        this.geminiExecutor = McpExecutors.newTaskExecutor("gemini-call", Threading.VIRTUAL.isActive(environment));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        geminiExecutor.shutdownNow();
+    }
+
+    /**
+     * 도구 호출이 끝날 때까지 반복하고 최종 답변 텍스트 반환
+     *
+     * @param chatClient 도구가 등록된 ChatClient (도구 정의는 ChatClient에 등록된 것을 사용)
+     * @param systemPrompt 매 호출에 추가할 시스템 프롬프트
+     * @param messages 대화 히스토리
+     * @param toolCallbacks ChatClient에 등록된 도구 (모델이 고른 도구 실행용)
+     * @param toolContext 도구 호출 시 ToolCallback에 전달할 요청 정보
+     * @param deadline 요청 전체 deadline (null이면 시간 제한 없음)
+     */
+    public String run(
+            ChatClient chatClient,
+            String systemPrompt,
+            List<Message> messages,
+            List<ToolCallback> toolCallbacks,
+            Map<String, Object> toolContext,
+            McpDeadline deadline) {
+        int maxIterations = serverConfig.getMaxToolIterations();
+        List<Message> conversation = new ArrayList<>(messages);
+        // 도구 호출과 함께 온 텍스트 중 마지막 것 (반복 한도 도달 시 답변으로 사용)
+        String lastText = "";
+        for (int iteration = 0; ; iteration++) {
+            if (deadline != null) {
+                deadline.check("Gemini call");
+            }
+            long callStart = System.currentTimeMillis();
+            List<Message> request = conversation;
+            ChatResponse response = callGemini(() -> chatClient.prompt()
+                    .system(systemPrompt)
+                    .messages(request)
+                    .options(ToolCallingChatOptions.builder().internalToolExecutionEnabled(false).build())
+                    .call()
+                    .chatResponse(), deadline);
+            logger.info("Gemini call #{} completed in {}ms", iteration + 1, System.currentTimeMillis() - callStart);
+
+            if (response == null || !response.hasToolCalls()) {
+                return extractText(response);
+            }
+            String text = collectText(response);
+            if (!text.isBlank()) {
+                lastText = text;
+            }
+            if (iteration >= maxIterations) {
+                logger.warn("Tool call limit ({}) reached, returning partial answer", maxIterations);
+                String note = McpToolRoundLimit.truncationNote(maxIterations);
+                return lastText.isBlank() ? note : lastText + "\n\n" + note;
+            }
+
+            // 모델이 고른 도구 실행 (여러 개면 McpToolCallingManager가 동시에 실행)
+            if (deadline != null) {
+                deadline.check("tool calls");
+            }
+            Prompt prompt = new Prompt(conversation, ToolCallingChatOptions.builder()
+                    .toolCallbacks(toolCallbacks)
+                    .toolContext(toolContext)
+                    .internalToolExecutionEnabled(false)
+                    .build());
+            ToolExecutionResult result = toolCallingManager.executeToolCalls(prompt, response);
+            if (result.returnDirect()) {
+                return extractToolResponseText(result.conversationHistory());
+            }
+            // 대화 + 도구 호출 메시지 + 도구 결과로 다음 반복
+            conversation = new ArrayList<>(result.conversationHistory());
+        }
+    }
+
+    /**
+     * Gemini 호출 (deadline이 있으면 남은 시간까지만 기다리고, 넘으면 호출을 취소한 뒤 McpDeadlineExceededException)
+     */
+    private ChatResponse callGemini(Supplier<ChatResponse> call, McpDeadline deadline) {
+        if (deadline == null) {
+            return call.get();
+        }
+        Future<ChatResponse> future = geminiExecutor.submit(call::get);
+        try {
+            return future.get(deadline.remainingMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new McpDeadlineExceededException("Deadline exceeded while waiting for Gemini response");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Gemini response", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Gemini call failed", e.getCause());
+        }
+    }
+
+    /**
+     * Spring AI 내부 도구 실행(스트리밍)에도 같은 반복 제한을 적용하도록 toolContext에 McpToolRoundLimit 추가
+     */
+    public Map<String, Object> withRoundLimit(Map<String, Object> toolContext) {
+        return McpToolRoundLimit.attach(toolContext, serverConfig.getMaxToolIterations());
+    }
+
+    /**
+     * 응답의 모든 Generation 텍스트를 이어 붙임
+     * Gemini는 응답 part마다 Generation을 만들기 때문에 첫 번째 결과(content())만 보면 텍스트가 비어 있을 수 있음
+     */
+    private String extractText(ChatResponse response) {
+        if (response == null) {
+            logger.warn("Gemini returned no response");
+            return "";
+        }
+        String text = collectText(response);
+        if (text.isBlank()) {
+            logger.warn("Gemini returned an empty response (finish reason: {})",
+                response.getResult() != null ? response.getResult().getMetadata().getFinishReason() : null);
+        }
+        return text;
+    }
+
+    private String collectText(ChatResponse response) {
+        StringBuilder text = new StringBuilder();
+        for (Generation generation : response.getResults()) {
+            if (generation.getOutput() != null && generation.getOutput().getText() != null) {
+                text.append(generation.getOutput().getText());
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * returnDirect 도구의 결과를 그대로 답변으로 사용
+     */
+    private String extractToolResponseText(List<Message> conversationHistory) {
+        Message lastMessage = conversationHistory.get(conversationHistory.size() - 1);
+        if (!(lastMessage instanceof ToolResponseMessage toolResponseMessage)) {
+            return "";
+        }
+        return toolResponseMessage.getResponses().stream()
+                .map(ToolResponseMessage.ToolResponse::responseData)
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.mcpclient.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.DefaultToolCallingManager;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 모델 응답 하나에 담긴 여러 도구 호출을 동시에 실행하는 ToolCallingManager
+ * Spring AI 기본 구현은 도구 호출을 순서대로 하나씩 실행하므로,
+ * 서로 독립적인 호출(예: 공지사항 조회 + 일정 조회)도 MCP 왕복 시간을 모두 더한 만큼 기다림
+ * 모든 결과가 모이면 하나의 ToolResponseMessage로 모델에 함께 전달
+ * 같은 서버로 가는 호출이 여러 개면(서버 설정 batch-tool-calls) JSON-RPC 배치 요청 하나로 묶어 왕복 한 번에 처리
+ * 도구 정의 조회와 호출이 하나뿐인 경우는 기본 구현에 위임
+ * toolContext에 McpToolRoundLimit이 있으면 반복 한도를 넘은 도구 호출은 실행하지 않고 안내 문구로 답변을 끝냄
+ */
+@Component
+public class McpToolCallingManager implements ToolCallingManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpToolCallingManager.class);
+
+    private final ToolCallingManager delegate = DefaultToolCallingManager.builder().build();
+    private final McpToolExecutor toolExecutor;
+
+    public McpToolCallingManager(McpToolExecutor toolExecutor) {
+        this.toolExecutor = toolExecutor;
+    }
+
+    @Override
+    public List<ToolDefinition> resolveToolDefinitions(ToolCallingChatOptions chatOptions) {
+        return delegate.resolveToolDefinitions(chatOptions);
+    }
+
+    @Override
+    public ToolExecutionResult executeToolCalls(Prompt prompt, ChatResponse chatResponse) {
+        AssistantMessage assistantMessage = chatResponse.getResults().stream()
+                .map(Generation::getOutput)
+                .filter(AssistantMessage::hasToolCalls)
+                .findFirst()
+                .orElse(null);
+        if (assistantMessage != null && prompt.getOptions() instanceof ToolCallingChatOptions limitOptions
+                && limitOptions.getToolContext() != null
+                && limitOptions.getToolContext().get(McpToolRoundLimit.CONTEXT_KEY) instanceof McpToolRoundLimit roundLimit
+                && !roundLimit.tryNextRound()) {
+            return roundLimitReached(prompt, assistantMessage, roundLimit.getMaxRounds());
+        }
+        if (assistantMessage == null || assistantMessage.getToolCalls().size() < 2
+                || !(prompt.getOptions() instanceof ToolCallingChatOptions options)) {
+            return delegate.executeToolCalls(prompt, chatResponse);
+        }
+
+        // 등록된 ToolCallback으로만 직접 실행 (이름으로만 지정된 도구가 섞여 있으면 기본 구현에 위임)
+        Map<String, ToolCallback> callbacks = new HashMap<>();
+        for (ToolCallback callback : options.getToolCallbacks()) {
+            callbacks.put(callback.getToolDefinition().name(), callback);
+        }
+        List<AssistantMessage.ToolCall> toolCalls = assistantMessage.getToolCalls();
+        for (AssistantMessage.ToolCall toolCall : toolCalls) {
+            if (!callbacks.containsKey(toolCall.name())) {
+                return delegate.executeToolCalls(prompt, chatResponse);
+            }
+        }
+
+        ToolContext toolContext = buildToolContext(prompt, options, assistantMessage);
+        boolean returnDirect = true;
+        for (AssistantMessage.ToolCall toolCall : toolCalls) {
+            returnDirect &= callbacks.get(toolCall.name()).getToolMetadata().returnDirect();
+        }
+
+        // 같은 서버의 배치 가능한 호출이 여러 개면 JSON-RPC 배치 요청 하나로 묶고, 나머지는 호출마다 실행
+        Map<String, List<Integer>> batches = new LinkedHashMap<>();
+        for (int i = 0; i < toolCalls.size(); i++) {
+            if (callbacks.get(toolCalls.get(i).name()) instanceof McpToolExecutor.BatchCapable batchCapable
+                    && toolExecutor.isBatchEnabled(batchCapable.getServerName())) {
+                batches.computeIfAbsent(batchCapable.getServerName(), key -> new ArrayList<>()).add(i);
+            }
+        }
+        batches.values().removeIf(indexes -> indexes.size() < 2);
+        Map<Integer, List<Integer>> batchByFirstIndex = new HashMap<>();
+        Set<Integer> batched = new HashSet<>();
+        for (List<Integer> indexes : batches.values()) {
+            batchByFirstIndex.put(indexes.get(0), indexes);
+            batched.addAll(indexes);
+        }
+
+        // 작업마다 담당하는 호출 위치 (배치 작업은 여러 위치)
+        List<List<Integer>> taskIndexes = new ArrayList<>();
+        List<McpToolExecutor.Task<List<ToolResponseMessage.ToolResponse>>> tasks = new ArrayList<>();
+        for (int i = 0; i < toolCalls.size(); i++) {
+            List<Integer> batch = batchByFirstIndex.get(i);
+            if (batch != null) {
+                taskIndexes.add(batch);
+                tasks.add(batchTask(batch, toolCalls, callbacks, toolContext));
+            } else if (!batched.contains(i)) {
+                taskIndexes.add(List.of(i));
+                tasks.add(singleTask(toolCalls.get(i), callbacks.get(toolCalls.get(i).name()), toolContext));
+            }
+        }
+
+        long startTime = System.currentTimeMillis();
+        List<List<ToolResponseMessage.ToolResponse>> results;
+        try {
+            results = toolExecutor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while executing tool calls", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Tool call failed: " + cause.getMessage(), cause);
+        }
+        logger.info("Executed {} tool calls in parallel ({} requests) in {}ms",
+                toolCalls.size(), tasks.size(), System.currentTimeMillis() - startTime);
+
+        // 결과는 모델이 요청한 호출 순서대로 전달
+        ToolResponseMessage.ToolResponse[] ordered = new ToolResponseMessage.ToolResponse[toolCalls.size()];
+        for (int t = 0; t < results.size(); t++) {
+            List<Integer> indexes = taskIndexes.get(t);
+            for (int n = 0; n < indexes.size(); n++) {
+                ordered[indexes.get(n)] = results.get(t).get(n);
+            }
+        }
+        List<ToolResponseMessage.ToolResponse> responses = Arrays.asList(ordered);
+
+        List<Message> conversationHistory = new ArrayList<>(prompt.copy().getInstructions());
+        conversationHistory.add(assistantMessage);
+        conversationHistory.add(ToolResponseMessage.builder().responses(responses).build());
+        return ToolExecutionResult.builder()
+                .conversationHistory(conversationHistory)
+                .returnDirect(returnDirect)
+                .build();
+    }
+
+    /**
+     * 도구 호출 하나를 실행하는 작업
+     */
+    private McpToolExecutor.Task<List<ToolResponseMessage.ToolResponse>> singleTask(
+            AssistantMessage.ToolCall toolCall, ToolCallback callback, ToolContext toolContext) {
+        String serverName = callback instanceof McpToolExecutor.ServerScoped scoped ? scoped.getServerName() : null;
+        return new McpToolExecutor.Task<>(serverName, () -> List.of(new ToolResponseMessage.ToolResponse(
+                toolCall.id(), toolCall.name(), callback.call(arguments(toolCall), toolContext))));
+    }
+
+    /**
+     * 같은 서버의 도구 호출 여러 개를 배치 요청 하나로 실행하는 작업
+     */
+    private McpToolExecutor.Task<List<ToolResponseMessage.ToolResponse>> batchTask(
+            List<Integer> indexes,
+            List<AssistantMessage.ToolCall> toolCalls,
+            Map<String, ToolCallback> callbacks,
+            ToolContext toolContext) {
+        List<McpToolExecutor.BatchCall> calls = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            AssistantMessage.ToolCall toolCall = toolCalls.get(index);
+            calls.add(new McpToolExecutor.BatchCall(callbacks.get(toolCall.name()), arguments(toolCall)));
+        }
+        McpToolExecutor.BatchCapable first = (McpToolExecutor.BatchCapable) calls.get(0).getCallback();
+        return new McpToolExecutor.Task<>(first.getServerName(), () -> {
+            List<String> results = first.callBatch(calls, toolContext);
+            List<ToolResponseMessage.ToolResponse> responses = new ArrayList<>(indexes.size());
+            for (int n = 0; n < indexes.size(); n++) {
+                AssistantMessage.ToolCall toolCall = toolCalls.get(indexes.get(n));
+                responses.add(new ToolResponseMessage.ToolResponse(toolCall.id(), toolCall.name(), results.get(n)));
+            }
+            return responses;
+        });
+    }
+
+    /**
+     * 인자 없는 호출은 빈 JSON 객체로 전달 (기본 구현과 동일)
+     */
+    private static String arguments(AssistantMessage.ToolCall toolCall) {
+        return toolCall.arguments() == null || toolCall.arguments().isBlank() ? "{}" : toolCall.arguments();
+    }
+
+    /**
+     * 도구를 실행하지 않고 안내 문구를 도구 결과로 바로 반환 (returnDirect이므로 모델을 다시 호출하지 않음)
+     */
+    private ToolExecutionResult roundLimitReached(Prompt prompt, AssistantMessage assistantMessage, int maxRounds) {
+        logger.warn("Tool call limit ({}) reached, skipping {} tool calls", maxRounds, assistantMessage.getToolCalls().size());
+        AssistantMessage.ToolCall toolCall = assistantMessage.getToolCalls().get(0);
+        List<Message> conversationHistory = new ArrayList<>(prompt.copy().getInstructions());
+        conversationHistory.add(assistantMessage);
+        conversationHistory.add(ToolResponseMessage.builder()
+                .responses(List.of(new ToolResponseMessage.ToolResponse(
+                        toolCall.id(), toolCall.name(), McpToolRoundLimit.truncationNote(maxRounds))))
+                .build());
+        return ToolExecutionResult.builder()
+                .conversationHistory(conversationHistory)
+                .returnDirect(true)
+                .build();
+    }
+
+    /**
+     * 요청의 toolContext에 지금까지의 대화(도구 호출 포함)를 더해 전달 (기본 구현과 동일한 구성)
+     */
+    private ToolContext buildToolContext(Prompt prompt, ToolCallingChatOptions options, AssistantMessage assistantMessage) {
+        Map<String, Object> context = new HashMap<>();
+        if (options.getToolContext() != null && !options.getToolContext().isEmpty()) {
+            context.putAll(options.getToolContext());
+            List<Message> toolCallHistory = new ArrayList<>(prompt.copy().getInstructions());
+            toolCallHistory.add(assistantMessage);
+            context.put(ToolContext.TOOL_CALL_HISTORY, toolCallHistory);
+        }
+        return new ToolContext(context);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.mcpclient.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 서버별 도구 목록의 불변 스냅샷
+ * 변경 시 새 스냅샷을 만들어 통째로 교체하므로 읽는 쪽은 잠금 없이 사용
+ * 카탈로그 버전과 서버별 버전(마지막으로 바뀐 카탈로그 버전)으로 파생 데이터 무효화 판단
+ * 서버별 내용 해시가 같으면 교체하지 않음
+ */
+public final class McpToolCatalog {
+
+    private static final McpToolCatalog EMPTY = new McpToolCatalog(0, Map.of(), Map.of(), Map.of());
+
+    private final long version;
+    private final Map<String, List<Map<String, Object>>> serverTools;
+    private final Map<String, Long> serverVersions;
+    private final Map<String, String> serverHashes;
+
+    private McpToolCatalog(
+            long version,
+            Map<String, List<Map<String, Object>>> serverTools,
+            Map<String, Long> serverVersions,
+            Map<String, String> serverHashes) {
+        this.version = version;
+        this.serverTools = serverTools;
+        this.serverVersions = serverVersions;
+        this.serverHashes = serverHashes;
+    }
+
+    public static McpToolCatalog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 서버 도구 목록을 바꾼 새 스냅샷 (내용 해시가 같으면 현재 스냅샷 그대로 반환)
+     */
+    public McpToolCatalog withServerTools(String serverName, List<Map<String, Object>> tools, String hash) {
+        if (hash.equals(serverHashes.get(serverName))) {
+            return this;
+        }
+        long nextVersion = version + 1;
+        Map<String, List<Map<String, Object>>> nextTools = new HashMap<>(serverTools);
+        nextTools.put(serverName, copyTools(tools));
+        Map<String, Long> nextVersions = new HashMap<>(serverVersions);
+        nextVersions.put(serverName, nextVersion);
+        Map<String, String> nextHashes = new HashMap<>(serverHashes);
+        nextHashes.put(serverName, hash);
+        return new McpToolCatalog(nextVersion, Collections.unmodifiableMap(nextTools),
+            Collections.unmodifiableMap(nextVersions), Collections.unmodifiableMap(nextHashes));
+    }
+
+    /**
+     * 서버를 제외한 새 스냅샷 (없는 서버면 현재 스냅샷 그대로 반환)
+     */
+    public McpToolCatalog withoutServer(String serverName) {
+        if (!serverTools.containsKey(serverName)) {
+            return this;
+        }
+        Map<String, List<Map<String, Object>>> nextTools = new HashMap<>(serverTools);
+        nextTools.remove(serverName);
+        Map<String, Long> nextVersions = new HashMap<>(serverVersions);
+        nextVersions.remove(serverName);
+        Map<String, String> nextHashes = new HashMap<>(serverHashes);
+        nextHashes.remove(serverName);
+        return new McpToolCatalog(version + 1, Collections.unmodifiableMap(nextTools),
+            Collections.unmodifiableMap(nextVersions), Collections.unmodifiableMap(nextHashes));
+    }
+
+    /**
+     * 카탈로그 전체 버전 (어느 서버든 바뀌면 증가)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 서버 도구 목록이 마지막으로 바뀐 카탈로그 버전 (없으면 0)
+     */
+    public long getServerVersion(String serverName) {
+        return serverVersions.getOrDefault(serverName, 0L);
+    }
+
+    /**
+     * 서버 도구 목록 내용 해시 (없으면 null)
+     */
+    public String getServerHash(String serverName) {
+        return serverHashes.get(serverName);
+    }
+
+    public boolean hasServer(String serverName) {
+        return serverTools.containsKey(serverName);
+    }
+
+    public List<Map<String, Object>> getServerTools(String serverName) {
+        return serverTools.getOrDefault(serverName, List.of());
+    }
+
+    public Map<String, List<Map<String, Object>>> getAllServerTools() {
+        return serverTools;
+    }
+
+    private static List<Map<String, Object>> copyTools(List<Map<String, Object>> tools) {
+        List<Map<String, Object>> copied = new ArrayList<>(tools.size());
+        for (Map<String, Object> tool : tools) {
+            copied.add(Collections.unmodifiableMap(new LinkedHashMap<>(tool)));
+        }
+        return Collections.unmodifiableList(copied);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.config.McpServerConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 도구 카탈로그 스냅샷 파일 저장/로드
+ * 재시작 시 tools/list 응답을 기다리지 않고 바로 도구 목록을 제공하기 위해 서버별 도구 목록과 내용 해시를 보관
+ */
+@Component
+public class McpToolCatalogSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpToolCatalogSnapshotStore.class);
+
+    private final ObjectMapper objectMapper;
+    // 키 순서와 무관하게 같은 내용이면 같은 해시가 나오도록 정렬해서 직렬화
+    private final ObjectMapper canonicalMapper;
+    // 스냅샷 파일 경로 (설정이 비어 있으면 사용 안 함)
+    private final Path snapshotFile;
+    // 늦게 도착한 이전 버전이 최신 스냅샷을 덮어쓰지 않도록 마지막 저장 버전 기록
+    private long savedVersion = -1;
+    // 파일 쓰기 중 virtual thread가 carrier thread를 점유(pinning)하지 않도록 synchronized 대신 사용
+    private final ReentrantLock saveLock = new ReentrantLock();
+
+    /**
+     * 스냅샷 파일 형식
+     */
+    public static class Snapshot {
+        private long savedAt;
+        private Map<String, SnapshotEntry> servers = new HashMap<>();
+
+        public long getSavedAt() {
+            return savedAt;
+        }
+
+        public void setSavedAt(long savedAt) {
+            this.savedAt = savedAt;
+        }
+
+        public Map<String, SnapshotEntry> getServers() {
+            return servers;
+        }
+
+        public void setServers(Map<String, SnapshotEntry> servers) {
+            this.servers = servers;
+        }
+    }
+
+    /**
+     * 서버 하나의 도구 목록과 내용 해시
+     */
+    public static class SnapshotEntry {
+        private String hash;
+        private List<Map<String, Object>> tools;
+
+        public String getHash() {
+            return hash;
+        }
+
+        public void setHash(String hash) {
+            this.hash = hash;
+        }
+
+        public List<Map<String, Object>> getTools() {
+            return tools;
+        }
+
+        public void setTools(List<Map<String, Object>> tools) {
+            this.tools = tools;
+        }
+    }
+
+    public McpToolCatalogSnapshotStore(McpServerConfig serverConfig, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.canonicalMapper = objectMapper.copy().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        String file = serverConfig.getToolsSnapshotFile();
+        this.snapshotFile = file == null || file.isBlank() ? null : Paths.get(file);
+    }
+
+    public boolean isEnabled() {
+        return snapshotFile != null;
+    }
+
+    /**
+     * 도구 목록 내용 해시 (SHA-256, 키 순서 무관)
+     */
+    public String hash(List<Map<String, Object>> tools) {
+        try {
+            byte[] canonical = canonicalMapper.writeValueAsBytes(tools);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonical));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash tool list", e);
+        }
+    }
+
+    /**
+     * 스냅샷 로드 (파일이 없거나 해시가 맞지 않는 항목은 제외)
+     */
+    public Map<String, SnapshotEntry> load() {
+        Map<String, SnapshotEntry> entries = new HashMap<>();
+        if (snapshotFile == null || !Files.isRegularFile(snapshotFile)) {
+            return entries;
+        }
+        try {
+            Snapshot snapshot = objectMapper.readValue(snapshotFile.toFile(), Snapshot.class);
+            for (Map.Entry<String, SnapshotEntry> entry : snapshot.getServers().entrySet()) {
+                SnapshotEntry value = entry.getValue();
+                if (value.getTools() == null || !hash(value.getTools()).equals(value.getHash())) {
+                    logger.warn("Ignoring corrupt tool snapshot entry for server {}", entry.getKey());
+                    continue;
+                }
+                entries.put(entry.getKey(), value);
+            }
+            logger.info("Loaded tool snapshot for {} server(s) from {}", entries.size(), snapshotFile);
+        } catch (IOException e) {
+            logger.warn("Failed to read tool snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+        return entries;
+    }
+
+    /**
+     * 현재 카탈로그를 스냅샷 파일로 저장 (임시 파일에 쓴 후 교체)
+     */
+    public void save(McpToolCatalog catalog) {
+        if (snapshotFile == null) {
+            return;
+        }
+        saveLock.lock();
+        try {
+            if (catalog.getVersion() > savedVersion) {
+                write(catalog);
+            }
+        } finally {
+            saveLock.unlock();
+        }
+    }
+    
+    private void write(McpToolCatalog catalog) {
+        Snapshot snapshot = new Snapshot();
+        snapshot.setSavedAt(System.currentTimeMillis());
+        for (Map.Entry<String, List<Map<String, Object>>> entry : catalog.getAllServerTools().entrySet()) {
+            SnapshotEntry value = new SnapshotEntry();
+            value.setHash(catalog.getServerHash(entry.getKey()));
+            value.setTools(entry.getValue());
+            snapshot.getServers().put(entry.getKey(), value);
+        }
+        try {
+            Path parent = snapshotFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            Files.write(tempFile, objectMapper.writeValueAsString(snapshot).getBytes(StandardCharsets.UTF_8));
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            savedVersion = catalog.getVersion();
+            logger.debug("Saved tool snapshot (catalog version {}) to {}", catalog.getVersion(), snapshotFile);
+        } catch (IOException e) {
+            logger.warn("Failed to write tool snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+}
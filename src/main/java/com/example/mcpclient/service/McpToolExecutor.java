@@ -0,0 +1,168 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.config.McpServerConfig;
+import jakarta.annotation.PreDestroy;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 모델 응답 하나에 담긴 여러 도구 호출을 동시에 실행
+ * 서버별 동시 실행 수는 mcp.servers.*.max-parallel-tool-calls로 제한하고, 결과는 호출 순서대로 반환
+ * 제한을 넘는 호출은 스레드를 잡고 기다리지 않고, 먼저 끝난 호출의 스레드가 이어서 처리
+ */
+@Component
+public class McpToolExecutor {
+
+    /**
+     * 특정 MCP 서버로 요청을 보내는 도구 (서버별 동시 실행 수 제한 대상)
+     */
+    public interface ServerScoped {
+        String getServerName();
+    }
+
+    /**
+     * 같은 서버의 여러 도구 호출을 JSON-RPC 배치 요청 하나로 보낼 수 있는 도구
+     */
+    public interface BatchCapable extends ServerScoped {
+        /**
+         * 같은 서버의 도구 호출 여러 개를 배치 요청 하나로 실행 (결과는 calls 순서)
+         */
+        List<String> callBatch(List<BatchCall> calls, ToolContext toolContext);
+    }
+
+    /**
+     * 배치로 보낼 도구 호출 하나 (도구와 모델이 넘긴 인자)
+     */
+    public static final class BatchCall {
+        private final ToolCallback callback;
+        private final String arguments;
+
+        public BatchCall(ToolCallback callback, String arguments) {
+            this.callback = callback;
+            this.arguments = arguments;
+        }
+
+        public ToolCallback getCallback() {
+            return callback;
+        }
+
+        public String getArguments() {
+            return arguments;
+        }
+    }
+
+    /**
+     * 실행할 도구 호출 하나 (serverName이 null이면 동시 실행 수 제한 없음)
+     */
+    public static final class Task<T> {
+        private final String serverName;
+        private final Callable<T> callable;
+
+        public Task(String serverName, Callable<T> callable) {
+            this.serverName = serverName;
+            this.callable = callable;
+        }
+    }
+
+    private final McpServerRegistry serverRegistry;
+    private final ExecutorService executor;
+
+    public McpToolExecutor(McpServerRegistry serverRegistry, Environment environment) {
+        this.serverRegistry = serverRegistry;
+        this.executor = McpExecutors.newTaskExecutor("mcp-tool-call", Threading.VIRTUAL.isActive(environment));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 서버에 동시에 보낼 수 있는 도구 호출 수 (등록되지 않은 서버는 제한 없음)
+     */
+    public int getMaxParallelToolCalls(String serverName) {
+        McpServerConfig.McpServerInfo serverInfo = serverName != null ? serverRegistry.getServer(serverName) : null;
+        return serverInfo != null ? Math.max(1, serverInfo.getMaxParallelToolCalls()) : Integer.MAX_VALUE;
+    }
+
+    /**
+     * 같은 서버의 도구 호출을 배치 하나로 묶을지 여부 (서버 설정 batch-tool-calls, 등록되지 않은 서버는 묶지 않음)
+     */
+    public boolean isBatchEnabled(String serverName) {
+        McpServerConfig.McpServerInfo serverInfo = serverName != null ? serverRegistry.getServer(serverName) : null;
+        return serverInfo != null && serverInfo.isBatchToolCalls();
+    }
+
+    /**
+     * 모든 작업을 실행하고 끝날 때까지 대기 (결과는 tasks 순서)
+     * 작업 하나가 실패해도 나머지는 끝까지 실행하고, 첫 번째 실패를 ExecutionException으로 전달
+     */
+    public <T> List<T> invokeAll(List<Task<T>> tasks) throws InterruptedException, ExecutionException {
+        if (tasks.size() == 1) {
+            // 호출이 하나면 스레드 전환 없이 현재 스레드에서 실행
+            try {
+                return Collections.singletonList(tasks.get(0).callable.call());
+            } catch (Exception e) {
+                throw new ExecutionException(e);
+            }
+        }
+
+        // 서버별로 호출 위치를 모아서, 서버마다 제한 수만큼의 worker가 차례로 꺼내 실행
+        Map<String, List<Integer>> indexesByServer = new LinkedHashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            indexesByServer.computeIfAbsent(tasks.get(i).serverName, key -> new ArrayList<>()).add(i);
+        }
+
+        AtomicReferenceArray<T> results = new AtomicReferenceArray<>(tasks.size());
+        AtomicReferenceArray<Exception> errors = new AtomicReferenceArray<>(tasks.size());
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> entry : indexesByServer.entrySet()) {
+            List<Integer> indexes = entry.getValue();
+            AtomicInteger next = new AtomicInteger();
+            int workerCount = Math.min(indexes.size(), getMaxParallelToolCalls(entry.getKey()));
+            for (int w = 0; w < workerCount; w++) {
+                workers.add(CompletableFuture.runAsync(() -> {
+                    for (int n = next.getAndIncrement(); n < indexes.size(); n = next.getAndIncrement()) {
+                        int index = indexes.get(n);
+                        try {
+                            results.set(index, tasks.get(index).callable.call());
+                        } catch (Exception e) {
+                            errors.set(index, e);
+                        }
+                    }
+                }, executor));
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0])).get();
+        } catch (InterruptedException e) {
+            workers.forEach(worker -> worker.cancel(true));
+            throw e;
+        }
+
+        List<T> ordered = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            if (errors.get(i) != null) {
+                throw new ExecutionException(errors.get(i));
+            }
+            ordered.add(results.get(i));
+        }
+        return ordered;
+    }
+}
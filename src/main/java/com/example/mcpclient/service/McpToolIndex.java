@@ -0,0 +1,149 @@
+package com.example.mcpclient.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * 여러 서버의 도구를 하나의 이름 공간으로 합친 색인 (도구 카탈로그 버전별로 한 번 생성)
+ * 노출 이름은 "서버__도구" 형식이며, 모델이 허용하는 문자/길이에 맞게 정리하고
+ * 정리 후 이름이 겹치면 원래 (서버, 도구) 해시를 붙여 구분
+ * 노출 이름 → (서버, 도구) 조회는 해시 맵 한 번으로 처리
+ */
+public final class McpToolIndex {
+
+    private static final String SEPARATOR = "__";
+    // Gemini 함수 이름 최대 길이
+    private static final int MAX_NAME_LENGTH = 64;
+
+    /**
+     * 노출 이름 하나가 가리키는 서버의 도구
+     */
+    public static final class Entry {
+        private final String namespacedName;
+        private final String serverName;
+        private final String toolName;
+        private final Map<String, Object> tool;
+
+        private Entry(String namespacedName, String serverName, String toolName, Map<String, Object> tool) {
+            this.namespacedName = namespacedName;
+            this.serverName = serverName;
+            this.toolName = toolName;
+            this.tool = tool;
+        }
+
+        public String getNamespacedName() {
+            return namespacedName;
+        }
+
+        public String getServerName() {
+            return serverName;
+        }
+
+        public String getToolName() {
+            return toolName;
+        }
+
+        public Map<String, Object> getTool() {
+            return tool;
+        }
+    }
+
+    private final long catalogVersion;
+    private final Map<String, Entry> entriesByName;
+    private final Map<String, List<Entry>> entriesByServer;
+
+    private McpToolIndex(long catalogVersion, Map<String, Entry> entriesByName, Map<String, List<Entry>> entriesByServer) {
+        this.catalogVersion = catalogVersion;
+        this.entriesByName = entriesByName;
+        this.entriesByServer = entriesByServer;
+    }
+
+    /**
+     * 카탈로그 전체로 색인 생성 (서버 이름 순서로 처리하여 같은 카탈로그면 항상 같은 이름)
+     */
+    public static McpToolIndex build(McpToolCatalog catalog) {
+        Map<String, Entry> entriesByName = new HashMap<>();
+        Map<String, List<Entry>> entriesByServer = new HashMap<>();
+        for (String serverName : new TreeSet<>(catalog.getAllServerTools().keySet())) {
+            List<Entry> serverEntries = new ArrayList<>();
+            for (Map<String, Object> tool : catalog.getServerTools(serverName)) {
+                Object toolName = tool.get("name");
+                if (!(toolName instanceof String name) || name.isEmpty()) {
+                    continue;
+                }
+                String namespacedName = uniqueName(entriesByName, serverName, name);
+                Entry entry = new Entry(namespacedName, serverName, name, tool);
+                entriesByName.put(namespacedName, entry);
+                serverEntries.add(entry);
+            }
+            entriesByServer.put(serverName, Collections.unmodifiableList(serverEntries));
+        }
+        return new McpToolIndex(catalog.getVersion(), entriesByName, entriesByServer);
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    /**
+     * 노출 이름으로 (서버, 도구) 조회 (없으면 null)
+     */
+    public Entry resolve(String namespacedName) {
+        return entriesByName.get(namespacedName);
+    }
+
+    /**
+     * 지정한 서버들의 도구 (서버 순서대로)
+     */
+    public List<Entry> getEntries(Collection<String> serverNames) {
+        List<Entry> entries = new ArrayList<>();
+        for (String serverName : serverNames) {
+            entries.addAll(entriesByServer.getOrDefault(serverName, List.of()));
+        }
+        return entries;
+    }
+
+    private static String uniqueName(Map<String, Entry> taken, String serverName, String toolName) {
+        String name = truncate(sanitize(serverName) + SEPARATOR + sanitize(toolName), MAX_NAME_LENGTH);
+        if (!taken.containsKey(name)) {
+            return name;
+        }
+        // 정리 후 겹치는 이름은 원래 (서버, 도구)의 해시로 구분
+        CRC32 crc = new CRC32();
+        crc.update((serverName + "/" + toolName).getBytes(StandardCharsets.UTF_8));
+        String suffix = "_" + Long.toHexString(crc.getValue());
+        String candidate = truncate(name, MAX_NAME_LENGTH - suffix.length()) + suffix;
+        for (int i = 2; taken.containsKey(candidate); i++) {
+            String numbered = suffix + i;
+            candidate = truncate(name, MAX_NAME_LENGTH - numbered.length()) + numbered;
+        }
+        return candidate;
+    }
+
+    /**
+     * 함수 이름에 쓸 수 없는 문자를 '_'로 치환 (첫 글자는 영문자 또는 '_')
+     */
+    private static String sanitize(String value) {
+        StringBuilder sanitized = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+            sanitized.append(allowed ? c : '_');
+        }
+        if (sanitized.length() == 0 || !(Character.isLetter(sanitized.charAt(0)) || sanitized.charAt(0) == '_')) {
+            sanitized.insert(0, '_');
+        }
+        return sanitized.toString();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
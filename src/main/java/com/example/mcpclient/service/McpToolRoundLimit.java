@@ -0,0 +1,50 @@
+package com.example.mcpclient.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 요청 하나의 도구 호출 반복 횟수 제한 (mcp.max-tool-iterations)
+ * 스트리밍처럼 Spring AI가 도구 호출을 내부에서 반복하는 경우 toolContext에 담아 전달하고,
+ * McpToolCallingManager가 반복마다 tryNextRound()로 확인해 한도를 넘으면 도구를 실행하지 않고 안내 문구로 답변을 끝냄
+ */
+public final class McpToolRoundLimit {
+
+    /** toolContext 키 */
+    public static final String CONTEXT_KEY = "mcpToolRoundLimit";
+
+    private final int maxRounds;
+    private final AtomicInteger rounds = new AtomicInteger();
+
+    public McpToolRoundLimit(int maxRounds) {
+        this.maxRounds = maxRounds;
+    }
+
+    /**
+     * 다음 도구 호출 반복을 시작해도 되는지 확인하고 횟수 증가
+     */
+    public boolean tryNextRound() {
+        return rounds.incrementAndGet() <= maxRounds;
+    }
+
+    public int getMaxRounds() {
+        return maxRounds;
+    }
+
+    /**
+     * 한도에 도달해 답변을 끝낼 때 사용자에게 보여줄 안내 문구
+     */
+    public static String truncationNote(int maxRounds) {
+        return "(도구 호출이 최대 반복 횟수(" + maxRounds + "회)에 도달해 답변을 여기서 마칩니다.)";
+    }
+
+    /**
+     * toolContext 복사본에 새 반복 제한을 추가 (요청마다 새로 만들어야 횟수가 섞이지 않음)
+     */
+    public static Map<String, Object> attach(Map<String, Object> toolContext, int maxRounds) {
+        Map<String, Object> context = new HashMap<>(toolContext);
+        context.put(CONTEXT_KEY, new McpToolRoundLimit(maxRounds));
+        return context;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.mcpclient.service;
+
+/**
+ * 서버가 notifications/tools/list_changed 알림을 보냈을 때 발행되는 이벤트
+ * 각 통신 방식에서 발행하고 McpServerRegistry가 받아 도구 목록을 다시 가져옴
+ */
+public class McpToolsChangedEvent {
+
+    public static final String METHOD = "notifications/tools/list_changed";
+
+    private final String serverName;
+
+    public McpToolsChangedEvent(String serverName) {
+        this.serverName = serverName;
+    }
+
+    public String getServerName() {
+        return serverName;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.config.McpServerConfig;
+import com.example.mcpclient.exception.McpDeadlineExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.core.env.StandardEnvironment;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 스트리밍 응답의 deadline 적용 확인 (일정 간격으로 조각을 보내는 가짜 ChatModel 사용)
+ */
+class GeminiServiceTest {
+
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+    private final McpToolCallingEngine toolCallingEngine = new McpToolCallingEngine(
+            new McpToolCallingManager(new McpToolExecutor(null, new StandardEnvironment())),
+            new McpServerConfig(), new StandardEnvironment());
+
+    @AfterEach
+    void tearDown() {
+        toolCallingEngine.shutdown();
+    }
+
+    @Test
+    void streamIsCancelledWhenChunksKeepArrivingPastDeadline() throws Exception {
+        ChatModel chatModel = chunkingModel(Long.MAX_VALUE);
+        List<String> chunks = new CopyOnWriteArrayList<>();
+
+        long start = System.currentTimeMillis();
+        Flux<String> stream = newService(chatModel).streamResponseWithChatClient(ChatClient.builder(chatModel).build(),
+                List.of(new UserMessage("hi")), Map.of(), McpDeadline.after(1_000));
+
+        assertThrows(McpDeadlineExceededException.class,
+                () -> stream.doOnNext(chunks::add).blockLast(Duration.ofSeconds(5)));
+        assertTrue(System.currentTimeMillis() - start < 3_000);
+        // 첫 조각 이후에도 조각이 계속 오는 중에 종료
+        assertTrue(chunks.size() > 1);
+        assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void streamFinishingBeforeDeadlineCompletesNormally() {
+        ChatModel chatModel = chunkingModel(3);
+
+        List<String> chunks = newService(chatModel).streamResponseWithChatClient(ChatClient.builder(chatModel).build(),
+                List.of(new UserMessage("hi")), Map.of(), McpDeadline.after(5_000)).collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(List.of("chunk 0", "chunk 1", "chunk 2"), chunks);
+    }
+
+    private GeminiService newService(ChatModel chatModel) {
+        return new GeminiService(chatModel, toolCallingEngine);
+    }
+
+    /**
+     * 20ms마다 텍스트 조각을 count개 보내는 ChatModel
+     */
+    private ChatModel chunkingModel(long count) {
+        return new ChatModel() {
+            @Override
+            public ChatResponse call(Prompt prompt) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Flux<ChatResponse> stream(Prompt prompt) {
+                return Flux.interval(Duration.ofMillis(20))
+                        .take(count)
+                        .map(i -> new ChatResponse(List.of(new Generation(
+                                AssistantMessage.builder().content("chunk " + i).build()))))
+                        .doOnCancel(cancelled::countDown);
+            }
+        };
+    }
+}
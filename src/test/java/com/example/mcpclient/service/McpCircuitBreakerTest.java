@@ -0,0 +1,89 @@
+package com.example.mcpclient.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class McpCircuitBreakerTest {
+
+    // 생성자가 허용하는 최소 open 시간
+    private static final long OPEN_MS = 1000;
+
+    private final McpCircuitBreaker breaker = new McpCircuitBreaker("test", OPEN_MS);
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        breaker.recordFailure("timeout");
+        breaker.recordFailure("timeout");
+        assertEquals(McpCircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordFailure("timeout");
+
+        assertEquals(McpCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        assertFalse(breaker.readyForProbe());
+        assertTrue(breaker.getRetryAfterMs() > 0);
+    }
+
+    @Test
+    void opensWhenFailureRateReachesHalf() {
+        // 연속 실패 없이 실패율만 50%
+        for (int i = 0; i < 3; i++) {
+            breaker.recordSuccess();
+            breaker.recordFailure("timeout");
+        }
+
+        assertEquals(McpCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void successResetsConsecutiveFailures() {
+        breaker.recordFailure("timeout");
+        breaker.recordFailure("timeout");
+        breaker.recordPing(5);
+        breaker.recordFailure("timeout");
+
+        assertEquals(McpCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    void halfOpenProbeSuccessClosesCircuit() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_MS + 50);
+
+        // open 시간이 지나면 ping 하나만 허용 (일반 요청은 아직 차단)
+        assertTrue(breaker.readyForProbe());
+        assertEquals(McpCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        breaker.recordPing(10);
+
+        assertEquals(McpCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        assertEquals(0L, breaker.getRetryAfterMs());
+        assertEquals(10L, breaker.getStats().get("lastPingLatencyMs"));
+    }
+
+    @Test
+    void halfOpenProbeFailureReopensWithDoubledOpenTime() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_MS + 50);
+        assertTrue(breaker.readyForProbe());
+
+        breaker.recordFailure("ping failed");
+
+        assertEquals(McpCircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.getRetryAfterMs() > OPEN_MS);
+        assertEquals(2L, breaker.getStats().get("totalOpened"));
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure("timeout");
+        }
+        assertEquals(McpCircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
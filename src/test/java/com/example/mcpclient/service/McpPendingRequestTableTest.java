@@ -0,0 +1,73 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.model.McpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class McpPendingRequestTableTest {
+
+    private final McpPendingRequestTable table = new McpPendingRequestTable("test", "conn-1");
+
+    @Test
+    void completeDeliversResponseAndRemovesEntry() throws Exception {
+        CompletableFuture<McpResponse> future = table.register("1", 10_000);
+        McpResponse response = new McpResponse(Map.of(), "1");
+
+        assertTrue(table.complete("1", response));
+
+        assertSame(response, future.get(1, TimeUnit.SECONDS));
+        assertEquals(0, table.getInFlightCount());
+        // 이미 처리된 id의 늦은 응답은 무시
+        assertFalse(table.complete("1", response));
+    }
+
+    @Test
+    void expiredRequestFailsWithTimeoutAndLeavesNoEntry() throws Exception {
+        CompletableFuture<McpResponse> future = table.register("1", 100);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertEquals(0, table.getInFlightCount());
+        assertEquals(1L, table.getStats().get("expiredTotal"));
+        // 만료 후 도착한 응답은 전달 대상이 없음
+        assertFalse(table.complete("1", new McpResponse(Map.of(), "1")));
+    }
+
+    @Test
+    void failAllFailsEveryPendingRequest() {
+        CompletableFuture<McpResponse> first = table.register("1", 10_000);
+        CompletableFuture<McpResponse> second = table.register("2", 10_000);
+        IOException cause = new IOException("connection closed");
+
+        table.failAll(cause);
+
+        for (CompletableFuture<McpResponse> future : List.of(first, second)) {
+            ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+            assertSame(cause, error.getCause());
+        }
+        assertEquals(0, table.getInFlightCount());
+        assertEquals(0L, table.getOldestAgeMs());
+    }
+
+    @Test
+    void duplicateIdInFlightIsRejected() {
+        table.register("1", 10_000);
+
+        assertThrows(IllegalStateException.class, () -> table.register("1", 10_000));
+        table.failAll(new IOException("done"));
+    }
+}
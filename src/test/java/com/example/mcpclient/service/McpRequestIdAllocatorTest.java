@@ -0,0 +1,55 @@
+package com.example.mcpclient.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class McpRequestIdAllocatorTest {
+
+    @Test
+    void concurrentAllocationsNeverCollide() throws Exception {
+        McpRequestIdAllocator allocator = new McpRequestIdAllocator();
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    ids.add(allocator.next("tool-call"));
+                }
+            }));
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(8000, ids.size());
+    }
+
+    @Test
+    void eachConnectionGetsItsOwnEpoch() {
+        McpRequestIdAllocator first = new McpRequestIdAllocator();
+        McpRequestIdAllocator reconnected = new McpRequestIdAllocator();
+
+        // 재연결 후 순번이 다시 1부터 시작해도 이전 연결의 ID와 겹치지 않음
+        assertNotEquals(first.getEpoch(), reconnected.getEpoch());
+        assertNotEquals(first.next("ping"), reconnected.next("ping"));
+        assertTrue(reconnected.next("ping").startsWith("ping-" + reconnected.getEpoch() + "-"));
+    }
+}
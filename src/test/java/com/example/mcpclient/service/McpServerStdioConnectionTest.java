@@ -0,0 +1,72 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.config.McpServerConfig;
+import com.example.mcpclient.model.McpRequest;
+import com.example.mcpclient.model.McpResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 받은 줄을 파일에 기록하고 정해진 응답을 돌려주는 sh 서버로 배치 전송 확인
+ */
+@EnabledOnOs({OS.LINUX, OS.MAC})
+class McpServerStdioConnectionTest {
+
+    private final McpServerStdioConnection connection = new McpServerStdioConnection(new ObjectMapper(), event -> { });
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        connection.disconnectServer("test");
+        connection.shutdown();
+    }
+
+    @Test
+    void batchIsWrittenAsOneFrameAndResponsesAreMatchedById() throws Exception {
+        Path frames = tempDir.resolve("frames");
+        // 응답 순서를 섞고 배열 프레임과 단일 프레임으로 나눠서 응답
+        String script = "while IFS= read -r line; do printf '%s\\n' \"$line\" >> '" + frames + "'; "
+                + "printf '%s\\n' "
+                + "'[{\"jsonrpc\":\"2.0\",\"id\":\"c\",\"result\":{\"tool\":\"c\"}},{\"jsonrpc\":\"2.0\",\"id\":\"a\",\"result\":{\"tool\":\"a\"}}]' "
+                + "'{\"jsonrpc\":\"2.0\",\"id\":\"b\",\"result\":{\"tool\":\"b\"}}'; done";
+        connection.connectServer("test", serverInfo(script));
+
+        List<McpResponse> responses = connection.sendBatch("test", List.of(
+                toolCall("a"), toolCall("b"), toolCall("c")), 5_000);
+
+        assertEquals(List.of("a", "b", "c"), responses.stream().map(McpResponse::getId).toList());
+        for (McpResponse response : responses) {
+            assertEquals(Map.of("tool", response.getId()), response.getResult());
+        }
+        List<String> written = Files.readAllLines(frames, StandardCharsets.UTF_8);
+        assertEquals(1, written.size());
+        assertTrue(written.get(0).startsWith("["));
+        assertEquals(3, written.get(0).split("\"tools/call\"", -1).length - 1);
+    }
+
+    private static McpRequest toolCall(String id) {
+        return new McpRequest("tools/call", Map.of("name", id, "arguments", Map.of()), id);
+    }
+
+    private static McpServerConfig.McpServerInfo serverInfo(String script) {
+        McpServerConfig.McpServerInfo serverInfo = new McpServerConfig.McpServerInfo();
+        serverInfo.setCommand("sh");
+        serverInfo.setArgs(new String[] {"-c", script});
+        return serverInfo;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.config.McpServerConfig;
+import com.example.mcpclient.model.McpRequest;
+import com.example.mcpclient.model.McpResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 세션을 발급하는 Streamable HTTP 서버(JDK HttpServer)로 세션 만료 처리 확인
+ */
+class McpServerStreamableHttpConnectionTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger initializeCount = new AtomicInteger();
+    private volatile String activeSessionId;
+    private volatile boolean failInitialize;
+
+    private HttpServer server;
+    private McpServerStreamableHttpConnection connection;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/mcp", this::handle);
+        server.start();
+        connection = new McpServerStreamableHttpConnection(
+                new McpSseClientManager(objectMapper, event -> { }), objectMapper, event -> { });
+    }
+
+    @AfterEach
+    void tearDown() {
+        connection.disconnectServer("test");
+        server.stop(0);
+    }
+
+    @Test
+    void expiredSessionIsReinitializedAndRequestRetriedOnce() throws Exception {
+        connection.connectServer("test", serverInfo());
+        assertEquals(1, initializeCount.get());
+
+        // 서버 재시작 등으로 세션 만료
+        activeSessionId = null;
+        McpResponse response = connection.sendRequest("test", new McpRequest("tools/list", new HashMap<>(), null));
+
+        assertNotNull(response.getResult());
+        assertEquals(2, initializeCount.get());
+        assertTrue(connection.isConnected("test"));
+    }
+
+    @Test
+    void failedReinitializationMarksServerDisconnected() throws Exception {
+        connection.connectServer("test", serverInfo());
+
+        activeSessionId = null;
+        failInitialize = true;
+
+        assertThrows(IOException.class,
+                () -> connection.sendRequest("test", new McpRequest("tools/list", new HashMap<>(), null)));
+        assertFalse(connection.isConnected("test"));
+
+        // 서버가 다시 초기화를 받아주면 백그라운드 재시도로 회복
+        failInitialize = false;
+        McpStdioProcessPoolTest.awaitTrue(() -> connection.isConnected("test"), 10_000);
+    }
+
+    private McpServerConfig.McpServerInfo serverInfo() {
+        McpServerConfig.McpServerInfo serverInfo = new McpServerConfig.McpServerInfo();
+        serverInfo.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/mcp");
+        return serverInfo;
+    }
+
+    /**
+     * initialize마다 새 세션을 발급하고, 모르는 세션의 요청에는 404로 응답
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        String method = request.path("method").asText();
+        String sessionId = exchange.getRequestHeaders().getFirst("Mcp-Session-Id");
+
+        if ("initialize".equals(method)) {
+            if (failInitialize) {
+                respond(exchange, 500, null);
+                return;
+            }
+            activeSessionId = "session-" + initializeCount.incrementAndGet();
+            exchange.getResponseHeaders().set("Mcp-Session-Id", activeSessionId);
+            respond(exchange, 200, result(request, "{\"protocolVersion\":\"2025-03-26\"}"));
+        } else if (sessionId == null || !sessionId.equals(activeSessionId)) {
+            respond(exchange, 404, null);
+        } else if (!request.has("id")) {
+            respond(exchange, 202, null);
+        } else {
+            respond(exchange, 200, result(request, "{\"tools\":[]}"));
+        }
+    }
+
+    private static String result(JsonNode request, String result) {
+        return "{\"jsonrpc\":\"2.0\",\"id\":" + request.get("id") + ",\"result\":" + result + "}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (body != null) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+        }
+        exchange.sendResponseHeaders(status, bytes.length > 0 ? bytes.length : -1);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.model.McpResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 이벤트 ID를 보내는 SSE 서버(JDK HttpServer)로 재연결 후 대기 요청 처리 확인
+ */
+class McpSseClientManagerTest {
+
+    private static final String TOOLS_CHANGED_EVENT =
+            "id: 1\ndata: {\"jsonrpc\":\"2.0\",\"method\":\"notifications/tools/list_changed\"}\n\n";
+
+    private final AtomicInteger connectCount = new AtomicInteger();
+    // 첫 스트림이 이벤트를 받은 뒤 끊기도록 신호
+    private final CountDownLatch dropFirstStream = new CountDownLatch(1);
+    // 재연결된 스트림을 테스트 종료까지 유지
+    private final CountDownLatch releaseStreams = new CountDownLatch(1);
+    private final CountDownLatch eventReceived = new CountDownLatch(1);
+    private volatile boolean rejectReconnect;
+    private volatile String replayedEvent;
+    private volatile String lastEventIdHeader;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private McpSseClientManager manager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/mcp/events", this::handle);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        manager = new McpSseClientManager(new ObjectMapper(), event -> eventReceived.countDown());
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseStreams.countDown();
+        manager.stopSseConnection("test");
+        manager.cancelAllPendingRequests("test");
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void failedReconnectFailsPendingRequests() throws Exception {
+        rejectReconnect = true;
+        connect(60_000);
+        CompletableFuture<McpResponse> pending = manager.registerRequest("test", "r1", 30_000);
+
+        dropFirstStream.countDown();
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> pending.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, error.getCause());
+        assertTrue(error.getCause().getMessage().contains("could not be reconnected"));
+        assertEquals(0, manager.getInFlightCount("test"));
+    }
+
+    @Test
+    void requestsNotReplayedWithinGracePeriodFailAfterReconnect() throws Exception {
+        replayedEvent = "id: 2\ndata: {\"jsonrpc\":\"2.0\",\"id\":\"r1\",\"result\":{}}\n\n";
+        connect(300);
+        CompletableFuture<McpResponse> replayed = manager.registerRequest("test", "r1", 30_000);
+        CompletableFuture<McpResponse> lost = manager.registerRequest("test", "r2", 30_000);
+
+        dropFirstStream.countDown();
+
+        assertNotNull(replayed.get(5, TimeUnit.SECONDS).getResult());
+        assertEquals("1", lastEventIdHeader);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> lost.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, error.getCause());
+        assertTrue(error.getCause().getMessage().contains("not replayed"));
+        assertTrue(manager.isStreamConnected("test"));
+    }
+
+    /**
+     * 첫 스트림 연결 후 이벤트 ID가 있는 이벤트를 받을 때까지 대기
+     */
+    private void connect(long replayGraceMs) throws Exception {
+        manager.startSseConnection("test", "http://127.0.0.1:" + server.getAddress().getPort(), "client",
+                60_000, replayGraceMs).get(5, TimeUnit.SECONDS);
+        assertTrue(eventReceived.await(5, TimeUnit.SECONDS));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (connectCount.incrementAndGet() == 1) {
+                openStream(exchange, TOOLS_CHANGED_EVENT);
+                await(dropFirstStream);
+                return;
+            }
+            lastEventIdHeader = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+            if (rejectReconnect) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            openStream(exchange, replayedEvent);
+            await(releaseStreams);
+        }
+    }
+
+    private static void openStream(HttpExchange exchange, String event) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = exchange.getResponseBody();
+        body.write(event.getBytes(StandardCharsets.UTF_8));
+        body.flush();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
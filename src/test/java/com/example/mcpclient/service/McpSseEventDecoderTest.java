@@ -0,0 +1,112 @@
+package com.example.mcpclient.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class McpSseEventDecoderTest {
+
+    private final List<String> events = new ArrayList<>();
+    private final List<Long> retries = new ArrayList<>();
+    private final McpSseEventDecoder decoder = new McpSseEventDecoder(
+            event -> events.add(event.getType() + "|" + event.getLastEventId() + "|" + event.getDataAsString()),
+            retries::add);
+
+    @Test
+    void decodesMultiLineDataEventTypeAndId() {
+        feed("event: update\nid: 7\ndata: first\ndata:second\n\n");
+
+        assertEquals(List.of("update|7|first\nsecond"), events);
+        assertEquals("7", decoder.getLastEventId());
+    }
+
+    @Test
+    void eventSplitAcrossChunksAndLineEndingsIsReassembled() {
+        feed("da");
+        feed("ta: {\"a\":");
+        feed("1}\r");
+        feed("\nid: 3\r\n\r");
+        feed("\n");
+
+        assertEquals(List.of("message|3|{\"a\":1}"), events);
+    }
+
+    @Test
+    void commentsAndUnknownFieldsAreIgnored() {
+        feed(": heartbeat\nfoo: bar\ndata: x\n\n: heartbeat\n\n");
+
+        assertEquals(List.of("message|null|x"), events);
+    }
+
+    @Test
+    void retryFieldAcceptsOnlyDigits() {
+        feed("retry: 1500\nretry: 10s\nretry:\n\n");
+
+        assertEquals(List.of(1500L), retries);
+    }
+
+    @Test
+    void idWithNullCharacterIsIgnored() {
+        feed("id: 1\ndata: a\n\nid: 2\u0000\ndata: b\n\n");
+
+        assertEquals(List.of("message|1|a", "message|1|b"), events);
+    }
+
+    @Test
+    void idOnlyEventUpdatesLastEventId() {
+        feed("id: 9\n\n");
+
+        assertEquals(List.of(), events);
+        assertEquals("9", decoder.getLastEventId());
+    }
+
+    @Test
+    void lastEventIdIsCommittedOnlyWhenEventIsDispatched() {
+        feed("id: 1\ndata: a\n\n");
+        // 두 번째 이벤트가 끝나기 전에 연결이 끊김
+        feed("id: 2\ndata: b");
+
+        assertEquals("1", decoder.getLastEventId());
+
+        // 재연결 후 서버가 이벤트 2를 다시 보냄 (끊긴 이벤트의 id/data는 남지 않음)
+        decoder.reset();
+        feed("data: c\n\n");
+
+        assertEquals(List.of("message|1|a", "message|1|c"), events);
+        assertEquals("1", decoder.getLastEventId());
+    }
+
+    @Test
+    void leadingByteOrderMarkIsStrippedOnEachNewStream() {
+        feedBytes(new byte[] {(byte) 0xEF, (byte) 0xBB});
+        feedBytes(new byte[] {(byte) 0xBF});
+        feed("data: a\n\n");
+        decoder.reset();
+        feedBytes(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+        feed("id: 5\ndata: b\n\n");
+
+        assertEquals(List.of("message|null|a", "message|5|b"), events);
+    }
+
+    @Test
+    void resetDropsPartialEventButKeepsLastEventId() {
+        feed("id: 4\ndata: a\n\nevent: custom\ndata: partial\n");
+        decoder.reset();
+        feed("data: b\n\n");
+
+        assertEquals(List.of("message|4|a", "message|4|b"), events);
+    }
+
+    private void feed(String text) {
+        feedBytes(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void feedBytes(byte[] bytes) {
+        decoder.decode(DefaultDataBufferFactory.sharedInstance.wrap(bytes));
+    }
+}
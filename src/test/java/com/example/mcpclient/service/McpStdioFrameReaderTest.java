@@ -0,0 +1,80 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.model.McpResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class McpStdioFrameReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<McpResponse> responses = new ArrayList<>();
+
+    @Test
+    void readsObjectAndBatchFramesAndSkipsNonJsonLines() throws IOException {
+        read(new ByteArrayInputStream((
+                "server started\n"
+                + "{\"jsonrpc\":\"2.0\",\"id\":\"1\",\"result\":{}}\r\n"
+                + "\n"
+                + "[{\"jsonrpc\":\"2.0\",\"id\":\"2\",\"result\":{}},{\"jsonrpc\":\"2.0\",\"id\":\"3\",\"result\":{}}]\n"
+                + "{\"jsonrpc\":\"2.0\",\"id\":\"4\",\"result\":{}}").getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of("1", "2", "3", "4"), ids());
+    }
+
+    @Test
+    void malformedFrameDoesNotStopFollowingFrames() throws IOException {
+        read(new ByteArrayInputStream((
+                "{\"jsonrpc\":\"2.0\",\"id\":\n"
+                + "{\"jsonrpc\":\"2.0\",\"id\":\"2\",\"result\":{}}\n").getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of("2"), ids());
+    }
+
+    @Test
+    void framesLargerThanBufferAndSplitAcrossReadsAreReassembled() throws IOException {
+        // 초기 버퍼(64KB)보다 큰 결과를 몇 바이트씩 나눠서 전달
+        String large = "x".repeat(200 * 1024);
+        byte[] bytes = ("{\"jsonrpc\":\"2.0\",\"id\":\"1\",\"result\":{\"text\":\"" + large + "\"}}\n"
+                + "{\"jsonrpc\":\"2.0\",\"id\":\"2\",\"result\":{}}\n").getBytes(StandardCharsets.UTF_8);
+
+        read(new TrickleInputStream(bytes, 7000));
+
+        assertEquals(List.of("1", "2"), ids());
+        assertEquals(large, ((Map<?, ?>) responses.get(0).getResult()).get("text"));
+    }
+
+    private void read(InputStream inputStream) throws IOException {
+        new McpStdioFrameReader("test", inputStream, objectMapper).readFrames(responses::add);
+    }
+
+    private List<String> ids() {
+        return responses.stream().map(McpResponse::getId).toList();
+    }
+
+    /**
+     * 한 번에 최대 chunkSize 바이트만 돌려주는 스트림 (파이프에서 조각나 도착하는 경우 재현)
+     */
+    private static final class TrickleInputStream extends ByteArrayInputStream {
+        private final int chunkSize;
+
+        TrickleInputStream(byte[] bytes, int chunkSize) {
+            super(bytes);
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, chunkSize));
+        }
+    }
+}
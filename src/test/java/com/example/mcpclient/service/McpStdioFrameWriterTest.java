@@ -0,0 +1,139 @@
+package com.example.mcpclient.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class McpStdioFrameWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writesNewlineDelimitedFrames() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        McpStdioFrameWriter writer = new McpStdioFrameWriter("test", out, objectMapper, "test-writer");
+        writer.start();
+
+        CompletableFuture<Void> first = writer.write(Map.of("id", "1"));
+        CompletableFuture<Void> second = writer.write(List.of(Map.of("id", "2"), Map.of("id", "3")));
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertEquals("{\"id\":\"1\"}\n[{\"id\":\"2\"},{\"id\":\"3\"}]\n", out.toString(StandardCharsets.UTF_8));
+        writer.close();
+    }
+
+    @Test
+    void writeAfterCloseFailsImmediately() {
+        McpStdioFrameWriter writer = new McpStdioFrameWriter("test", new ByteArrayOutputStream(), objectMapper, "test-writer");
+        writer.start();
+        writer.close();
+
+        CompletableFuture<Void> written = writer.write(Map.of("id", "1"));
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> written.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, error.getCause());
+    }
+
+    @Test
+    void closeLetsWriterFinishCurrentBatchAndFailsQueuedFrames() throws Exception {
+        BlockingOutputStream out = new BlockingOutputStream();
+        McpStdioFrameWriter writer = new McpStdioFrameWriter("test", out, objectMapper, "test-writer");
+        writer.start();
+
+        CompletableFuture<Void> inFlight = writer.write(Map.of("id", "1"));
+        assertTrue(out.entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> queued = writer.write(Map.of("id", "2"));
+
+        writer.close();
+        // 쓰는 중에는 스트림을 닫지 않음
+        assertFalse(out.closed);
+
+        out.release.countDown();
+        inFlight.get(5, TimeUnit.SECONDS);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, error.getCause());
+        assertTrue(out.closedLatch.await(5, TimeUnit.SECONDS));
+        assertEquals("test-writer", out.closingThread);
+    }
+
+    @Test
+    void everyFrameCompletesWhenCloseRacesWithWrites() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            McpStdioFrameWriter writer = new McpStdioFrameWriter("test", OutputStream.nullOutputStream(), objectMapper, "test-writer");
+            writer.start();
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    futures.add(writer.write(Map.of("id", String.valueOf(i))));
+                }
+            });
+            producer.start();
+            writer.close();
+            producer.join();
+
+            // 성공이든 실패든 모든 future가 완료되어야 함 (호출자가 timeout까지 멈추지 않음)
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .handle((ignored, error) -> null)
+                .get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 첫 쓰기에서 release될 때까지 멈추는 스트림 (느린 파이프 흉내)
+     */
+    private static final class BlockingOutputStream extends OutputStream {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch closedLatch = new CountDownLatch(1);
+        private volatile boolean closed;
+        private volatile String closingThread;
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            entered.countDown();
+            // 파이프 쓰기처럼 인터럽트로 중단되지 않음
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    release.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            closingThread = Thread.currentThread().getName();
+            closedLatch.countDown();
+        }
+    }
+}
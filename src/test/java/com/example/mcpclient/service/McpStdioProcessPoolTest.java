@@ -0,0 +1,121 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.config.McpServerConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 실제 자식 프로세스(sh, sed, sleep)로 풀의 재시작/예비 프로세스 동작 확인
+ */
+@EnabledOnOs({OS.LINUX, OS.MAC})
+class McpStdioProcessPoolTest {
+
+    // 받은 요청의 id로 빈 결과를 돌려주는 최소 JSON-RPC 서버
+    private static final String ECHO_SERVER =
+        "sed -u 's/.*\"id\":\"\\([^\"]*\\)\".*/{\"jsonrpc\":\"2.0\",\"id\":\"\\1\",\"result\":{}}/'";
+
+    private final RecordingScheduler scheduler = new RecordingScheduler();
+    private McpStdioProcessPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void respawnsCrashedProcessWithExponentialBackoff() throws Exception {
+        pool = newPool(serverInfo("exit 3", false));
+        pool.start();
+
+        awaitTrue(() -> scheduler.delays.size() >= 3, 10_000);
+        assertEquals(List.of(500L, 1000L, 2000L), scheduler.delays.subList(0, 3));
+    }
+
+    @Test
+    void promotesWarmStandbyWhenProcessCrashes() throws Exception {
+        pool = newPool(serverInfo(ECHO_SERVER, true));
+        pool.start();
+        awaitTrue(pool::hasStandby, 5_000);
+
+        McpStdioProcess crashed = pool.select();
+        crashed.getProcess().destroy();
+
+        awaitTrue(() -> !pool.hasStandby(), 5_000);
+        McpStdioProcess promoted = pool.select();
+        assertNotSame(crashed, promoted);
+        assertTrue(promoted.isAlive());
+        // 교체 후 새 예비 프로세스 준비
+        awaitTrue(pool::hasStandby, 10_000);
+    }
+
+    @Test
+    void slowStandbyWarmupDoesNotBlockSupervisor() throws Exception {
+        // ping에 응답하지 않는 서버: 예비 프로세스가 준비되지 않은 채 남음
+        pool = newPool(serverInfo("exec sleep 30", true));
+        pool.start();
+
+        // 공유 supervisor 스레드가 다른 작업을 바로 처리할 수 있어야 함
+        scheduler.submit(() -> { }).get(2, TimeUnit.SECONDS);
+    }
+
+    private McpStdioProcessPool newPool(McpServerConfig.McpServerInfo serverInfo) {
+        return new McpStdioProcessPool("test", serverInfo, new ObjectMapper(), scheduler, notification -> { });
+    }
+
+    private static McpServerConfig.McpServerInfo serverInfo(String script, boolean warmStandby) {
+        McpServerConfig.McpServerInfo serverInfo = new McpServerConfig.McpServerInfo();
+        serverInfo.setCommand("sh");
+        serverInfo.setArgs(new String[] {"-c", script});
+        serverInfo.setMinProcesses(1);
+        serverInfo.setMaxProcesses(1);
+        serverInfo.setWarmStandby(warmStandby);
+        return serverInfo;
+    }
+
+    static void awaitTrue(BooleanSupplier condition, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within " + timeoutMs + "ms");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * 지연 실행 요청의 지연 시간을 기록하는 단일 스레드 스케줄러 (실제 supervisor와 같은 구성)
+     */
+    private static final class RecordingScheduler extends ScheduledThreadPoolExecutor {
+        private final List<Long> delays = new CopyOnWriteArrayList<>();
+
+        RecordingScheduler() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            // execute()/submit()도 지연 0으로 이 메서드를 거치므로 지연 실행만 기록
+            if (delay > 0) {
+                delays.add(unit.toMillis(delay));
+            }
+            return super.schedule(command, delay, unit);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.config.McpServerConfig;
+import com.example.mcpclient.exception.McpDeadlineExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 모델이 도구 호출을 멈추지 않을 때 반복 한도 처리 확인 (항상 도구를 호출하는 가짜 ChatModel 사용)
+ * 응답이 늦는 가짜 ChatModel로 Gemini 호출 하나의 deadline 적용 확인
+ */
+class McpToolCallingEngineTest {
+
+    private static final int MAX_ITERATIONS = 2;
+
+    private final AtomicInteger toolCalls = new AtomicInteger();
+    private final ToolCallback echoTool = new ToolCallback() {
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return ToolDefinition.builder().name("echo").description("echo").inputSchema("{}").build();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            return call(toolInput, null);
+        }
+
+        @Override
+        public String call(String toolInput, ToolContext toolContext) {
+            toolCalls.incrementAndGet();
+            return "ok";
+        }
+    };
+    private final McpToolCallingManager toolCallingManager =
+            new McpToolCallingManager(new McpToolExecutor(null, new StandardEnvironment()));
+    private McpToolCallingEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void returnsLastTextWithNoteWhenIterationLimitIsReached() {
+        AtomicInteger modelCalls = new AtomicInteger();
+        ChatModel chatModel = prompt -> toolCallResponse("step " + modelCalls.incrementAndGet(), 1);
+        engine = newEngine();
+
+        String answer = engine.run(ChatClient.builder(chatModel).defaultToolCallbacks(echoTool).build(),
+                "system", List.of(new UserMessage("hi")), List.of(echoTool), Map.of(), null);
+
+        assertEquals("step 3\n\n" + McpToolRoundLimit.truncationNote(MAX_ITERATIONS), answer);
+        assertEquals(MAX_ITERATIONS + 1, modelCalls.get());
+        assertEquals(MAX_ITERATIONS, toolCalls.get());
+    }
+
+    @Test
+    void slowGeminiCallIsAbandonedWhenDeadlinePasses() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        ChatModel slowModel = prompt -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            return toolCallResponse("late", 0);
+        };
+        engine = newEngine();
+
+        long start = System.currentTimeMillis();
+        assertThrows(McpDeadlineExceededException.class, () -> engine.run(ChatClient.builder(slowModel).build(),
+                "system", List.of(new UserMessage("hi")), List.of(echoTool), Map.of(), McpDeadline.after(200)));
+
+        assertTrue(System.currentTimeMillis() - start < 2_000);
+        // 기다리지 않게 된 호출은 취소
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void roundLimitInToolContextStopsToolExecutionWithDirectNote() {
+        // 스트리밍 경로: Spring AI가 반복마다 executeToolCalls를 호출
+        Map<String, Object> toolContext = McpToolRoundLimit.attach(Map.of(), MAX_ITERATIONS);
+        Prompt prompt = new Prompt(List.of(new UserMessage("hi")), ToolCallingChatOptions.builder()
+                .toolCallbacks(echoTool)
+                .toolContext(toolContext)
+                .build());
+
+        for (int round = 0; round < MAX_ITERATIONS; round++) {
+            // 여러 도구 호출(병렬 실행 경로)과 단일 호출(기본 구현 위임 경로) 모두 한도 안에서는 실행
+            ToolExecutionResult result = toolCallingManager.executeToolCalls(prompt, toolCallResponse("", round + 1));
+            assertFalse(result.returnDirect());
+        }
+        assertEquals(3, toolCalls.get());
+
+        ToolExecutionResult result = toolCallingManager.executeToolCalls(prompt, toolCallResponse("", 2));
+
+        assertTrue(result.returnDirect());
+        assertEquals(3, toolCalls.get());
+        List<Message> history = result.conversationHistory();
+        ToolResponseMessage last = assertInstanceOf(ToolResponseMessage.class, history.get(history.size() - 1));
+        assertEquals(McpToolRoundLimit.truncationNote(MAX_ITERATIONS), last.getResponses().get(0).responseData());
+    }
+
+    private McpToolCallingEngine newEngine() {
+        McpServerConfig serverConfig = new McpServerConfig();
+        serverConfig.setMaxToolIterations(MAX_ITERATIONS);
+        return new McpToolCallingEngine(toolCallingManager, serverConfig, new StandardEnvironment());
+    }
+
+    private static ChatResponse toolCallResponse(String text, int toolCallCount) {
+        List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>();
+        for (int i = 0; i < toolCallCount; i++) {
+            toolCalls.add(new AssistantMessage.ToolCall("call-" + i, "function", "echo", "{}"));
+        }
+        return new ChatResponse(List.of(new Generation(
+                AssistantMessage.builder().content(text).toolCalls(toolCalls).build())));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.config.McpServerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 같은 서버 도구 호출의 배치 묶음 확인 (callBatch 호출을 기록하는 가짜 도구 사용)
+ */
+class McpToolCallingManagerTest {
+
+    // callBatch 한 번에 받은 도구 이름
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private McpToolExecutor toolExecutor;
+
+    @AfterEach
+    void tearDown() {
+        toolExecutor.shutdown();
+    }
+
+    @Test
+    void sameServerCallsAreSentAsOneBatchAndResultsKeepCallOrder() {
+        McpToolCallingManager manager = newManager(true);
+
+        List<String> results = execute(manager, "a", "other", "b", "c");
+
+        assertEquals(List.of(List.of("a", "b", "c")), batches);
+        assertEquals(List.of("a:batch", "other:single", "b:batch", "c:batch"), results);
+    }
+
+    @Test
+    void callsAreSentOneByOneWhenBatchingIsDisabled() {
+        McpToolCallingManager manager = newManager(false);
+
+        List<String> results = execute(manager, "a", "b");
+
+        assertEquals(List.of(), batches);
+        assertEquals(List.of("a:single", "b:single"), results);
+    }
+
+    private McpToolCallingManager newManager(boolean batchToolCalls) {
+        McpServerConfig.McpServerInfo serverInfo = new McpServerConfig.McpServerInfo();
+        serverInfo.setBatchToolCalls(batchToolCalls);
+        toolExecutor = new McpToolExecutor(
+                new McpToolExecutorTest.FixedServerRegistry(Map.of("batch", serverInfo)), new StandardEnvironment());
+        return new McpToolCallingManager(toolExecutor);
+    }
+
+    /**
+     * 모델이 도구 이름 순서대로 호출했을 때 모델에 돌려줄 결과
+     */
+    private List<String> execute(McpToolCallingManager manager, String... toolNames) {
+        List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>();
+        for (String toolName : toolNames) {
+            toolCalls.add(new AssistantMessage.ToolCall("call-" + toolName, "function", toolName, "{}"));
+        }
+        Prompt prompt = new Prompt(List.of(new UserMessage("hi")), ToolCallingChatOptions.builder()
+                .toolCallbacks(new BatchTool("a"), new BatchTool("b"), new BatchTool("c"), new SingleTool("other"))
+                .build());
+        ChatResponse response = new ChatResponse(List.of(new Generation(
+                AssistantMessage.builder().content("").toolCalls(toolCalls).build())));
+
+        List<Message> history = manager.executeToolCalls(prompt, response).conversationHistory();
+        ToolResponseMessage toolResponses = (ToolResponseMessage) history.get(history.size() - 1);
+        for (int i = 0; i < toolNames.length; i++) {
+            assertEquals("call-" + toolNames[i], toolResponses.getResponses().get(i).id());
+        }
+        return toolResponses.getResponses().stream().map(ToolResponseMessage.ToolResponse::responseData).toList();
+    }
+
+    private static ToolDefinition definition(String name) {
+        return ToolDefinition.builder().name(name).description(name).inputSchema("{}").build();
+    }
+
+    /**
+     * "batch" 서버의 배치 가능한 도구
+     */
+    private final class BatchTool implements ToolCallback, McpToolExecutor.BatchCapable {
+        private final String name;
+
+        BatchTool(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getServerName() {
+            return "batch";
+        }
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return definition(name);
+        }
+
+        @Override
+        public String call(String toolInput) {
+            return name + ":single";
+        }
+
+        @Override
+        public List<String> callBatch(List<McpToolExecutor.BatchCall> calls, ToolContext toolContext) {
+            List<String> names = calls.stream().map(call -> call.getCallback().getToolDefinition().name()).toList();
+            batches.add(names);
+            return names.stream().map(name -> name + ":batch").toList();
+        }
+    }
+
+    private static final class SingleTool implements ToolCallback {
+        private final String name;
+
+        SingleTool(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return definition(name);
+        }
+
+        @Override
+        public String call(String toolInput) {
+            return name + ":single";
+        }
+    }
+}
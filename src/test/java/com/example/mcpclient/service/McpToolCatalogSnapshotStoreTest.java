@@ -0,0 +1,98 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.config.McpServerConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class McpToolCatalogSnapshotStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void hashIgnoresKeyOrderAtEveryLevel() {
+        McpToolCatalogSnapshotStore store = newStore(null);
+
+        String hash = store.hash(List.of(tool("search", "a", "b")));
+
+        assertEquals(hash, store.hash(List.of(tool("search", "b", "a"))));
+        assertNotEquals(hash, store.hash(List.of(tool("lookup", "a", "b"))));
+    }
+
+    @Test
+    void catalogKeepsVersionWhenContentHashIsUnchanged() {
+        McpToolCatalogSnapshotStore store = newStore(null);
+        List<Map<String, Object>> tools = List.of(tool("search", "a", "b"));
+        McpToolCatalog catalog = McpToolCatalog.empty().withServerTools("test", tools, store.hash(tools));
+
+        // 같은 내용을 키 순서만 바꿔 다시 받아도 버전이 오르지 않음
+        List<Map<String, Object>> reordered = List.of(tool("search", "b", "a"));
+        assertSame(catalog, catalog.withServerTools("test", reordered, store.hash(reordered)));
+
+        List<Map<String, Object>> changed = List.of(tool("lookup", "a", "b"));
+        McpToolCatalog updated = catalog.withServerTools("test", changed, store.hash(changed));
+        assertEquals(catalog.getVersion() + 1, updated.getVersion());
+        assertEquals(updated.getVersion(), updated.getServerVersion("test"));
+    }
+
+    @Test
+    void savedSnapshotIsLoadedAndCorruptEntriesAreSkipped() throws Exception {
+        Path file = tempDir.resolve("tools.json");
+        McpToolCatalogSnapshotStore store = newStore(file);
+        List<Map<String, Object>> tools = List.of(tool("search", "a", "b"));
+        store.save(McpToolCatalog.empty()
+                .withServerTools("good", tools, store.hash(tools))
+                .withServerTools("bad", tools, store.hash(tools)));
+
+        // 한 서버 항목의 도구 목록만 바꿔 해시가 맞지 않게 만듦
+        JsonNode snapshot = objectMapper.readTree(file.toFile());
+        ((ObjectNode) snapshot.path("servers").path("bad"))
+                .set("tools", objectMapper.valueToTree(List.of(tool("tampered", "a", "b"))));
+        Files.write(file, objectMapper.writeValueAsString(snapshot).getBytes(StandardCharsets.UTF_8));
+
+        Map<String, McpToolCatalogSnapshotStore.SnapshotEntry> loaded = newStore(file).load();
+
+        assertEquals(List.of("good"), List.copyOf(loaded.keySet()));
+        assertEquals(store.hash(tools), loaded.get("good").getHash());
+        assertTrue(Files.notExists(tempDir.resolve("tools.json.tmp")));
+    }
+
+    private McpToolCatalogSnapshotStore newStore(Path file) {
+        McpServerConfig serverConfig = new McpServerConfig();
+        serverConfig.setToolsSnapshotFile(file != null ? file.toString() : null);
+        return new McpToolCatalogSnapshotStore(serverConfig, objectMapper);
+    }
+
+    /**
+     * 입력 스키마 속성을 주어진 순서로 넣은 도구 정의
+     */
+    private static Map<String, Object> tool(String name, String firstProperty, String secondProperty) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put(firstProperty, Map.of("type", "string"));
+        properties.put(secondProperty, Map.of("type", "string"));
+        Map<String, Object> inputSchema = new LinkedHashMap<>();
+        inputSchema.put("type", "object");
+        inputSchema.put("properties", properties);
+        Map<String, Object> tool = new LinkedHashMap<>();
+        tool.put("name", name);
+        tool.put("inputSchema", inputSchema);
+        return tool;
+    }
+}
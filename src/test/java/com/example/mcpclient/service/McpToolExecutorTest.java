@@ -0,0 +1,109 @@
+package com.example.mcpclient.service;
+
+import com.example.mcpclient.config.McpServerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class McpToolExecutorTest {
+
+    private final McpToolExecutor executor = new McpToolExecutor(
+            new FixedServerRegistry(Map.of("limited", maxParallel(2))), new StandardEnvironment());
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void resultsFollowTaskOrderRegardlessOfCompletionOrder() throws Exception {
+        List<McpToolExecutor.Task<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int value = i;
+            // 앞의 작업일수록 늦게 끝남
+            tasks.add(new McpToolExecutor.Task<>(null, () -> {
+                Thread.sleep(50L * (5 - value));
+                return value;
+            }));
+        }
+
+        assertEquals(List.of(0, 1, 2, 3, 4), executor.invokeAll(tasks));
+    }
+
+    @Test
+    void concurrentCallsPerServerStayWithinLimit() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<McpToolExecutor.Task<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            tasks.add(new McpToolExecutor.Task<>("limited", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(50);
+                running.decrementAndGet();
+                return 0;
+            }));
+        }
+
+        executor.invokeAll(tasks);
+
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    void firstFailureIsReportedAfterAllTasksFinish() {
+        AtomicInteger completed = new AtomicInteger();
+        IOException first = new IOException("first");
+        List<McpToolExecutor.Task<Integer>> tasks = List.of(
+                new McpToolExecutor.Task<>(null, () -> {
+                    Thread.sleep(100);
+                    throw first;
+                }),
+                new McpToolExecutor.Task<>(null, () -> {
+                    throw new IllegalStateException("second");
+                }),
+                new McpToolExecutor.Task<>(null, () -> {
+                    Thread.sleep(150);
+                    return completed.incrementAndGet();
+                }));
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> executor.invokeAll(tasks));
+
+        // 먼저 실패한 작업이 아니라 순서상 첫 번째 작업의 실패를 전달
+        assertInstanceOf(IOException.class, error.getCause());
+        assertEquals(1, completed.get());
+    }
+
+    private static McpServerConfig.McpServerInfo maxParallel(int maxParallelToolCalls) {
+        McpServerConfig.McpServerInfo serverInfo = new McpServerConfig.McpServerInfo();
+        serverInfo.setMaxParallelToolCalls(maxParallelToolCalls);
+        return serverInfo;
+    }
+
+    /**
+     * 정해진 서버 설정만 돌려주는 레지스트리 (연결은 만들지 않음)
+     */
+    static final class FixedServerRegistry extends McpServerRegistry {
+        private final Map<String, McpServerConfig.McpServerInfo> servers;
+
+        FixedServerRegistry(Map<String, McpServerConfig.McpServerInfo> servers) {
+            super(new McpServerConfig(), null, null, null, null, new StandardEnvironment());
+            this.servers = servers;
+        }
+
+        @Override
+        public McpServerConfig.McpServerInfo getServer(String serverName) {
+            return servers.get(serverName);
+        }
+    }
+}